@@ -1,23 +1,23 @@
 package org.delcom.app.configs;
 
-import org.delcom.app.entities.User;
-import org.springframework.stereotype.Component;
-import org.springframework.web.context.annotation.RequestScope;
+/**
+ * Principal dari request yang sedang berjalan. Di-bind oleh AuthFilter
+ * selama handler dieksekusi (ScopedValue), sehingga tidak perlu bean
+ * request-scope dan proxy.
+ */
+public final class AuthContext {
 
-@Component
-@RequestScope
-public class AuthContext {
-    private User authUser;
+    public static final ScopedValue<AuthPrincipal> PRINCIPAL = ScopedValue.newInstance();
 
-    public User getAuthUser() {
-        return authUser;
+    private AuthContext() {
     }
 
-    public void setAuthUser(User authUser) {
-        this.authUser = authUser;
+    // null jika request tidak terautentikasi
+    public static AuthPrincipal current() {
+        return PRINCIPAL.isBound() ? PRINCIPAL.get() : null;
     }
 
-    public boolean isAuthenticated() {
-        return authUser != null;
+    public static boolean isAuthenticated() {
+        return current() != null;
     }
 }
@@ -0,0 +1,22 @@
+package org.delcom.app.configs;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+import org.delcom.app.entities.User;
+
+// User yang sedang login, immutable dan tanpa hash password. Serializable
+// karena juga disimpan di session (login lewat halaman view)
+public record AuthPrincipal(UUID id, String name, String email) implements Serializable {
+
+    public static AuthPrincipal from(User user) {
+        return new AuthPrincipal(user.getId(), user.getName(), user.getEmail());
+    }
+
+    // Referensi User (id, nama, email) untuk relasi entity seperti Barang.user
+    public User toUser() {
+        User user = new User(name, email, null);
+        user.setId(id);
+        return user;
+    }
+}
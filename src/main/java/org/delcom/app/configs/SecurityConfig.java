@@ -1,26 +1,59 @@
 package org.delcom.app.configs;
 
+import java.time.Duration;
+
+import org.delcom.app.interceptors.AuthFilter;
+import org.delcom.app.services.PasswordService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
+        private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
+        // API: stateless, tanpa session, CSRF, request cache, maupun anonymous
+        // authentication. Autentikasi dan response 401 sepenuhnya di AuthFilter.
+        @Bean
+        @Order(1)
+        SecurityFilterChain apiSecurityFilterChain(HttpSecurity http, AuthFilter authFilter) throws Exception {
+                http
+                                .securityMatcher("/api/**")
+                                .sessionManagement(session -> session
+                                                .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                                .csrf(csrf -> csrf.disable())
+                                .requestCache(cache -> cache.disable())
+                                .anonymous(anonymous -> anonymous.disable())
+                                .logout(logout -> logout.disable())
+                                .formLogin(form -> form.disable())
+                                .httpBasic(basic -> basic.disable())
+                                .addFilterBefore(authFilter, AuthorizationFilter.class);
+
+                return http.build();
+        }
+
         @Bean
-        SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+        @Order(2)
+        SecurityFilterChain securityFilterChain(HttpSecurity http, AuthFilter authFilter) throws Exception {
                 http
                                 .exceptionHandling(ex -> ex
                                                 .authenticationEntryPoint((req, res, e) -> {
                                                         res.sendRedirect("/auth/login");
                                                 }))
                                 .authorizeHttpRequests(auth -> auth
-                                                .requestMatchers("/auth/**", "/assets/**", "/api/**",
-                                                                "/css/**", "/js/**")
+                                                .requestMatchers("/auth/**", "/assets/**", "/css/**", "/js/**")
                                                 .permitAll()
                                                 .anyRequest().authenticated())
 
@@ -31,13 +64,30 @@ public class SecurityConfig {
                                 .rememberMe(remember -> remember
                                                 .key("uniqueAndSecret")
                                                 .tokenValiditySeconds(86400) // 24 jam
-                                );
+                                )
+                                .addFilterBefore(authFilter, AuthorizationFilter.class);
 
                 return http.build();
         }
 
+        // AuthFilter hanya dijalankan dari dalam SecurityFilterChain di atas,
+        // jangan didaftarkan lagi sebagai servlet filter
+        @Bean
+        FilterRegistrationBean<AuthFilter> authFilterRegistration(AuthFilter authFilter) {
+                FilterRegistrationBean<AuthFilter> registration = new FilterRegistrationBean<>(authFilter);
+                registration.setEnabled(false);
+                return registration;
+        }
+
+        // Strength BCrypt dipilih saat startup agar satu hash mendekati target latency
         @Bean
-        public PasswordEncoder passwordEncoder() {
-                return new BCryptPasswordEncoder();
+        public PasswordEncoder passwordEncoder(
+                        @Value("${app.security.bcrypt.target-latency:PT0.25S}") Duration targetLatency,
+                        @Value("${app.security.bcrypt.min-strength:10}") int minStrength,
+                        @Value("${app.security.bcrypt.max-strength:14}") int maxStrength) {
+                int strength = PasswordService.calibrateStrength(targetLatency, minStrength, maxStrength,
+                                PasswordService::measureHashNanos);
+                log.info("BCrypt strength: {}", strength);
+                return new BCryptPasswordEncoder(strength);
         }
 }
\ No newline at end of file
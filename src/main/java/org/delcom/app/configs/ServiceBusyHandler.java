@@ -0,0 +1,22 @@
+package org.delcom.app.configs;
+
+import org.delcom.app.services.PasswordService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+// Server sedang penuh: tolak cepat dengan 503 dan Retry-After. Hanya untuk
+// API; halaman web (AuthView) menampilkan pesan di form-nya sendiri
+@RestControllerAdvice(annotations = RestController.class)
+public class ServiceBusyHandler {
+
+    @ExceptionHandler(PasswordService.BusyException.class)
+    public ResponseEntity<ApiResponse<Void>> handlePasswordBusy(PasswordService.BusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfter().toSeconds())))
+                .body(new ApiResponse<>("error", "Server sedang sibuk, silakan coba lagi", null));
+    }
+}
@@ -1,17 +1,14 @@
 package org.delcom.app.configs;
 
-import org.delcom.app.interceptors.AuthInterceptor;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebMvcConfig implements WebMvcConfigurer {
 
-    @Autowired
-    private AuthInterceptor authInterceptor;
+    // Autentikasi API ada di AuthFilter (servlet filter), bukan interceptor,
+    // agar principal bisa di-bind selama handler dijalankan
 
     // 1. PENTING: Konfigurasi agar folder 'uploads' bisa diakses browser
     // Ini wajib agar gambar tugas bisa muncul di HTML
@@ -26,17 +23,4 @@ public class WebMvcConfig implements WebMvcConfigurer {
         registry.addResourceHandler("/**")
                 .addResourceLocations("classpath:/static/");
     }
-
-    // 2. Konfigurasi Interceptor (Keamanan)
-    @Override
-    public void addInterceptors(InterceptorRegistry registry) {
-        registry.addInterceptor(authInterceptor)
-                // Terapkan keamanan hanya pada API endpoint
-                .addPathPatterns("/api/**") 
-                // Kecuali endpoint login/register
-                .excludePathPatterns("/api/auth/**")
-                // Dan biarkan folder uploads diakses tanpa token via interceptor ini
-                // (Meskipun logic di AuthInterceptor sudah handle, exclude disini lebih aman)
-                .excludePathPatterns("/uploads/**"); 
-    }
-}
\ No newline at end of file
+}
@@ -1,18 +1,34 @@
 package org.delcom.app.controllers;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
 import java.util.UUID;
 
 import org.delcom.app.configs.ApiResponse;
 import org.delcom.app.configs.AuthContext;
+import org.delcom.app.dto.BarangCursor;
+import org.delcom.app.dto.BarangImportResult;
+import org.delcom.app.dto.BarangPage;
+import org.delcom.app.dto.BarangStats;
+import org.delcom.app.dto.BarangStatusBulkRequest;
+import org.delcom.app.dto.BarangSummary;
 import org.delcom.app.entities.Barang;
+import org.delcom.app.entities.BarangStatus;
 import org.delcom.app.entities.User;
+import org.delcom.app.services.BarangExportService;
+import org.delcom.app.services.BarangImportService;
 import org.delcom.app.services.BarangService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -23,32 +39,184 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import jakarta.servlet.http.HttpServletRequest;
+import tools.jackson.databind.ObjectMapper;
 
 @RestController
 @RequestMapping("/api/barang")
 public class BarangController {
 
     private final BarangService barangService;
-    private final AuthContext authContext; // 1. Ubah jadi final & hapus @Autowired
+    private final BarangImportService barangImportService;
+    private final BarangExportService barangExportService;
+    private final ObjectMapper objectMapper;
 
-    // 2. Masukkan AuthContext ke dalam Constructor
-    public BarangController(BarangService barangService, AuthContext authContext) {
+    // User yang login dibaca langsung dari AuthContext (di-bind oleh AuthFilter)
+    public BarangController(BarangService barangService, BarangImportService barangImportService,
+            BarangExportService barangExportService, ObjectMapper objectMapper) {
         this.barangService = barangService;
-        this.authContext = authContext;
+        this.barangImportService = barangImportService;
+        this.barangExportService = barangExportService;
+        this.objectMapper = objectMapper;
     }
 
-    // 1. GET: Ambil semua stok barang
+    // Response GET boleh disimpan client, tapi harus divalidasi ulang (ETag)
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    // Conditional GET: ETag = versi data barang milik user. true jika
+    // If-None-Match masih cocok; status 304 dan header ETag sudah di-set oleh
+    // checkNotModified, jadi barang tidak perlu dimuat sama sekali
+    private boolean notModified(UUID userId, WebRequest webRequest) {
+        return webRequest.checkNotModified(barangService.getVersion(userId).etag());
+    }
+
+    // 1. GET: Ambil stok barang per halaman. Halaman berikutnya diambil dengan
+    // ?cursor=<nextCursor dari response sebelumnya>; ?ready=true hanya barang
+    // READY (cursor tetap dikirim bersama ready=true)
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Barang>>> getAllBarang() {
-        if (!authContext.isAuthenticated()) {
+    public ResponseEntity<ApiResponse<BarangPage>> getAllBarang(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "ready", defaultValue = "false") boolean ready,
+            WebRequest webRequest
+    ) {
+        if (!AuthContext.isAuthenticated()) {
             return ResponseEntity.status(401).body(new ApiResponse<>("fail", "Unauthorized", null));
         }
-        
-        User user = authContext.getAuthUser();
-        List<Barang> barangList = barangService.getAllBarang(user.getId());
-        
-        return ResponseEntity.ok(new ApiResponse<>("success", "Berhasil mengambil data stok barang", barangList));
+
+        BarangCursor after = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            after = BarangCursor.decode(cursor);
+            if (after == null) {
+                return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Cursor tidak valid", null));
+            }
+        }
+
+        UUID userId = AuthContext.current().id();
+        if (notModified(userId, webRequest)) {
+            return null;
+        }
+
+        BarangPage barangPage = barangService.getBarangPage(userId, after, size, ready);
+
+        return ResponseEntity.ok().cacheControl(REVALIDATE)
+                .body(new ApiResponse<>("success", "Berhasil mengambil data stok barang", barangPage));
+    }
+
+    // 1b. GET: Cari barang (nama & deskripsi), bisa digabung filter status/kategori.
+    // Hasil diurutkan dari yang paling relevan, maksimal ?size barang
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<List<BarangSummary>>> searchBarang(
+            @RequestParam(value = "q", required = false) String keyword,
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "kategori", required = false) String kategori,
+            @RequestParam(value = "size", required = false) Integer size,
+            WebRequest webRequest
+    ) {
+        if (!AuthContext.isAuthenticated()) {
+            return ResponseEntity.status(401).body(new ApiResponse<>("fail", "Unauthorized", null));
+        }
+
+        if (keyword == null || keyword.isBlank()) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Kata kunci pencarian tidak boleh kosong", null));
+        }
+
+        BarangStatus statusFilter;
+        try {
+            statusFilter = StringUtils.hasText(status) ? BarangStatus.parse(status) : null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>("fail", e.getMessage(), null));
+        }
+
+        UUID userId = AuthContext.current().id();
+        if (notModified(userId, webRequest)) {
+            return null;
+        }
+
+        List<BarangSummary> results = barangService.searchBarang(userId, keyword, statusFilter, kategori, size);
+
+        return ResponseEntity.ok().cacheControl(REVALIDATE)
+                .body(new ApiResponse<>("success", "Berhasil mencari barang", results));
+    }
+
+    // 1c. GET: Export semua barang, ?format=csv (default) atau ndjson. Baris
+    // dikirim bertahap (chunked) langsung dari cursor database
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBarang(
+            @RequestParam(value = "format", defaultValue = "csv") String format,
+            WebRequest webRequest
+    ) {
+        if (!AuthContext.isAuthenticated()) {
+            return jsonResponse(401, new ApiResponse<>("fail", "Unauthorized", null));
+        }
+
+        String normalizedFormat = format.toLowerCase(Locale.ROOT);
+        boolean csv = normalizedFormat.equals("csv");
+        if (!csv && !normalizedFormat.equals("ndjson")) {
+            return jsonResponse(400, new ApiResponse<>("fail", "Format export harus csv atau ndjson", null));
+        }
+
+        // Body ditulis di thread lain (tanpa AuthContext), jadi id diambil sekarang
+        UUID userId = AuthContext.current().id();
+        if (notModified(userId, webRequest)) {
+            return null;
+        }
+
+        if (csv) {
+            return ResponseEntity.ok()
+                    .cacheControl(REVALIDATE)
+                    .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, attachment("barang.csv"))
+                    .body(output -> barangExportService.exportCsv(userId, output));
+        }
+        return ResponseEntity.ok()
+                .cacheControl(REVALIDATE)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, attachment("barang.ndjson"))
+                .body(output -> barangExportService.exportNdjson(userId, output));
+    }
+
+    // 1d. GET: Statistik stok (total, READY, terjual, jumlah per kategori)
+    @GetMapping("/stats")
+    public ResponseEntity<ApiResponse<BarangStats>> getStats(WebRequest webRequest) {
+        if (!AuthContext.isAuthenticated()) {
+            return ResponseEntity.status(401).body(new ApiResponse<>("fail", "Unauthorized", null));
+        }
+
+        // ETag dari isi statistik (beberapa baris barang_stats per user), agar
+        // 304 tidak menahan counter lama setelah /stats/rebuild
+        BarangStats stats = barangService.getStats(AuthContext.current().id());
+        if (webRequest.checkNotModified(stats.etag())) {
+            return null;
+        }
+
+        return ResponseEntity.ok().cacheControl(REVALIDATE)
+                .body(new ApiResponse<>("success", "Berhasil mengambil statistik barang", stats));
+    }
+
+    // 1e. POST: Hitung ulang statistik dari data barang
+    @PostMapping("/stats/rebuild")
+    public ResponseEntity<ApiResponse<BarangStats>> rebuildStats() {
+        if (!AuthContext.isAuthenticated()) {
+            return ResponseEntity.status(401).body(new ApiResponse<>("fail", "Unauthorized", null));
+        }
+
+        BarangStats stats = barangService.rebuildStats(AuthContext.current().id());
+        return ResponseEntity.ok(new ApiResponse<>("success", "Statistik barang berhasil dihitung ulang", stats));
+    }
+
+    private static String attachment(String filename) {
+        return ContentDisposition.attachment().filename(filename).build().toString();
+    }
+
+    private ResponseEntity<StreamingResponseBody> jsonResponse(int status, ApiResponse<Void> body) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(output -> objectMapper.writeValue(output, body));
     }
 
     // 2. POST: Upload Barang Baru
@@ -60,12 +228,12 @@ public class BarangController {
             @RequestParam("tanggalMasuk") String tanggalStr,
             @RequestParam(value = "file", required = false) MultipartFile file
     ) {
-        if (!authContext.isAuthenticated()) {
+        if (!AuthContext.isAuthenticated()) {
             return ResponseEntity.status(401).body(new ApiResponse<>("fail", "Unauthorized", null));
         }
 
         try {
-            User user = authContext.getAuthUser();
+            User user = AuthContext.current().toUser();
             LocalDateTime tanggalMasuk = LocalDateTime.parse(tanggalStr);
 
             Barang newBarang = new Barang(namaBarang, kategori, deskripsi, tanggalMasuk, user);
@@ -77,11 +245,39 @@ public class BarangController {
             return ResponseEntity.status(500).body(new ApiResponse<>("error", "Gagal upload foto barang", null));
         } catch (DateTimeParseException e) {
             return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Format tanggal salah (Gunakan ISO-8601)", null));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>("fail", e.getMessage(), null));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Terjadi kesalahan: " + e.getMessage(), null));
         }
     }
 
+    // 2b. POST: Import banyak barang sekaligus. Body berisi file CSV (text/csv,
+    // baris pertama = header) atau NDJSON (application/x-ndjson). Body dibaca
+    // sebagai stream, jadi tidak terkena batas ukuran multipart
+    @PostMapping(value = "/import", consumes = { BarangImportService.TEXT_CSV, MediaType.APPLICATION_NDJSON_VALUE })
+    public ResponseEntity<ApiResponse<BarangImportResult>> importBarang(HttpServletRequest request) {
+        if (!AuthContext.isAuthenticated()) {
+            return ResponseEntity.status(401).body(new ApiResponse<>("fail", "Unauthorized", null));
+        }
+
+        try {
+            UUID userId = AuthContext.current().id();
+            MediaType contentType = MediaType.parseMediaType(request.getContentType());
+            BarangImportResult result = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)
+                    ? barangImportService.importNdjson(userId, request.getInputStream())
+                    : barangImportService.importCsv(userId, request.getInputStream());
+
+            String message = "Import selesai: " + result.imported() + " barang berhasil, " + result.failed() + " gagal";
+            return ResponseEntity.ok(new ApiResponse<>("success", message, result));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>("fail", e.getMessage(), null));
+        } catch (IOException e) {
+            return ResponseEntity.status(500).body(new ApiResponse<>("error", "Gagal membaca file import", null));
+        }
+    }
+
     // 3. PUT: Update Detail Barang
     @PutMapping(value = "/{id}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<ApiResponse<Barang>> updateBarang(
@@ -92,7 +288,7 @@ public class BarangController {
             @RequestParam("tanggalMasuk") String tanggalStr,
             @RequestParam(value = "file", required = false) MultipartFile file
     ) {
-        if (!authContext.isAuthenticated()) {
+        if (!AuthContext.isAuthenticated()) {
             return ResponseEntity.status(401).body(new ApiResponse<>("fail", "Unauthorized", null));
         }
 
@@ -105,9 +301,9 @@ public class BarangController {
             barangDetails.setDeskripsi(deskripsi);
             barangDetails.setTanggalMasuk(tanggalMasuk);
 
-            Barang updatedBarang = barangService.updateBarang(id, barangDetails, file);
+            Barang updatedBarang = barangService.updateBarang(AuthContext.current().id(), id, barangDetails, file);
 
-            // Perbaikan logic: Biasanya service throw exception jika null, tapi jika return null kita handle disini
+            // null jika barang tidak ada atau bukan milik user
             if (updatedBarang == null) {
                 return ResponseEntity.status(404).body(new ApiResponse<>("fail", "Barang tidak ditemukan", null));
             }
@@ -118,6 +314,8 @@ public class BarangController {
             return ResponseEntity.status(500).body(new ApiResponse<>("error", "Gagal memproses gambar", null));
         } catch (DateTimeParseException e) {
              return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Format tanggal salah", null));
+        } catch (IllegalArgumentException e) {
+             return ResponseEntity.badRequest().body(new ApiResponse<>("fail", e.getMessage(), null));
         } catch (RuntimeException e) {
              return ResponseEntity.status(404).body(new ApiResponse<>("fail", e.getMessage(), null));
         }
@@ -129,7 +327,7 @@ public class BarangController {
             @PathVariable UUID id, 
             @RequestBody String status 
     ) {
-        if (!authContext.isAuthenticated()) {
+        if (!AuthContext.isAuthenticated()) {
             return ResponseEntity.status(401).body(new ApiResponse<>("fail", "Unauthorized", null));
         }
         
@@ -140,23 +338,54 @@ public class BarangController {
 
         String cleanStatus = status.replace("\"", "").trim();
 
+        Barang updatedBarang;
         try {
-            Barang updatedBarang = barangService.updateStatus(id, cleanStatus);
-            return ResponseEntity.ok(new ApiResponse<>("success", "Status barang berhasil diubah", updatedBarang));
-        } catch (RuntimeException e) { // Menangkap jika ID tidak ditemukan dari Service
+            updatedBarang = barangService.updateStatus(AuthContext.current().id(), id, BarangStatus.parse(cleanStatus));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>("fail", e.getMessage(), null));
+        }
+        if (updatedBarang == null) {
             return ResponseEntity.status(404).body(new ApiResponse<>("fail", "Barang tidak ditemukan", null));
         }
+        return ResponseEntity.ok(new ApiResponse<>("success", "Status barang berhasil diubah", updatedBarang));
+    }
+
+    // 4b. PATCH: Update Status banyak barang sekaligus, body
+    // {"ids": [...], "status": "SOLD"}. Data = id barang yang statusnya berubah
+    @PatchMapping("/status")
+    public ResponseEntity<ApiResponse<List<UUID>>> updateStatusBulk(@RequestBody BarangStatusBulkRequest request) {
+        if (!AuthContext.isAuthenticated()) {
+            return ResponseEntity.status(401).body(new ApiResponse<>("fail", "Unauthorized", null));
+        }
+
+        if (request.ids() == null || request.ids().isEmpty() || request.ids().stream().anyMatch(Objects::isNull)) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Daftar id barang tidak valid", null));
+        }
+        if (request.status() == null || request.status().isBlank()) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Status tidak boleh kosong", null));
+        }
+
+        try {
+            List<UUID> updatedIds = barangService.updateStatusBulk(
+                    AuthContext.current().id(), request.ids(), BarangStatus.parse(request.status()));
+            return ResponseEntity.ok(new ApiResponse<>("success",
+                    updatedIds.size() + " barang berhasil diubah statusnya", updatedIds));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>("fail", e.getMessage(), null));
+        }
     }
 
     // 5. DELETE: Hapus Barang
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse<Void>> deleteBarang(@PathVariable UUID id) {
-        if (!authContext.isAuthenticated()) {
+        if (!AuthContext.isAuthenticated()) {
             return ResponseEntity.status(401).body(new ApiResponse<>("fail", "Unauthorized", null));
         }
 
         try {
-            barangService.deleteBarang(id);
+            if (!barangService.deleteBarang(AuthContext.current().id(), id)) {
+                return ResponseEntity.status(404).body(new ApiResponse<>("fail", "Barang tidak ditemukan", null));
+            }
             return ResponseEntity.ok(new ApiResponse<>("success", "Barang berhasil dihapus dari stok", null));
         } catch (Exception e) {
             // Jaga-jaga jika delete gagal karena constraint DB dll
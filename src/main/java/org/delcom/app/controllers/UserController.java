@@ -5,30 +5,42 @@ import java.util.UUID;
 
 import org.delcom.app.configs.ApiResponse;
 import org.delcom.app.configs.AuthContext;
-import org.delcom.app.entities.AuthToken;
+import org.delcom.app.configs.AuthPrincipal;
 import org.delcom.app.entities.User;
+import org.delcom.app.services.AccessTokenService;
+import org.delcom.app.services.AuthService;
+import org.delcom.app.services.AuthService.LoginResult;
 import org.delcom.app.services.AuthTokenService;
+import org.delcom.app.services.LoginThrottle;
+import org.delcom.app.services.PasswordService;
 import org.delcom.app.services.UserService;
-import org.delcom.app.utils.JwtUtil;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletRequest;
+
 @RestController
 @RequestMapping("/api")
 public class UserController {
     private final UserService userService;
     private final AuthTokenService authTokenService;
+    private final AuthService authService;
+    private final PasswordService passwordService;
+    private final LoginThrottle loginThrottle;
+    private final AccessTokenService accessTokenService;
 
-    public UserController(UserService userService, AuthTokenService authTokenService) {
+    public UserController(UserService userService, AuthTokenService authTokenService, AuthService authService,
+            PasswordService passwordService, LoginThrottle loginThrottle, AccessTokenService accessTokenService) {
         this.userService = userService;
         this.authTokenService = authTokenService;
+        this.authService = authService;
+        this.passwordService = passwordService;
+        this.loginThrottle = loginThrottle;
+        this.accessTokenService = accessTokenService;
     }
 
-    @Autowired
-    protected AuthContext authContext;
-
     // Melakukan registrasi pengguna
     // -------------------------------
     @PostMapping("/auth/register")
@@ -49,7 +61,7 @@ public class UserController {
                             null));
         }
 
-        String hashPassword = new BCryptPasswordEncoder().encode(reqUser.getPassword());
+        String hashPassword = passwordService.encode(reqUser.getPassword());
 
         User createdUser = userService.createUser(
                 reqUser.getName(),
@@ -65,57 +77,74 @@ public class UserController {
     // Melakukan login pengguna
     // -------------------------------
     @PostMapping("/auth/login")
-    public ResponseEntity<ApiResponse<Map<String, String>>> loginUser(@RequestBody User reqUser) {
+    public ResponseEntity<ApiResponse<Map<String, String>>> loginUser(@RequestBody User reqUser,
+            HttpServletRequest request) {
         if (reqUser.getEmail() == null || reqUser.getEmail().isEmpty()) {
             return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Data tidak valid", null));
         } else if (reqUser.getPassword() == null || reqUser.getPassword().isEmpty()) {
             return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Data tidak valid", null));
         }
 
-        User existingUser = userService.getUserByEmail(reqUser.getEmail());
-        if (existingUser == null) {
-            return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Email atau password salah", null));
+        // Batasi percobaan login sebelum menyentuh database / BCrypt
+        long retryAfter = loginThrottle.tryAcquire(reqUser.getEmail(), request.getRemoteAddr());
+        if (retryAfter > 0) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                    .body(new ApiResponse<>("fail", "Terlalu banyak percobaan login, coba lagi nanti", null));
         }
 
-        boolean isPasswordMatch = new BCryptPasswordEncoder()
-                .matches(reqUser.getPassword(), existingUser.getPassword());
-        if (!isPasswordMatch) {
+        LoginResult loginResult = authService.login(reqUser.getEmail(), reqUser.getPassword());
+        if (!loginResult.isSuccess()) {
             return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Email atau password salah", null));
         }
 
-        String jwtToken = JwtUtil.generateToken(existingUser.getId());
+        // Mode stateless: authToken = access token berumur pendek, token yang
+        // disimpan dikirim sebagai refreshToken
+        Map<String, String> tokens = accessTokenService.isStateless()
+                ? Map.of("authToken", accessTokenService.createAccessToken(loginResult.user()),
+                        "refreshToken", loginResult.token())
+                : Map.of("authToken", loginResult.token());
+
+        return ResponseEntity.ok().body(new ApiResponse<>(
+                "success",
+                "Login berhasil",
+                tokens));
+    }
 
-        // Hapus token lama jika ada
-        AuthToken existingAuthToken = authTokenService.findUserToken(existingUser.getId(), jwtToken);
-        if (existingAuthToken != null) {
-            authTokenService.deleteAuthToken(existingUser.getId());
+    // Mengambil access token baru dengan refresh token
+    // -------------------------------
+    @PostMapping("/auth/refresh")
+    public ResponseEntity<ApiResponse<Map<String, String>>> refreshToken(
+            @RequestBody Map<String, String> refreshPayload) {
+        String refreshToken = refreshPayload.get("refreshToken");
+        if (refreshToken == null || refreshToken.isEmpty()) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Data tidak valid", null));
         }
 
-        AuthToken authToken = new AuthToken(existingUser.getId(), jwtToken);
-        var createdAuthToken = authTokenService.createAuthToken(authToken);
-        if (createdAuthToken == null) {
-            return ResponseEntity.status(500).body(new ApiResponse<>("error", "Gagal membuat token autentikasi", null));
+        String accessToken = authService.refresh(refreshToken);
+        if (accessToken == null) {
+            return ResponseEntity.status(401).body(new ApiResponse<>("fail", "Refresh token tidak valid", null));
         }
 
         return ResponseEntity.ok().body(new ApiResponse<>(
                 "success",
-                "Login berhasil",
-                Map.of("authToken", jwtToken)));
+                "Token berhasil diperbarui",
+                Map.of("authToken", accessToken)));
     }
 
     // Get informasi pengguna
     @GetMapping("/users/me")
-    public ResponseEntity<ApiResponse<Map<String, User>>> getUserInfo() {
+    public ResponseEntity<ApiResponse<Map<String, AuthPrincipal>>> getUserInfo() {
 
         // Validasi autentikasi
-        if (!authContext.isAuthenticated()) {
+        if (!AuthContext.isAuthenticated()) {
             return ResponseEntity.status(401).body(new ApiResponse<>("fail", "Data tidak valid", null));
         }
-        User authUser = authContext.getAuthUser();
-        authUser.setPassword(null); // Sembunyikan password dalam response
+        // Principal hanya berisi id, nama, dan email
+        AuthPrincipal authUser = AuthContext.current();
 
-        ApiResponse<Map<String, User>> response = new ApiResponse<>("success", "Berhasil mendapatkan info user",
-                Map.of("user", authUser));
+        ApiResponse<Map<String, AuthPrincipal>> response = new ApiResponse<>("success",
+                "Berhasil mendapatkan info user", Map.of("user", authUser));
         return ResponseEntity.ok(response);
     }
 
@@ -124,10 +153,10 @@ public class UserController {
     public ResponseEntity<ApiResponse<User>> updateUser(@RequestBody User reqUser) {
 
         // Validasi autentikasi
-        if (!authContext.isAuthenticated()) {
+        if (!AuthContext.isAuthenticated()) {
             return ResponseEntity.status(401).body(new ApiResponse<>("fail", "Data tidak valid", null));
         }
-        User authUser = authContext.getAuthUser();
+        AuthPrincipal authUser = AuthContext.current();
 
         if (reqUser.getName() == null || reqUser.getName().isEmpty()) {
             return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Data nama tidak valid", null));
@@ -136,7 +165,7 @@ public class UserController {
         }
 
         User updatedUser = userService.updateUser(
-                authUser.getId(),
+                authUser.id(),
                 reqUser.getName(),
                 reqUser.getEmail());
         if (updatedUser == null) {
@@ -153,13 +182,11 @@ public class UserController {
     public ResponseEntity<ApiResponse<Void>> updateUserPassword(@RequestBody Map<String, String> passwordPayload) {
 
         // Validasi autentikasi
-        if (!authContext.isAuthenticated()) {
+        if (!AuthContext.isAuthenticated()) {
             return ResponseEntity.status(401)
                     .body(new ApiResponse<>("fail", "Autentikasi tidak valid", null));
         }
 
-        User authUser = authContext.getAuthUser();
-
         // Ambil old & new password
         String oldPassword = passwordPayload.get("password");
         String newPassword = passwordPayload.get("newPassword");
@@ -170,15 +197,20 @@ public class UserController {
                     .body(new ApiResponse<>("fail", "Password lama dan baru wajib diisi", null));
         }
 
+        // Principal tidak membawa hash password, ambil dari database
+        User authUser = userService.getUserById(AuthContext.current().id());
+        if (authUser == null) {
+            return ResponseEntity.status(404).body(new ApiResponse<>("fail", "User tidak ditemukan", null));
+        }
+
         // Validasi password lama
-        boolean isPasswordMatch = new BCryptPasswordEncoder()
-                .matches(oldPassword, authUser.getPassword());
+        boolean isPasswordMatch = passwordService.matches(oldPassword, authUser.getPassword());
         if (!isPasswordMatch) {
             return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Konfirmasi password tidak cocok", null));
         }
 
         // Update password baru
-        String hashPassword = new BCryptPasswordEncoder().encode(newPassword);
+        String hashPassword = passwordService.encode(newPassword);
         User updatedUser = userService.updatePassword(authUser.getId(), hashPassword);
         if (updatedUser == null) {
             ApiResponse<Void> response = new ApiResponse<>("fail", "User tidak ditemukan", null);
@@ -0,0 +1,42 @@
+package org.delcom.app.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Posisi terakhir di daftar barang (tanggalMasuk desc, id desc). Dikirim ke
+ * client sebagai string opaque (base64url), isinya bukan bagian dari API.
+ */
+public record BarangCursor(LocalDateTime tanggalMasuk, UUID id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static BarangCursor of(BarangSummary barang) {
+        return new BarangCursor(barang.tanggalMasuk(), barang.id());
+    }
+
+    public String encode() {
+        String raw = (tanggalMasuk != null ? tanggalMasuk.toString() : "") + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // null jika cursor tidak valid
+    public static BarangCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                return null;
+            }
+            String tanggal = raw.substring(0, separator);
+            return new BarangCursor(
+                    tanggal.isEmpty() ? null : LocalDateTime.parse(tanggal),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return null;
+        }
+    }
+}
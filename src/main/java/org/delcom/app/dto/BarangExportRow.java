@@ -0,0 +1,12 @@
+package org.delcom.app.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.delcom.app.entities.BarangStatus;
+
+// Satu barang di file export (GET /api/barang/export). Nama field sama dengan
+// kolom import, jadi hasil export bisa di-import ulang
+public record BarangExportRow(UUID id, String namaBarang, String kategori, String deskripsi,
+        LocalDateTime tanggalMasuk, BarangStatus status, String foto, LocalDateTime createdAt, LocalDateTime updatedAt) {
+}
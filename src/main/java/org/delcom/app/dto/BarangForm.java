@@ -8,6 +8,7 @@
 
     import jakarta.validation.constraints.NotBlank;
     import jakarta.validation.constraints.NotNull;
+    import jakarta.validation.constraints.Size;
 
     // GANTI NAMA CLASS
     public class BarangForm {
@@ -16,10 +17,12 @@
 
         // Dulu: judul
         @NotBlank(message = "Nama barang harus diisi")
+        @Size(max = 255, message = "Nama barang maksimal 255 karakter")
         private String namaBarang;
 
         // Dulu: mataKuliah
         @NotBlank(message = "Kategori harus diisi")
+        @Size(max = 255, message = "Kategori maksimal 255 karakter")
         private String kategori;
 
         private String deskripsi;
@@ -35,6 +38,7 @@
         // Untuk menyimpan nama file lama saat edit
         private String existingFoto;
 
+        @Size(max = 255, message = "Status maksimal 255 karakter")
         private String status = "READY"; // Default status Thrift
 
         // Constructor
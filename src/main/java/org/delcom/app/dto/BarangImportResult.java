@@ -0,0 +1,11 @@
+package org.delcom.app.dto;
+
+import java.util.List;
+
+// Hasil import: jumlah barang tersimpan & gagal, plus daftar error per baris.
+// errorsTruncated = true jika error lebih banyak dari yang dikembalikan
+public record BarangImportResult(int imported, int failed, List<RowError> errors, boolean errorsTruncated) {
+
+    public record RowError(long line, String message) {
+    }
+}
@@ -0,0 +1,7 @@
+package org.delcom.app.dto;
+
+// Satu baris file import (kolom CSV atau field NDJSON), masih berupa teks
+// mentah sebelum divalidasi dengan aturan BarangForm
+public record BarangImportRow(String namaBarang, String kategori, String deskripsi, String tanggalMasuk,
+        String status) {
+}
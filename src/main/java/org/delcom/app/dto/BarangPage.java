@@ -0,0 +1,7 @@
+package org.delcom.app.dto;
+
+import java.util.List;
+
+// Satu halaman daftar barang; nextCursor null jika sudah halaman terakhir
+public record BarangPage(List<BarangSummary> items, String nextCursor) {
+}
@@ -0,0 +1,53 @@
+package org.delcom.app.dto;
+
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.delcom.app.entities.BarangStatus;
+import org.delcom.app.utils.JwtUtil;
+
+/**
+ * Statistik barang milik satu user: total, jumlah yang masih READY, yang
+ * sudah terjual (SOLD), dan jumlah per kategori (urut nama kategori).
+ */
+public record BarangStats(long total, long ready, long sold, Map<String, Long> kategori) {
+
+    // Satu baris tabel barang_stats (status = BarangStatus.code())
+    public record Counter(String kategori, short status, long jumlah) {
+    }
+
+    // Nilai ETag (tanpa tanda kutip) dari isi statistik itu sendiri, bukan
+    // dari versi data barang: hitung ulang (rebuild) yang memperbaiki counter
+    // ikut mengubah ETag walaupun data barang tidak berubah. SHA-256 dari
+    // pasangan (kategori, jumlah) yang diurutkan, bukan hashCode map yang
+    // sama untuk jumlah yang ditukar antar kategori
+    public String etag() {
+        StringBuilder content = new StringBuilder()
+                .append(total).append(';').append(ready).append(';').append(sold);
+        for (Map.Entry<String, Long> entry : new TreeMap<>(kategori).entrySet()) {
+            // Panjang nama di depan agar nama yang berisi ';' / '=' tidak ambigu
+            content.append(';').append(entry.getKey().length()).append(':').append(entry.getKey())
+                    .append('=').append(entry.getValue());
+        }
+        return HexFormat.of().formatHex(JwtUtil.digest(content.toString()));
+    }
+
+    public static BarangStats of(List<Counter> counters) {
+        long total = 0;
+        long ready = 0;
+        long sold = 0;
+        Map<String, Long> kategori = new TreeMap<>();
+        for (Counter counter : counters) {
+            total += counter.jumlah();
+            if (BarangStatus.fromCode(counter.status()) == BarangStatus.READY) {
+                ready += counter.jumlah();
+            } else {
+                sold += counter.jumlah();
+            }
+            kategori.merge(counter.kategori(), counter.jumlah(), Long::sum);
+        }
+        return new BarangStats(total, ready, sold, kategori);
+    }
+}
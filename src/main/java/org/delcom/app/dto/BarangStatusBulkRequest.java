@@ -0,0 +1,8 @@
+package org.delcom.app.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+// Body PATCH /api/barang/status: ubah status beberapa barang sekaligus
+public record BarangStatusBulkRequest(List<UUID> ids, String status) {
+}
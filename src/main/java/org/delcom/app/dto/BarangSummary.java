@@ -0,0 +1,28 @@
+package org.delcom.app.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.delcom.app.entities.BarangStatus;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * Satu baris daftar barang (kartu di pages/barang/index.html dan GET
+ * /api/barang). Dibaca langsung lewat constructor expression JPQL, jadi tidak
+ * masuk persistence context dan tidak ikut dirty checking.
+ */
+@JsonPropertyOrder({ "id", "namaBarang", "kategori", "deskripsi", "tanggalMasuk", "foto", "status" })
+public record BarangSummary(UUID id, String namaBarang, String kategori, String deskripsi,
+        LocalDateTime tanggalMasuk, String foto, BarangStatus status) {
+
+    // Panjang maksimal deskripsi di daftar, sisanya diganti "…"
+    public static final int DESKRIPSI_MAX_LENGTH = 160;
+
+    public BarangSummary {
+        // Query mengambil satu karakter lebih untuk mengetahui apakah deskripsi terpotong
+        if (deskripsi != null && deskripsi.length() > DESKRIPSI_MAX_LENGTH) {
+            deskripsi = deskripsi.substring(0, DESKRIPSI_MAX_LENGTH) + "…";
+        }
+    }
+}
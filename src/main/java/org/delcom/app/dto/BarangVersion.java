@@ -0,0 +1,19 @@
+package org.delcom.app.dto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Versi data barang milik satu user: jumlah barang dan updated_at terbaru.
+ * Setiap perubahan mengubah salah satunya (insert/update mengisi updated_at
+ * baru, delete mengurangi jumlah), jadi cukup untuk ETag daftar barang.
+ */
+public record BarangVersion(long count, LocalDateTime lastUpdated) {
+
+    // Nilai ETag (tanpa tanda kutip): jumlah-updated_at dalam mikrodetik
+    public String etag() {
+        long micros = lastUpdated == null ? 0
+                : lastUpdated.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + lastUpdated.getNano() / 1_000;
+        return count + "-" + Long.toHexString(micros);
+    }
+}
@@ -3,12 +3,15 @@ package org.delcom.app.entities;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+import org.delcom.app.utils.JwtUtil;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "auth_tokens")
+@Table(name = "auth_tokens") // Skema & index: db/migration
 @JsonPropertyOrder({ "id", "token", "userId", "createdAt" })
 public class AuthToken {
     @Id
@@ -19,6 +22,11 @@ public class AuthToken {
     @Column(name = "token", nullable = false, columnDefinition = "TEXT")
     private String token;
 
+    // SHA-256 dari token, dipakai untuk lookup (lihat AuthTokenRepository)
+    @JsonIgnore
+    @Column(name = "token_digest", length = 32, nullable = false)
+    private byte[] tokenDigest;
+
     @Column(name = "user_id", nullable = false)
     private UUID userId;
 
@@ -30,7 +38,7 @@ public class AuthToken {
 
     public AuthToken(UUID userId, String token) {
         this.userId = userId;
-        this.token = token;
+        setToken(token);
         this.createdAt = LocalDateTime.now();
     }
 
@@ -48,6 +56,11 @@ public class AuthToken {
 
     public void setToken(String token) {
         this.token = token;
+        this.tokenDigest = token != null ? JwtUtil.digest(token) : null;
+    }
+
+    public byte[] getTokenDigest() {
+        return tokenDigest;
     }
 
     public UUID getUserId() {
@@ -3,6 +3,10 @@ package org.delcom.app.entities;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.Formula;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import org.springframework.format.annotation.DateTimeFormat;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -11,7 +15,8 @@ import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "barang") // Nama tabel di database berubah jadi 'barang'
+@DynamicUpdate // UPDATE hanya berisi kolom yang berubah (mis. deskripsi TEXT tidak ditulis ulang)
+@Table(name = "barang") // Nama tabel di database berubah jadi 'barang' (skema & index: db/migration)
 @JsonPropertyOrder({ "id", "namaBarang", "kategori", "tanggalMasuk", "status", "createdAt", "updatedAt" })
 public class Barang { // Nama Class berubah dari Tugas menjadi Barang
 
@@ -25,10 +30,17 @@ public class Barang { // Nama Class berubah dari Tugas menjadi Barang
     @Column(name = "nama_barang", nullable = false)
     private String namaBarang;
 
-    // Dulunya 'mataKuliah' -> Kita ubah jadi 'kategori' (Misal: Sepatu, Jaket)
-    @Column(name = "kategori", nullable = false)
+    // Dulunya 'mataKuliah' -> Kita ubah jadi 'kategori' (Misal: Sepatu, Jaket).
+    // Yang disimpan di tabel barang hanya kategori_id (kamus kategori, V7);
+    // nama dibaca dalam query yang sama. Saat menulis, BarangService mengisi
+    // kategoriId dari nama kategori (KategoriDictionary)
+    @Formula("(SELECT k.nama FROM kategori k WHERE k.id = kategori_id)")
     private String kategori;
 
+    @Column(name = "kategori_id", nullable = false)
+    @JsonIgnore
+    private Integer kategoriId;
+
     // Dulunya 'deskripsi' -> Tetap deskripsi (Untuk detail kondisi/size)
     @Column(name = "deskripsi", columnDefinition = "TEXT")
     private String deskripsi;
@@ -42,8 +54,10 @@ public class Barang { // Nama Class berubah dari Tugas menjadi Barang
     @Column(name = "foto")
     private String foto;
 
+    @Enumerated(EnumType.ORDINAL)
+    @JdbcTypeCode(SqlTypes.SMALLINT)
     @Column(name = "status", nullable = false)
-    private String status; // Isi: "READY", "SOLD"
+    private BarangStatus status;
 
     // Relasi ke User (Admin yang upload barang)
     @ManyToOne(fetch = FetchType.LAZY)
@@ -68,7 +82,7 @@ public class Barang { // Nama Class berubah dari Tugas menjadi Barang
         this.deskripsi = deskripsi;
         this.tanggalMasuk = tanggalMasuk;
         this.user = user;
-        this.status = "READY"; // Default status saat barang baru diupload
+        this.status = BarangStatus.READY; // Default status saat barang baru diupload
     }
 
     // ======= Getters and Setters (Updated Names) =======
@@ -97,6 +111,14 @@ public class Barang { // Nama Class berubah dari Tugas menjadi Barang
         this.kategori = kategori;
     }
 
+    public Integer getKategoriId() {
+        return kategoriId;
+    }
+
+    public void setKategoriId(Integer kategoriId) {
+        this.kategoriId = kategoriId;
+    }
+
     public String getDeskripsi() {
         return deskripsi;
     }
@@ -121,11 +143,11 @@ public class Barang { // Nama Class berubah dari Tugas menjadi Barang
         this.foto = foto;
     }
 
-    public String getStatus() {
+    public BarangStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(BarangStatus status) {
         this.status = status;
     }
 
@@ -151,7 +173,7 @@ public class Barang { // Nama Class berubah dari Tugas menjadi Barang
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
         if (this.status == null) {
-            this.status = "READY"; // Default status
+            this.status = BarangStatus.READY; // Default status
         }
     }
 
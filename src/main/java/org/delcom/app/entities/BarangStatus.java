@@ -0,0 +1,43 @@
+package org.delcom.app.entities;
+
+import java.util.Locale;
+
+/**
+ * Status barang. Disimpan sebagai smallint berisi urutan konstanta
+ * (0 = READY, 1 = SOLD, lihat V7__barang_status_kategori.sql), jadi status
+ * baru hanya boleh ditambah di akhir.
+ */
+public enum BarangStatus {
+    READY,
+    SOLD;
+
+    // Nilai dari API / form, tanpa membedakan huruf besar/kecil. "Selesai"
+    // (label lama tandai sold di halaman web) sama dengan SOLD
+    public static BarangStatus parse(String value) {
+        String name = value.trim().toUpperCase(Locale.ROOT);
+        if (name.equals("SELESAI")) {
+            return SOLD;
+        }
+        for (BarangStatus status : values()) {
+            if (status.name().equals(name)) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Status harus READY atau SOLD");
+    }
+
+    // Nilai kolom status. Kode di luar konstanta berarti data ditulis di luar
+    // aplikasi (manual atau migrasi), bukan input pengguna
+    public static BarangStatus fromCode(short code) {
+        BarangStatus[] values = values();
+        if (code < 0 || code >= values.length) {
+            throw new IllegalStateException("Kode status barang tidak dikenal: " + code);
+        }
+        return values[code];
+    }
+
+    // Nilai kolom status (untuk native query)
+    public short code() {
+        return (short) ordinal();
+    }
+}
@@ -0,0 +1,65 @@
+package org.delcom.app.entities;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+
+// Satu file foto yang menunggu dihapus dari folder upload (lihat FileDeletionQueue)
+@Entity
+@Table(name = "file_deletions") // Skema & index: db/migration
+public class FileDeletion {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", updatable = false, nullable = false)
+    private Long id;
+
+    @Column(name = "filename", nullable = false, updatable = false)
+    private String filename;
+
+    // Jumlah percobaan yang sudah dimulai
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public FileDeletion() {
+    }
+
+    public FileDeletion(String filename) {
+        this.filename = filename;
+        this.createdAt = LocalDateTime.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
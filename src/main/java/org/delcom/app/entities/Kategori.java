@@ -0,0 +1,34 @@
+package org.delcom.app.entities;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.*;
+
+// Kamus nama kategori; barang hanya menyimpan id-nya (lihat KategoriDictionary)
+@Entity
+@Immutable
+@Table(name = "kategori") // Skema & index: db/migration
+public class Kategori {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", updatable = false, nullable = false)
+    private Integer id;
+
+    @Column(name = "nama", nullable = false, updatable = false)
+    private String nama;
+
+    public Kategori() {
+    }
+
+    public Kategori(String nama) {
+        this.nama = nama;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getNama() {
+        return nama;
+    }
+}
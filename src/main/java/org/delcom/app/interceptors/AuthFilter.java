@@ -0,0 +1,199 @@
+    package org.delcom.app.interceptors;
+
+    import java.io.IOException;
+    import java.util.UUID;
+
+    import org.delcom.app.configs.AuthContext;
+    import org.delcom.app.configs.AuthPrincipal;
+    import org.delcom.app.entities.AuthToken;
+    import org.delcom.app.entities.User;
+    import org.delcom.app.services.AccessTokenService;
+    import org.delcom.app.services.AuthTokenCache;
+    import org.delcom.app.services.AuthTokenService;
+    import org.delcom.app.services.UserService;
+    import org.delcom.app.utils.JwtUtil;
+    import org.springframework.beans.factory.annotation.Autowired;
+    import org.springframework.security.core.Authentication;
+    import org.springframework.security.core.context.SecurityContextHolder;
+    import org.springframework.stereotype.Component;
+    import org.springframework.web.filter.OncePerRequestFilter;
+
+    import jakarta.servlet.FilterChain;
+    import jakarta.servlet.ServletException;
+    import jakarta.servlet.http.HttpServletRequest;
+    import jakarta.servlet.http.HttpServletResponse;
+
+    /**
+     * Satu-satunya tempat principal di-resolve, sekali per request: bearer token
+     * untuk /api/** dan session (SecurityContext dari AuthView) untuk halaman
+     * view. Principal di-bind ke {@link AuthContext#PRINCIPAL} selama sisa
+     * filter chain (termasuk controller) dijalankan.
+     *
+     * Dipasang di dalam SecurityFilterChain (lihat SecurityConfig), bukan
+     * sebagai servlet filter biasa.
+     */
+    @Component
+    public class AuthFilter extends OncePerRequestFilter {
+
+        @Autowired
+        protected AuthTokenService authTokenService;
+
+        @Autowired
+        protected UserService userService;
+
+        @Autowired
+        protected AuthTokenCache authTokenCache;
+
+        @Autowired
+        protected AccessTokenService accessTokenService;
+
+        // 1. Lewati endpoint public API (Login, Register, Refresh)
+        @Override
+        protected boolean shouldNotFilter(HttpServletRequest request) {
+            return isPublicEndpoint(request);
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                FilterChain filterChain) throws ServletException, IOException {
+            AuthPrincipal principal;
+            if (isApiRequest(request)) {
+                principal = authenticate(request, response);
+                if (principal == null) {
+                    return;
+                }
+            } else {
+                // Halaman view: boleh tanpa login, SecurityConfig yang menentukan
+                // halaman mana yang butuh autentikasi
+                principal = sessionPrincipal();
+                if (principal == null) {
+                    filterChain.doFilter(request, response);
+                    return;
+                }
+            }
+
+            // 9. Bind principal selama request diproses
+            try {
+                ScopedValue.where(AuthContext.PRINCIPAL, principal).call(() -> {
+                    filterChain.doFilter(request, response);
+                    return null;
+                });
+            } catch (IOException | ServletException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new ServletException(e);
+            }
+        }
+
+        // Principal yang disimpan AuthView di session saat login form
+        private AuthPrincipal sessionPrincipal() {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.getPrincipal() instanceof AuthPrincipal principal) {
+                return principal;
+            }
+            return null;
+        }
+
+        // null jika gagal (response error sudah ditulis)
+        private AuthPrincipal authenticate(HttpServletRequest request, HttpServletResponse response)
+                throws IOException {
+            // 2. Ambil bearer token dari header
+            String rawAuthToken = request.getHeader("Authorization");
+            String token = extractToken(rawAuthToken);
+
+            // 3. Validasi keberadaan token
+            if (token == null || token.isEmpty()) {
+                sendErrorResponse(response, 401, "Token autentikasi tidak ditemukan");
+                return null;
+            }
+
+            // 4. Validasi signature token JWT (sekali parsing)
+            JwtUtil.VerifiedToken verifiedToken = JwtUtil.verify(token);
+            if (verifiedToken == null) {
+                sendErrorResponse(response, 401, "Token autentikasi tidak valid");
+                return null;
+            }
+
+            // 5. Ambil userId dari token
+            UUID userId = verifiedToken.userId();
+            if (userId == null) {
+                sendErrorResponse(response, 401, "Format token autentikasi tidak valid");
+                return null;
+            }
+
+            // Mode stateless: cukup signature dan claims, tanpa database
+            if (accessTokenService.isStateless()) {
+                return authenticateAccessToken(verifiedToken, response);
+            }
+
+            // Mode lama: token yang sudah expired tetap diterima, keabsahannya
+            // ditentukan oleh tabel auth_tokens
+            // 6. Cek cache terlebih dahulu, jika ada tidak perlu ke database
+            AuthPrincipal principal = authTokenCache.get(userId, token);
+            if (principal == null) {
+                long cacheGeneration = authTokenCache.generation();
+
+                // 7. Cari token di database (memastikan user belum logout)
+                AuthToken authToken = authTokenService.findUserToken(userId, token);
+                if (authToken == null) {
+                    sendErrorResponse(response, 401, "Token autentikasi sudah expired");
+                    return null;
+                }
+
+                // 8. Ambil data user
+                User authUser = userService.getUserById(authToken.getUserId());
+                if (authUser == null) {
+                    sendErrorResponse(response, 404, "User tidak ditemukan");
+                    return null;
+                }
+
+                principal = AuthPrincipal.from(authUser);
+                authTokenCache.put(userId, token, principal, cacheGeneration);
+            }
+            return principal;
+        }
+
+        private AuthPrincipal authenticateAccessToken(JwtUtil.VerifiedToken verifiedToken,
+                HttpServletResponse response) throws IOException {
+            if (!JwtUtil.TYPE_ACCESS.equals(verifiedToken.type())) {
+                sendErrorResponse(response, 401, "Jenis token autentikasi tidak valid");
+                return null;
+            }
+            if (verifiedToken.expired()) {
+                sendErrorResponse(response, 401, "Token autentikasi sudah expired");
+                return null;
+            }
+            if (accessTokenService.isRevoked(verifiedToken.userId(), verifiedToken.issuedAt())) {
+                sendErrorResponse(response, 401, "Token autentikasi sudah dicabut");
+                return null;
+            }
+
+            return accessTokenService.toPrincipal(verifiedToken);
+        }
+
+        private String extractToken(String rawAuthToken) {
+            if (rawAuthToken != null && rawAuthToken.startsWith("Bearer ")) {
+                return rawAuthToken.substring(7); // hapus "Bearer "
+            }
+            return null;
+        }
+
+        private boolean isPublicEndpoint(HttpServletRequest request) {
+            return request.getRequestURI().startsWith("/api/auth");
+        }
+
+        private boolean isApiRequest(HttpServletRequest request) {
+            return request.getRequestURI().startsWith("/api/");
+        }
+
+        private void sendErrorResponse(HttpServletResponse response, int status, String message) throws IOException {
+            response.setStatus(status);
+            response.setContentType("application/json");
+            response.setCharacterEncoding("UTF-8");
+
+            String jsonResponse = String.format(
+                    "{\"status\":\"fail\",\"message\":\"%s\",\"data\":null}",
+                    message);
+            response.getWriter().write(jsonResponse);
+        }
+    }
\ No newline at end of file
@@ -1,21 +1,54 @@
 package org.delcom.app.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 import org.delcom.app.entities.AuthToken;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface AuthTokenRepository extends JpaRepository<AuthToken, UUID> {
-    @Query("SELECT at FROM AuthToken at WHERE at.userId = ?1 AND at.token = ?2")
-    AuthToken findUserToken(UUID userId, String token);
+    // Memakai index unik (user_id, token_digest)
+    @Query("SELECT at FROM AuthToken at WHERE at.userId = ?1 AND at.tokenDigest = ?2")
+    AuthToken findUserToken(UUID userId, byte[] tokenDigest);
 
     @Modifying
     @Transactional
     @Query("DELETE FROM AuthToken at WHERE at.userId = ?1")
     void deleteByUserId(UUID userId);
+
+    // Keyset: batch berikutnya dimulai dari created_at terakhir batch sebelumnya
+    // (baris yang sudah dihapus tidak akan muncul lagi)
+    @Query("SELECT at FROM AuthToken at WHERE at.createdAt < ?1 AND at.createdAt >= ?2 ORDER BY at.createdAt")
+    List<AuthToken> findExpiredTokens(LocalDateTime cutoff, LocalDateTime from, Limit limit);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AuthToken at WHERE at.id IN ?1")
+    int deleteByIds(Collection<UUID> ids);
+
+    // Simpan token login dalam satu statement: insert atau perbarui jika
+    // (user_id, token_digest) sudah ada, lalu hapus token lama milik user di
+    // luar 'keepOthers' token terbaru lainnya
+    @Modifying
+    @Transactional
+    @Query(value = "WITH upserted AS ("
+            + " INSERT INTO auth_tokens (id, user_id, token, token_digest, created_at)"
+            + " VALUES (:id, :userId, :token, :tokenDigest, :createdAt)"
+            + " ON CONFLICT (user_id, token_digest) DO UPDATE SET created_at = EXCLUDED.created_at"
+            + " RETURNING id)"
+            + " DELETE FROM auth_tokens WHERE id IN (SELECT id FROM auth_tokens WHERE user_id = :userId"
+            + " AND id NOT IN (SELECT id FROM upserted)"
+            + " ORDER BY created_at DESC, id DESC OFFSET :keepOthers)", nativeQuery = true)
+    int upsertToken(@Param("id") UUID id, @Param("userId") UUID userId, @Param("token") String token,
+            @Param("tokenDigest") byte[] tokenDigest, @Param("createdAt") LocalDateTime createdAt,
+            @Param("keepOthers") int keepOthers);
 }
@@ -1,25 +1,160 @@
 package org.delcom.app.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+import org.delcom.app.dto.BarangStats;
+import org.delcom.app.dto.BarangSummary;
+import org.delcom.app.dto.BarangVersion;
 import org.delcom.app.entities.Barang;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface BarangRepository extends JpaRepository<Barang, UUID> {
 
-    // 1. Mengambil semua barang milik user tertentu
-    // PENTING: Kita ubah 'OrderByDeadlineAsc' menjadi 'OrderByTanggalMasukDesc'
-    // Mengapa Desc? Agar barang yang BARU diupload muncul paling ATAS (Newest First).
-    List<Barang> findAllByUserIdOrderByTanggalMasukDesc(UUID userId);
+    // Kolom untuk daftar barang saja; deskripsi (TEXT) dipotong di database
+    String SUMMARY_SELECT = "SELECT new org.delcom.app.dto.BarangSummary(b.id, b.namaBarang, b.kategori, "
+            + "substring(b.deskripsi, 1, " + (BarangSummary.DESKRIPSI_MAX_LENGTH + 1) + "), "
+            + "b.tanggalMasuk, b.foto, b.status) FROM Barang b ";
 
-    // 2. Filter barang berdasarkan Status (Misal: Mau lihat yang "READY" saja)
-    List<Barang> findAllByUserIdAndStatus(UUID userId, String status);
+    String READY_ONLY = "AND b.status = org.delcom.app.entities.BarangStatus.READY ";
 
-    // 3. (Opsional/Bonus) Pencarian Barang berdasarkan Kategori
-    // Berguna jika nanti Anda ingin filter: "Tampilkan semua Sepatu"
+    // Kolom RETURNING untuk dibaca sebagai entity Barang; nama kategori dari
+    // kamus kategori (sama dengan @Formula di Barang)
+    String RETURNING_COLUMNS = "id, nama_barang, kategori_id, "
+            + "(SELECT k.nama FROM kategori k WHERE k.id = kategori_id) AS kategori, deskripsi, tanggal_masuk, "
+            + "foto, status, user_id, created_at, updated_at";
+
+    // 1. Daftar barang per halaman (keyset), barang TERBARU di atas.
+    // Urutan (tanggal_masuk DESC NULLS FIRST, id DESC) sama dengan index
+    // idx_barang_user_tanggal, barang tanpa tanggal masuk tampil paling atas.
+    @Query(SUMMARY_SELECT + "WHERE b.user.id = :userId "
+            + "ORDER BY b.tanggalMasuk DESC NULLS FIRST, b.id DESC")
+    List<BarangSummary> findFirstPage(UUID userId, Limit limit);
+
+    // Halaman setelah barang dengan tanggal masuk
+    @Query(SUMMARY_SELECT + "WHERE b.user.id = :userId "
+            + "AND (b.tanggalMasuk < :tanggalMasuk OR (b.tanggalMasuk = :tanggalMasuk AND b.id < :id)) "
+            + "ORDER BY b.tanggalMasuk DESC NULLS FIRST, b.id DESC")
+    List<BarangSummary> findPageAfter(UUID userId, LocalDateTime tanggalMasuk, UUID id, Limit limit);
+
+    // Halaman setelah barang tanpa tanggal masuk: sisa barang tanpa tanggal,
+    // lalu semua barang yang punya tanggal
+    @Query(SUMMARY_SELECT + "WHERE b.user.id = :userId "
+            + "AND (b.tanggalMasuk IS NOT NULL OR b.id < :id) "
+            + "ORDER BY b.tanggalMasuk DESC NULLS FIRST, b.id DESC")
+    List<BarangSummary> findPageAfterUndated(UUID userId, UUID id, Limit limit);
+
+    // 1a. Daftar barang READY saja (stok yang masih dijual), urutan dan
+    // keyset sama dengan daftar lengkap. Status ditulis sebagai literal (bukan
+    // parameter) agar planner memakai index partial idx_barang_user_ready
+    // (WHERE status = 0): index range scan atas baris READY milik user dalam
+    // urutan keyset, berhenti setelah limit; barang SOLD tidak ikut discan.
+    // Kolom yang di-select ada di luar index, jadi tiap baris tetap dibaca
+    // dari tabel (bukan index-only scan).
+    @Query(SUMMARY_SELECT + "WHERE b.user.id = :userId " + READY_ONLY
+            + "ORDER BY b.tanggalMasuk DESC NULLS FIRST, b.id DESC")
+    List<BarangSummary> findReadyFirstPage(UUID userId, Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE b.user.id = :userId " + READY_ONLY
+            + "AND (b.tanggalMasuk < :tanggalMasuk OR (b.tanggalMasuk = :tanggalMasuk AND b.id < :id)) "
+            + "ORDER BY b.tanggalMasuk DESC NULLS FIRST, b.id DESC")
+    List<BarangSummary> findReadyPageAfter(UUID userId, LocalDateTime tanggalMasuk, UUID id, Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE b.user.id = :userId " + READY_ONLY
+            + "AND (b.tanggalMasuk IS NOT NULL OR b.id < :id) "
+            + "ORDER BY b.tanggalMasuk DESC NULLS FIRST, b.id DESC")
+    List<BarangSummary> findReadyPageAfterUndated(UUID userId, UUID id, Limit limit);
+
+    // Versi data barang milik user (untuk ETag dan jumlah barang)
+    @Query("SELECT new org.delcom.app.dto.BarangVersion(count(b), max(b.updatedAt)) FROM Barang b "
+            + "WHERE b.user.id = :userId")
+    BarangVersion findVersion(UUID userId);
+
+    // Statistik per (kategori, status) dari tabel barang_stats yang diisi
+    // trigger (V5__barang_stats.sql); jumlahnya sebanyak kombinasi kategori
+    // dan status milik user, tidak bergantung pada jumlah barang
+    @Query(value = "SELECT k.nama AS kategori, s.status, s.jumlah FROM barang_stats s "
+            + "JOIN kategori k ON k.id = s.kategori_id "
+            + "WHERE s.user_id = :userId AND s.jumlah <> 0", nativeQuery = true)
+    List<BarangStats.Counter> findStats(@Param("userId") UUID userId);
+
+    // Hitung ulang statistik user dari tabel barang (GROUP BY). Upsert agar
+    // tetap benar jika ada trigger dari transaksi lain yang menulis baris
+    // statistik yang sama selama rebuild berjalan
+    @Modifying
+    @Query(value = "DELETE FROM barang_stats WHERE user_id = :userId", nativeQuery = true)
+    int deleteStats(@Param("userId") UUID userId);
+
+    @Modifying
+    @Query(value = "INSERT INTO barang_stats (user_id, kategori_id, status, jumlah) "
+            + "SELECT user_id, kategori_id, status, count(*) FROM barang WHERE user_id = :userId "
+            + "GROUP BY user_id, kategori_id, status ORDER BY user_id, kategori_id, status "
+            + "ON CONFLICT (user_id, kategori_id, status) DO UPDATE "
+            + "SET jumlah = barang_stats.jumlah + EXCLUDED.jumlah", nativeQuery = true)
+    int insertStatsFromBarang(@Param("userId") UUID userId);
+
+    // Pencarian full-text (kolom search_vector + index GIN idx_barang_user_search),
+    // hanya mengembalikan id urut relevansi. Filter null = tidak difilter.
+    @Query(value = "SELECT b.id FROM barang b, to_tsquery('simple', :query) q "
+            + "WHERE b.user_id = :userId AND b.search_vector @@ q "
+            + "AND (CAST(:status AS smallint) IS NULL OR b.status = :status) "
+            + "AND (CAST(:kategori AS text) IS NULL "
+            + "OR b.kategori_id = (SELECT k.id FROM kategori k WHERE k.nama = :kategori)) "
+            + "ORDER BY ts_rank(b.search_vector, q) DESC, b.id DESC LIMIT :limit", nativeQuery = true)
+    List<UUID> searchIds(@Param("userId") UUID userId, @Param("query") String query,
+            @Param("status") Short status, @Param("kategori") String kategori, @Param("limit") int limit);
+
+    @Query(SUMMARY_SELECT + "WHERE b.id IN :ids")
+    List<BarangSummary> findSummariesByIdIn(Collection<UUID> ids);
+
+    // Satu barang milik user: id dan pemilik dicek dalam satu query
+    // (WHERE id = ? AND user_id = ?). Kosong jika barang tidak ada atau bukan
+    // milik user
+    Optional<Barang> findByIdAndUserId(UUID id, UUID userId);
+
+    // Hapus satu barang milik user dalam satu DELETE; baris yang dihapus
+    // dikembalikan (untuk nama file foto). Kosong jika barang tidak ada atau
+    // bukan milik user
+    @Transactional
+    @Query(value = "DELETE FROM barang WHERE id = :id AND user_id = :userId "
+            + "RETURNING " + RETURNING_COLUMNS, nativeQuery = true)
+    Optional<Barang> deleteReturning(@Param("userId") UUID userId, @Param("id") UUID id);
+
+    // Ubah status satu barang milik user tanpa load entity dulu; hanya kolom
+    // status dan updated_at yang ditulis. Kosong jika barang tidak ada atau
+    // bukan milik user
+    @Transactional
+    @Query(value = "UPDATE barang SET status = :status, updated_at = :updatedAt "
+            + "WHERE id = :id AND user_id = :userId "
+            + "RETURNING " + RETURNING_COLUMNS, nativeQuery = true)
+    Optional<Barang> updateStatusReturning(@Param("userId") UUID userId, @Param("id") UUID id,
+            @Param("status") short status, @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Ubah status banyak barang milik user dalam satu UPDATE. Barang yang
+    // statusnya sudah sama dilewati (tidak ada baris baru yang ditulis).
+    // Mengembalikan id barang yang berubah
+    @Transactional
+    @Query(value = "UPDATE barang SET status = :status, updated_at = :updatedAt "
+            + "WHERE user_id = :userId AND id IN (:ids) AND status <> :status "
+            + "RETURNING id", nativeQuery = true)
+    List<UUID> updateStatusReturningIds(@Param("userId") UUID userId, @Param("ids") Collection<UUID> ids,
+            @Param("status") short status, @Param("updatedAt") LocalDateTime updatedAt);
+
+    // 2. (Opsional/Bonus) Pencarian Barang berdasarkan Kategori
+    // Berguna jika nanti Anda ingin filter: "Tampilkan semua Sepatu".
+    // Nama dicari di kamus dulu agar index (user_id, kategori_id) terpakai
+    @Query("SELECT b FROM Barang b WHERE b.user.id = :userId "
+            + "AND b.kategoriId = (SELECT k.id FROM Kategori k WHERE k.nama = :kategori)")
     List<Barang> findAllByUserIdAndKategori(UUID userId, String kategori);
     
 }
\ No newline at end of file
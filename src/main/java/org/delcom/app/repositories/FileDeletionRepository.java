@@ -0,0 +1,37 @@
+package org.delcom.app.repositories;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.delcom.app.entities.FileDeletion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface FileDeletionRepository extends JpaRepository<FileDeletion, Long> {
+
+    // Ambil (claim) file yang sudah waktunya dihapus dalam satu statement.
+    // next_attempt_at langsung dimundurkan sesuai backoff percobaan ini
+    // (retryDelay * 2^attempts, maksimal 2^10), jadi jika worker mati di
+    // tengah jalan file dicoba lagi nanti. SKIP LOCKED: beberapa instance
+    // aplikasi tidak mengambil baris yang sama.
+    @Transactional
+    @Query(value = "UPDATE file_deletions SET attempts = attempts + 1, "
+            + "next_attempt_at = CAST(:now AS timestamp) "
+            + "+ make_interval(secs => :retryDelaySeconds * power(2, least(attempts, 10))) "
+            + "WHERE id IN (SELECT id FROM file_deletions WHERE next_attempt_at <= :now "
+            + "ORDER BY next_attempt_at, id LIMIT :limit FOR UPDATE SKIP LOCKED) "
+            + "RETURNING id, filename, attempts, next_attempt_at, created_at", nativeQuery = true)
+    List<FileDeletion> claimDue(@Param("now") LocalDateTime now, @Param("retryDelaySeconds") long retryDelaySeconds,
+            @Param("limit") int limit);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM FileDeletion fd WHERE fd.id IN ?1")
+    int deleteByIds(Collection<Long> ids);
+}
@@ -0,0 +1,22 @@
+package org.delcom.app.repositories;
+
+import org.delcom.app.entities.Kategori;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface KategoriRepository extends JpaRepository<Kategori, Integer> {
+
+    // Id kategori dengan nama ini, dibuat dulu jika belum ada (satu statement,
+    // aman jika dua request membuat kategori yang sama bersamaan). Transaksi
+    // sendiri agar id yang dikembalikan sudah di-commit sebelum disimpan di
+    // cache KategoriDictionary, walaupun transaksi pemanggil di-rollback
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = "INSERT INTO kategori (nama) VALUES (:nama) "
+            + "ON CONFLICT (nama) DO UPDATE SET nama = EXCLUDED.nama RETURNING id", nativeQuery = true)
+    int upsertId(@Param("nama") String nama);
+}
@@ -5,9 +5,20 @@ import java.util.UUID;
 
 import org.delcom.app.entities.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
-    Optional<User> findFirstByEmail(String email);
+    // Email tidak membedakan huruf besar/kecil, memakai index unik lower(email)
+    @Query("SELECT u FROM User u WHERE lower(u.email) = lower(?1)")
+    Optional<User> findByEmail(String email);
+
+    // Hanya berhasil jika password belum diganti sejak hash lama dibaca
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = ?3 WHERE u.id = ?1 AND u.password = ?2")
+    int updatePasswordIfUnchanged(UUID id, String currentPassword, String newPassword);
 }
@@ -0,0 +1,76 @@
+package org.delcom.app.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.delcom.app.configs.AuthPrincipal;
+import org.delcom.app.entities.User;
+import org.delcom.app.utils.JwtUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Mode stateless (app.auth.stateless=true): API memakai access token berumur
+ * pendek yang diverifikasi AuthFilter hanya dari signature dan claims.
+ *
+ * Pencabutan memakai epoch per user: access token yang dibuat sebelum
+ * {@link #revokeUser} ditolak. Epoch disimpan di memori node ini saja, jadi di
+ * node lain token lama tetap berlaku sampai expired (maksimal TTL access
+ * token).
+ */
+@Service
+public class AccessTokenService {
+
+    private final boolean stateless;
+    private final Duration ttl;
+
+    // userId -> waktu pencabutan terakhir (epoch milidetik)
+    private final ConcurrentHashMap<UUID, Long> revokedAt = new ConcurrentHashMap<>();
+
+    public AccessTokenService(
+            @Value("${app.auth.stateless:false}") boolean stateless,
+            @Value("${app.auth.access-token.ttl:PT15M}") Duration ttl) {
+        this.stateless = stateless;
+        this.ttl = ttl;
+    }
+
+    public boolean isStateless() {
+        return stateless;
+    }
+
+    public String createAccessToken(User user) {
+        return JwtUtil.generateAccessToken(user.getId(), user.getName(), user.getEmail(), ttl);
+    }
+
+    public void revokeUser(UUID userId) {
+        long now = currentTimeMillis();
+        revokedAt.put(userId, now);
+        // Pencabutan yang lebih lama dari TTL tidak diperlukan lagi, semua
+        // token sebelum waktu itu sudah expired
+        long horizon = now - ttl.toMillis();
+        revokedAt.values().removeIf(time -> time < horizon);
+    }
+
+    /**
+     * Dibandingkan dalam milidetik: token yang dibuat sebelum pencabutan di
+     * detik yang sama tetap ditolak, token dari login sesudahnya diterima.
+     * Token tanpa claim iat_ms hanya punya waktu per detik (dibulatkan ke
+     * bawah), jadi token dari detik pencabutan ikut ditolak.
+     */
+    public boolean isRevoked(UUID userId, Instant issuedAt) {
+        Long time = revokedAt.get(userId);
+        return time != null && (issuedAt == null || issuedAt.toEpochMilli() < time);
+    }
+
+    // Principal dari claims access token (tanpa password dan timestamp)
+    public AuthPrincipal toPrincipal(JwtUtil.VerifiedToken verifiedToken) {
+        return new AuthPrincipal(verifiedToken.userId(), verifiedToken.name(), verifiedToken.email());
+    }
+
+    // Protected agar bisa di-override oleh Test
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+}
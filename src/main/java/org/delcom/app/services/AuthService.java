@@ -0,0 +1,101 @@
+package org.delcom.app.services;
+
+import org.delcom.app.entities.User;
+import org.delcom.app.utils.JwtUtil;
+import org.springframework.stereotype.Service;
+
+/**
+ * Alur login yang dipakai bersama oleh UserController (API) dan AuthView
+ * (form). Verifikasi bcrypt dilakukan di luar transaksi (lewat
+ * PasswordService) agar koneksi database tidak tertahan selama hashing.
+ */
+@Service
+public class AuthService {
+
+    public enum LoginStatus {
+        SUCCESS,
+        USER_NOT_FOUND,
+        BAD_CREDENTIALS
+    }
+
+    public record LoginResult(LoginStatus status, User user, String token) {
+        public boolean isSuccess() {
+            return status == LoginStatus.SUCCESS;
+        }
+    }
+
+    private final UserService userService;
+    private final AuthTokenService authTokenService;
+    private final PasswordService passwordService;
+    private final AccessTokenService accessTokenService;
+
+    public AuthService(UserService userService, AuthTokenService authTokenService,
+            PasswordService passwordService, AccessTokenService accessTokenService) {
+        this.userService = userService;
+        this.authTokenService = authTokenService;
+        this.passwordService = passwordService;
+        this.accessTokenService = accessTokenService;
+    }
+
+    // Cek email dan password tanpa membuat token (dipakai login form/session)
+    public LoginResult authenticate(String email, String password) {
+        User user = userService.getUserByEmail(email);
+        if (user == null) {
+            return new LoginResult(LoginStatus.USER_NOT_FOUND, null, null);
+        }
+        if (!passwordService.matches(password, user.getPassword())) {
+            return new LoginResult(LoginStatus.BAD_CREDENTIALS, null, null);
+        }
+        rehashIfNeeded(user, password);
+        return new LoginResult(LoginStatus.SUCCESS, user, null);
+    }
+
+    // Hash dengan work factor lama diganti saat login berhasil. Jika executor
+    // sedang penuh, rehash ditunda ke login berikutnya.
+    private void rehashIfNeeded(User user, String password) {
+        if (!passwordService.upgradeEncoding(user.getPassword())) {
+            return;
+        }
+        try {
+            String newPassword = passwordService.encode(password);
+            if (userService.rehashPassword(user.getId(), user.getPassword(), newPassword)) {
+                user.setPassword(newPassword);
+            }
+        } catch (PasswordService.BusyException e) {
+            // Lewati
+        }
+    }
+
+    // Cek email dan password lalu terbitkan token (dipakai login API)
+    public LoginResult login(String email, String password) {
+        LoginResult result = authenticate(email, password);
+        if (!result.isSuccess()) {
+            return result;
+        }
+        String token = JwtUtil.generateToken(result.user().getId());
+        authTokenService.issueToken(result.user().getId(), token);
+        return new LoginResult(LoginStatus.SUCCESS, result.user(), token);
+    }
+
+    /**
+     * Tukar refresh token dengan access token baru. Satu-satunya alur (selain
+     * login) yang membaca tabel auth_tokens pada mode stateless.
+     * 
+     * @return null jika refresh token tidak valid, expired, atau sudah dicabut
+     */
+    public String refresh(String refreshToken) {
+        JwtUtil.VerifiedToken verifiedToken = JwtUtil.verify(refreshToken);
+        if (verifiedToken == null || verifiedToken.expired() || verifiedToken.userId() == null
+                || !JwtUtil.TYPE_REFRESH.equals(verifiedToken.type())) {
+            return null;
+        }
+        if (authTokenService.findUserToken(verifiedToken.userId(), refreshToken) == null) {
+            return null;
+        }
+        User user = userService.getUserById(verifiedToken.userId());
+        if (user == null) {
+            return null;
+        }
+        return accessTokenService.createAccessToken(user);
+    }
+}
@@ -0,0 +1,158 @@
+package org.delcom.app.services;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.delcom.app.configs.AuthPrincipal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Cache (userId, token) -> principal yang sudah terautentikasi, dipakai oleh
+ * AuthFilter agar request API tidak perlu 2 query ke database.
+ * Ukuran dibatasi (LRU) dan setiap entry punya TTL.
+ */
+@Component
+public class AuthTokenCache {
+
+    private record Key(UUID userId, String token) {
+    }
+
+    private record Entry(AuthPrincipal principal, long expiresAtNanos) {
+    }
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<Key, Entry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    // Naik setiap kali ada invalidasi. Nilai saat invalidasi dicatat per user,
+    // agar hasil query user itu yang dimulai sebelum invalidasi tidak ikut
+    // masuk ke cache, tanpa menolak pengisian cache milik user lain
+    private final AtomicLong generation = new AtomicLong();
+    private final LinkedHashMap<UUID, Long> invalidatedAt = new LinkedHashMap<>();
+    // Nilai invalidasi terbesar yang sudah dibuang dari invalidatedAt (berlaku
+    // untuk semua user yang tidak tercatat)
+    private long invalidatedFloor;
+
+    public AuthTokenCache(
+            @Value("${app.auth.token-cache.max-size:10000}") int maxSize,
+            @Value("${app.auth.token-cache.ttl:PT5M}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        FunctionCounter.builder("auth.token.cache.hits", hits, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("auth.token.cache.misses", misses, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("auth.token.cache.evictions", evictions, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("auth.token.cache.size", this, AuthTokenCache::size).register(meterRegistry);
+    }
+
+    public AuthPrincipal get(UUID userId, String token) {
+        Key key = new Key(userId, token);
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAtNanos() - currentTimeNanos() > 0) {
+                hits.incrementAndGet();
+                return entry.principal();
+            }
+            if (entry != null) {
+                entries.remove(key);
+                evictions.incrementAndGet();
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Nilai generation diambil sebelum membaca database, lalu diteruskan ke
+     * {@link #put}.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    public void put(UUID userId, String token, AuthPrincipal principal, long expectedGeneration) {
+        synchronized (entries) {
+            if (invalidatedAt.getOrDefault(userId, invalidatedFloor) > expectedGeneration) {
+                return;
+            }
+            entries.put(new Key(userId, token), new Entry(principal, currentTimeNanos() + ttlNanos));
+            if (entries.size() > maxSize) {
+                Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+                eldest.next();
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Hapus semua entry milik user. Jika dipanggil di dalam transaksi, hapus
+     * sekali lagi setelah commit agar request yang membaca data lama selama
+     * transaksi berjalan tidak tersimpan di cache.
+     */
+    public void invalidateUser(UUID userId) {
+        removeUser(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    removeUser(userId);
+                }
+            });
+        }
+    }
+
+    private void removeUser(UUID userId) {
+        synchronized (entries) {
+            // Dicatat ulang agar user yang baru diinvalidasi ada di urutan akhir
+            invalidatedAt.remove(userId);
+            invalidatedAt.put(userId, generation.incrementAndGet());
+            if (invalidatedAt.size() > maxSize) {
+                Iterator<Long> eldest = invalidatedAt.values().iterator();
+                invalidatedFloor = eldest.next();
+                eldest.remove();
+            }
+            entries.keySet().removeIf(key -> key.userId().equals(userId));
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    // Protected agar bisa di-override oleh Test
+    protected long currentTimeNanos() {
+        return System.nanoTime();
+    }
+}
@@ -0,0 +1,75 @@
+package org.delcom.app.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.entities.AuthToken;
+import org.delcom.app.utils.JwtUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Menghapus token di auth_tokens yang sudah melewati masa berlaku JWT secara
+ * berkala, per batch agar tidak menahan lock terlalu lama.
+ */
+@Component
+public class AuthTokenReaper {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthTokenReaper.class);
+
+    // Batas bawah keyset untuk batch pertama
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final AuthTokenService authTokenService;
+    private final int batchSize;
+    private final DistributionSummary reapedRows;
+    private final Timer reapDuration;
+
+    public AuthTokenReaper(AuthTokenService authTokenService,
+            @Value("${app.auth.token-reaper.batch-size:500}") int batchSize,
+            MeterRegistry meterRegistry) {
+        this.authTokenService = authTokenService;
+        this.batchSize = batchSize;
+        this.reapedRows = DistributionSummary.builder("auth.token.reaper.rows")
+                .description("Jumlah token yang dihapus per run")
+                .register(meterRegistry);
+        this.reapDuration = Timer.builder("auth.token.reaper.duration")
+                .description("Durasi satu run reaper")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${app.auth.token-reaper.initial-delay:PT1M}",
+            fixedDelayString = "${app.auth.token-reaper.interval:PT10M}")
+    public int reapExpiredTokens() {
+        long start = System.nanoTime();
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(JwtUtil.getExpirationTime()));
+
+        int total = 0;
+        LocalDateTime from = EPOCH;
+        List<AuthToken> batch;
+        do {
+            batch = authTokenService.deleteExpiredTokens(cutoff, from, batchSize);
+            total += batch.size();
+            if (!batch.isEmpty()) {
+                from = batch.get(batch.size() - 1).getCreatedAt();
+            }
+        } while (batch.size() == batchSize);
+
+        long elapsed = System.nanoTime() - start;
+        reapedRows.record(total);
+        reapDuration.record(elapsed, TimeUnit.NANOSECONDS);
+        if (total > 0) {
+            log.info("Menghapus {} token expired dalam {} ms", total, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+        return total;
+    }
+}
@@ -1,32 +1,78 @@
 package org.delcom.app.services;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 import org.delcom.app.entities.AuthToken;
 import org.delcom.app.repositories.AuthTokenRepository;
+import org.delcom.app.utils.JwtUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class AuthTokenService {
     private final AuthTokenRepository authTokenRepository;
+    private final AuthTokenCache authTokenCache;
+    private final AccessTokenService accessTokenService;
+    private final int maxActiveTokensPerUser;
 
-    public AuthTokenService(AuthTokenRepository authTokenRepository) {
+    public AuthTokenService(AuthTokenRepository authTokenRepository, AuthTokenCache authTokenCache,
+            AccessTokenService accessTokenService,
+            @Value("${app.auth.max-active-tokens-per-user:5}") int maxActiveTokensPerUser) {
         this.authTokenRepository = authTokenRepository;
+        this.authTokenCache = authTokenCache;
+        this.accessTokenService = accessTokenService;
+        // Dipakai sebagai OFFSET (batas - 1) di upsertToken; nilai < 1 membuat
+        // setiap login gagal, jadi ditolak saat startup
+        if (maxActiveTokensPerUser < 1) {
+            throw new IllegalArgumentException("app.auth.max-active-tokens-per-user minimal 1");
+        }
+        this.maxActiveTokensPerUser = maxActiveTokensPerUser;
     }
 
     @Transactional(readOnly = true)
     public AuthToken findUserToken(UUID userId, String token) {
-        return authTokenRepository.findUserToken(userId, token);
+        return authTokenRepository.findUserToken(userId, JwtUtil.digest(token));
     }
 
+    /**
+     * Simpan token login dengan satu upsert. Token lama milik user di atas
+     * batas app.auth.max-active-tokens-per-user ikut dihapus di statement yang
+     * sama.
+     */
     @Transactional
-    public AuthToken createAuthToken(AuthToken authToken) {
-        return authTokenRepository.save(authToken);
+    public void issueToken(UUID userId, String token) {
+        int removed = authTokenRepository.upsertToken(UUID.randomUUID(), userId, token, JwtUtil.digest(token),
+                LocalDateTime.now(), maxActiveTokensPerUser - 1);
+        if (removed > 0) {
+            authTokenCache.invalidateUser(userId);
+        }
     }
 
+    // Hapus semua token user sekaligus mencabut access token yang masih berlaku
     @Transactional
     public void deleteAuthToken(UUID userId) {
         authTokenRepository.deleteByUserId(userId);
+        authTokenCache.invalidateUser(userId);
+        accessTokenService.revokeUser(userId);
+    }
+
+    /**
+     * Hapus satu batch token yang dibuat sebelum cutoff, mulai dari created_at
+     * >= from. Satu batch = satu transaksi pendek.
+     * 
+     * @return token yang dihapus, urut berdasarkan created_at
+     */
+    @Transactional
+    public List<AuthToken> deleteExpiredTokens(LocalDateTime cutoff, LocalDateTime from, int batchSize) {
+        List<AuthToken> expiredTokens = authTokenRepository.findExpiredTokens(cutoff, from, Limit.of(batchSize));
+        if (!expiredTokens.isEmpty()) {
+            authTokenRepository.deleteByIds(expiredTokens.stream().map(AuthToken::getId).toList());
+            expiredTokens.stream().map(AuthToken::getUserId).distinct().forEach(authTokenCache::invalidateUser);
+        }
+        return expiredTokens;
     }
 }
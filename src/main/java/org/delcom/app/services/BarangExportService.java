@@ -0,0 +1,132 @@
+package org.delcom.app.services;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.delcom.app.dto.BarangExportRow;
+import org.delcom.app.entities.BarangStatus;
+import org.delcom.app.utils.CsvWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Export semua barang milik user ke CSV atau NDJSON. Baris dibaca dari cursor
+ * database (forward-only, fetch size tetap) dan langsung ditulis ke output
+ * tanpa entity maupun list, jadi memori yang dipakai tidak bergantung pada
+ * jumlah barang.
+ */
+@Service
+public class BarangExportService {
+
+    // Urutan sama dengan daftar barang (index idx_barang_user_tanggal), tanpa
+    // sort. Nama kategori dari kamus kategori (tabel kecil, cukup di-join)
+    static final String EXPORT_SQL = "SELECT b.id, b.nama_barang, k.nama AS kategori, b.deskripsi, b.tanggal_masuk, "
+            + "b.status, b.foto, b.created_at, b.updated_at FROM barang b JOIN kategori k ON k.id = b.kategori_id "
+            + "WHERE b.user_id = ? ORDER BY b.tanggal_masuk DESC NULLS FIRST, b.id DESC";
+
+    static final String[] CSV_HEADER = { "id", "namaBarang", "kategori", "deskripsi", "tanggalMasuk", "status",
+            "foto", "createdAt", "updatedAt" };
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(BarangExportRow row) throws IOException;
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public BarangExportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${app.barang.export.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        // PostgreSQL hanya memakai cursor (fetch size) jika autocommit mati,
+        // jadi query dijalankan di dalam transaksi read-only
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    public void exportCsv(UUID userId, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        CsvWriter csv = new CsvWriter(writer);
+        csv.writeRecord(CSV_HEADER);
+        stream(userId, row -> csv.writeRecord(
+                row.id().toString(),
+                row.namaBarang(),
+                row.kategori(),
+                row.deskripsi(),
+                toText(row.tanggalMasuk()),
+                row.status().name(),
+                row.foto(),
+                toText(row.createdAt()),
+                toText(row.updatedAt())));
+        writer.flush();
+    }
+
+    public void exportNdjson(UUID userId, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        stream(userId, row -> {
+            writer.write(objectMapper.writeValueAsString(row));
+            writer.write('\n');
+        });
+        writer.flush();
+    }
+
+    private void stream(UUID userId, RowWriter rowWriter) throws IOException {
+        RowCallbackHandler handler = rs -> {
+            try {
+                rowWriter.write(toRow(rs));
+            } catch (IOException e) {
+                // Mis. koneksi client terputus: hentikan query
+                throw new UncheckedIOException(e);
+            }
+        };
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(EXPORT_SQL, ResultSet.TYPE_FORWARD_ONLY,
+                        ResultSet.CONCUR_READ_ONLY);
+                ps.setObject(1, userId);
+                ps.setFetchSize(fetchSize);
+                return ps;
+            }, handler));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static BarangExportRow toRow(ResultSet rs) throws SQLException {
+        return new BarangExportRow(
+                rs.getObject("id", UUID.class),
+                rs.getString("nama_barang"),
+                rs.getString("kategori"),
+                rs.getString("deskripsi"),
+                rs.getObject("tanggal_masuk", LocalDateTime.class),
+                BarangStatus.fromCode(rs.getShort("status")),
+                rs.getString("foto"),
+                rs.getObject("created_at", LocalDateTime.class),
+                rs.getObject("updated_at", LocalDateTime.class));
+    }
+
+    private static String toText(LocalDateTime value) {
+        return value == null ? null : value.toString();
+    }
+}
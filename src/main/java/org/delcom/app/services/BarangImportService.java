@@ -0,0 +1,288 @@
+package org.delcom.app.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.delcom.app.dto.BarangForm;
+import org.delcom.app.dto.BarangImportResult;
+import org.delcom.app.dto.BarangImportResult.RowError;
+import org.delcom.app.dto.BarangImportRow;
+import org.delcom.app.entities.BarangStatus;
+import org.delcom.app.utils.CsvReader;
+import org.delcom.app.utils.LineReader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.util.StringUtils;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Import barang dalam jumlah banyak dari CSV atau NDJSON. File dibaca baris
+ * demi baris, setiap baris divalidasi dengan aturan BarangForm, lalu barang
+ * yang valid di-insert dengan JDBC batch (id dibuat di aplikasi) dan di-commit
+ * per chunk. Memori yang dipakai hanya sebesar satu chunk (dan satu baris
+ * yang panjangnya dibatasi), berapa pun ukuran filenya.
+ */
+@Service
+public class BarangImportService {
+
+    public static final String TEXT_CSV = "text/csv";
+
+    static final List<String> REQUIRED_COLUMNS = List.of("namaBarang", "kategori", "tanggalMasuk");
+
+    // search_vector tidak ikut di-insert karena kolom generated
+    static final String INSERT_SQL = "INSERT INTO barang (id, nama_barang, kategori_id, deskripsi, tanggal_masuk, "
+            + "foto, status, user_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?, NULL, ?, ?, ?, ?)";
+
+    private record PendingBarang(long line, UUID id, BarangForm form, int kategoriId, BarangStatus status) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionOperations transactionOperations;
+    private final BarangListCache barangListCache;
+    private final KategoriDictionary kategoriDictionary;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int maxErrors;
+    private final int maxLineLength;
+
+    public BarangImportService(JdbcTemplate jdbcTemplate, TransactionOperations transactionOperations,
+            BarangListCache barangListCache, KategoriDictionary kategoriDictionary, Validator validator,
+            ObjectMapper objectMapper,
+            @Value("${app.barang.import.chunk-size:500}") int chunkSize,
+            @Value("${app.barang.import.max-errors:100}") int maxErrors,
+            @Value("${app.barang.import.max-line-length:8192}") int maxLineLength) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionOperations = transactionOperations;
+        this.barangListCache = barangListCache;
+        this.kategoriDictionary = kategoriDictionary;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+        this.maxLineLength = maxLineLength;
+    }
+
+    /**
+     * Import dari CSV. Baris pertama adalah header berisi nama kolom
+     * (namaBarang, kategori, tanggalMasuk wajib; deskripsi, status opsional),
+     * urutan kolom bebas. Record yang melebihi max-line-length karakter
+     * menghentikan import (seperti tanda kutip yang tidak ditutup) dan
+     * dilaporkan sebagai error baris.
+     *
+     * @throws IllegalArgumentException jika header tidak lengkap atau terlalu
+     *         panjang
+     */
+    public BarangImportResult importCsv(UUID userId, InputStream input) throws IOException {
+        CsvReader csv = new CsvReader(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)),
+                maxLineLength);
+
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> header = csv.readRecord();
+        if (header != null) {
+            for (int i = 0; i < header.size(); i++) {
+                // File dari Excel biasanya diawali BOM
+                columns.putIfAbsent(header.get(i).replace("\uFEFF", "").trim(), i);
+            }
+        }
+        if (!columns.keySet().containsAll(REQUIRED_COLUMNS)) {
+            throw new IllegalArgumentException("Header CSV wajib berisi kolom " + String.join(", ", REQUIRED_COLUMNS));
+        }
+
+        Importer importer = new Importer(userId);
+        while (true) {
+            List<String> record;
+            try {
+                record = csv.readRecord();
+            } catch (IllegalArgumentException e) {
+                // Sisa file tidak bisa dibaca lagi dengan benar
+                importer.reject(csv.recordLine(), "CSV tidak valid: " + e.getMessage());
+                break;
+            }
+            if (record == null) {
+                break;
+            }
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            importer.accept(csv.recordLine(), new BarangImportRow(
+                    column(record, columns, "namaBarang"),
+                    column(record, columns, "kategori"),
+                    column(record, columns, "deskripsi"),
+                    column(record, columns, "tanggalMasuk"),
+                    column(record, columns, "status")));
+        }
+        return importer.finish();
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index == null || index >= record.size() ? null : record.get(index);
+    }
+
+    // Import dari NDJSON: satu objek JSON per baris dengan field yang sama
+    // seperti kolom CSV. Baris yang melebihi max-line-length karakter
+    // dilewati tanpa dibaca ke memori dan dilaporkan sebagai error baris
+    public BarangImportResult importNdjson(UUID userId, InputStream input) throws IOException {
+        LineReader reader = new LineReader(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)),
+                maxLineLength);
+
+        Importer importer = new Importer(userId);
+        long lineNumber = 0;
+        while (true) {
+            String line;
+            try {
+                line = reader.readLine();
+            } catch (IllegalArgumentException e) {
+                importer.reject(++lineNumber, e.getMessage());
+                continue;
+            }
+            if (line == null) {
+                break;
+            }
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            BarangImportRow row;
+            try {
+                row = objectMapper.readValue(line, BarangImportRow.class);
+            } catch (JacksonException e) {
+                importer.reject(lineNumber, "JSON tidak valid");
+                continue;
+            }
+            importer.accept(lineNumber, row);
+        }
+        return importer.finish();
+    }
+
+    // Menampung barang valid sampai satu chunk penuh, lalu menyimpannya dalam
+    // satu transaksi
+    private final class Importer {
+        private final UUID userId;
+        private final List<PendingBarang> chunk = new ArrayList<>();
+        private final List<RowError> errors = new ArrayList<>();
+        private int imported;
+        private int failed;
+
+        Importer(UUID userId) {
+            this.userId = userId;
+        }
+
+        void accept(long line, BarangImportRow row) {
+            BarangForm form = new BarangForm();
+            form.setNamaBarang(trimToNull(row.namaBarang()));
+            form.setKategori(trimToNull(row.kategori()));
+            form.setDeskripsi(trimToNull(row.deskripsi()));
+            if (StringUtils.hasText(row.status())) {
+                form.setStatus(row.status().trim());
+            }
+            if (StringUtils.hasText(row.tanggalMasuk())) {
+                try {
+                    form.setTanggalMasuk(LocalDateTime.parse(row.tanggalMasuk().trim()));
+                } catch (DateTimeParseException e) {
+                    reject(line, "Format tanggal salah (Gunakan ISO-8601)");
+                    return;
+                }
+            }
+
+            Set<ConstraintViolation<BarangForm>> violations = validator.validate(form);
+            if (!violations.isEmpty()) {
+                reject(line, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+
+            BarangStatus status;
+            try {
+                status = BarangStatus.parse(form.getStatus());
+            } catch (IllegalArgumentException e) {
+                reject(line, e.getMessage());
+                return;
+            }
+            // Kategori baru langsung masuk kamus (transaksi sendiri), di luar
+            // transaksi chunk
+            int kategoriId;
+            try {
+                kategoriId = kategoriDictionary.idOf(form.getKategori());
+            } catch (DataAccessException e) {
+                reject(line, "Gagal menyimpan ke database");
+                return;
+            }
+
+            chunk.add(new PendingBarang(line, UUID.randomUUID(), form, kategoriId, status));
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void reject(long line, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new RowError(line, message));
+            }
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            try {
+                transactionOperations.executeWithoutResult(status -> {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, chunk, chunk.size(), (ps, barang) -> {
+                        BarangForm form = barang.form();
+                        ps.setObject(1, barang.id());
+                        ps.setString(2, form.getNamaBarang());
+                        ps.setInt(3, barang.kategoriId());
+                        ps.setString(4, form.getDeskripsi());
+                        ps.setTimestamp(5, Timestamp.valueOf(form.getTanggalMasuk()));
+                        ps.setShort(6, barang.status().code());
+                        ps.setObject(7, userId);
+                        ps.setTimestamp(8, now);
+                        ps.setTimestamp(9, now);
+                    });
+                    barangListCache.invalidateUser(userId);
+                });
+                imported += chunk.size();
+            } catch (DataAccessException e) {
+                // Seluruh chunk di-rollback, chunk berikutnya tetap diproses
+                for (PendingBarang barang : chunk) {
+                    reject(barang.line(), "Gagal menyimpan ke database");
+                }
+            }
+            chunk.clear();
+        }
+
+        BarangImportResult finish() {
+            flush();
+            return new BarangImportResult(imported, failed, List.copyOf(errors), failed > errors.size());
+        }
+    }
+
+    private static String trimToNull(String value) {
+        return StringUtils.hasText(value) ? value.trim() : null;
+    }
+}
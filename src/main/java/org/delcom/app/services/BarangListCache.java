@@ -0,0 +1,197 @@
+package org.delcom.app.services;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.delcom.app.dto.BarangCursor;
+import org.delcom.app.dto.BarangPage;
+import org.delcom.app.dto.BarangVersion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Cache daftar barang per user (halaman keyset dan versi data: jumlah barang
+ * + updated_at terbaru), dipakai BarangService agar halaman /barang dan
+ * GET /api/barang tidak query ulang selama data tidak berubah. Ukuran dibatasi dengan bobot = jumlah barang
+ * yang disimpan; user yang paling lama tidak diakses dibuang lebih dulu (LRU).
+ */
+@Component
+public class BarangListCache {
+
+    private record PageKey(BarangCursor after, int limit, boolean readyOnly) {
+    }
+
+    private static final class UserEntry {
+        private final Map<PageKey, BarangPage> pages = new HashMap<>();
+        private BarangVersion version;
+        private int weight;
+    }
+
+    private final int maxItems;
+    private final LinkedHashMap<UUID, UserEntry> entries;
+    private int totalWeight;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    // Naik setiap kali ada invalidasi. Nilai saat invalidasi dicatat per user,
+    // agar hasil query user itu yang dimulai sebelum invalidasi tidak ikut
+    // masuk ke cache, tanpa menolak pengisian cache milik user lain
+    private final AtomicLong generation = new AtomicLong();
+    private final LinkedHashMap<UUID, Long> invalidatedAt = new LinkedHashMap<>();
+    // Nilai invalidasi terbesar yang sudah dibuang dari invalidatedAt (berlaku
+    // untuk semua user yang tidak tercatat)
+    private long invalidatedFloor;
+
+    public BarangListCache(
+            @Value("${app.barang.list-cache.max-items:10000}") int maxItems,
+            MeterRegistry meterRegistry) {
+        this.maxItems = maxItems;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        FunctionCounter.builder("barang.list.cache.hits", hits, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("barang.list.cache.misses", misses, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("barang.list.cache.evictions", evictions, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("barang.list.cache.weight", this, BarangListCache::weight).register(meterRegistry);
+    }
+
+    public BarangPage getPage(UUID userId, BarangCursor after, int limit, boolean readyOnly) {
+        synchronized (entries) {
+            UserEntry entry = entries.get(userId);
+            return recordLookup(entry == null ? null : entry.pages.get(new PageKey(after, limit, readyOnly)));
+        }
+    }
+
+    public BarangVersion getVersion(UUID userId) {
+        synchronized (entries) {
+            UserEntry entry = entries.get(userId);
+            return recordLookup(entry == null ? null : entry.version);
+        }
+    }
+
+    private <T> T recordLookup(T value) {
+        (value != null ? hits : misses).incrementAndGet();
+        return value;
+    }
+
+    /**
+     * Nilai generation diambil sebelum membaca database, lalu diteruskan ke
+     * {@link #putPage} / {@link #putVersion}.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    public void putPage(UUID userId, BarangCursor after, int limit, boolean readyOnly, BarangPage page,
+            long expectedGeneration) {
+        synchronized (entries) {
+            if (!canPut(userId, expectedGeneration)) {
+                return;
+            }
+            UserEntry entry = entries.computeIfAbsent(userId, id -> new UserEntry());
+            // Halaman kosong tetap berbobot 1
+            int weight = Math.max(page.items().size(), 1);
+            BarangPage previous = entry.pages.put(new PageKey(after, limit, readyOnly), page);
+            if (previous != null) {
+                weight -= Math.max(previous.items().size(), 1);
+            }
+            addWeight(entry, weight);
+        }
+    }
+
+    public void putVersion(UUID userId, BarangVersion version, long expectedGeneration) {
+        synchronized (entries) {
+            if (!canPut(userId, expectedGeneration)) {
+                return;
+            }
+            UserEntry entry = entries.computeIfAbsent(userId, id -> new UserEntry());
+            addWeight(entry, entry.version == null ? 1 : 0);
+            entry.version = version;
+        }
+    }
+
+    // Data yang dibaca di dalam transaksi read-write bisa saja belum di-commit
+    // (dan bisa di-rollback), jadi tidak boleh masuk cache
+    private boolean canPut(UUID userId, long expectedGeneration) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return false;
+        }
+        return invalidatedAt.getOrDefault(userId, invalidatedFloor) <= expectedGeneration;
+    }
+
+    private void addWeight(UserEntry entry, int weight) {
+        entry.weight += weight;
+        totalWeight += weight;
+        Iterator<UserEntry> eldest = entries.values().iterator();
+        while (totalWeight > maxItems) {
+            totalWeight -= eldest.next().weight;
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Hapus cache milik user. Jika dipanggil di dalam transaksi, hapus sekali
+     * lagi setelah commit agar request yang membaca data lama selama transaksi
+     * berjalan tidak tersimpan di cache. Jika transaksi di-rollback, data lama
+     * di database tetap benar sehingga cache boleh diisi lagi.
+     */
+    public void invalidateUser(UUID userId) {
+        removeUser(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    removeUser(userId);
+                }
+            });
+        }
+    }
+
+    private void removeUser(UUID userId) {
+        synchronized (entries) {
+            // Dicatat ulang agar user yang baru diinvalidasi ada di urutan akhir
+            invalidatedAt.remove(userId);
+            invalidatedAt.put(userId, generation.incrementAndGet());
+            if (invalidatedAt.size() > maxItems) {
+                Iterator<Long> eldest = invalidatedAt.values().iterator();
+                invalidatedFloor = eldest.next();
+                eldest.remove();
+            }
+            UserEntry entry = entries.remove(userId);
+            if (entry != null) {
+                totalWeight -= entry.weight;
+            }
+        }
+    }
+
+    public int weight() {
+        synchronized (entries) {
+            return totalWeight;
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+}
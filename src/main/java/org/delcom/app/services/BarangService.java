@@ -1,107 +1,317 @@
 package org.delcom.app.services;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import org.delcom.app.dto.BarangCursor;
+import org.delcom.app.dto.BarangPage;
+import org.delcom.app.dto.BarangStats;
+import org.delcom.app.dto.BarangSummary;
+import org.delcom.app.dto.BarangVersion;
 import org.delcom.app.entities.Barang;
+import org.delcom.app.entities.BarangStatus;
 import org.delcom.app.repositories.BarangRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 @Service
 public class BarangService { // Nama class berubah jadi BarangService
 
+    // Batas jumlah kata per pencarian
+    private static final int MAX_SEARCH_TERMS = 8;
+
+    // Batas jumlah barang per ubah status massal
+    public static final int MAX_BULK_STATUS_IDS = 1000;
+
     private final BarangRepository barangRepository;
     private final FileStorageService fileStorageService;
+    private final FileDeletionQueue fileDeletionQueue;
+    private final BarangListCache barangListCache;
+    private final KategoriDictionary kategoriDictionary;
+    private final TransactionTemplate transactionOperations;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int pageSize;
+    private final int maxPageSize;
 
-    public BarangService(BarangRepository barangRepository, FileStorageService fileStorageService) {
+    public BarangService(BarangRepository barangRepository, FileStorageService fileStorageService,
+            FileDeletionQueue fileDeletionQueue, BarangListCache barangListCache, KategoriDictionary kategoriDictionary,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.barang.page-size:20}") int pageSize,
+            @Value("${app.barang.max-page-size:100}") int maxPageSize) {
         this.barangRepository = barangRepository;
         this.fileStorageService = fileStorageService;
+        this.fileDeletionQueue = fileDeletionQueue;
+        this.barangListCache = barangListCache;
+        this.kategoriDictionary = kategoriDictionary;
+        this.transactionOperations = new TransactionTemplate(transactionManager);
+        // Cache list/versi dicek di luar transaksi; koneksi database baru
+        // diambil (read-only) saat cache miss
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.pageSize = pageSize;
+        this.maxPageSize = maxPageSize;
     }
 
-    // 1. Mengambil daftar barang (Stok), diurutkan dari yang TERBARU masuk
+    // 1. Mengambil satu halaman barang (Stok), diurutkan dari yang TERBARU masuk.
+    // after null = halaman pertama, size null = ukuran halaman default,
+    // readyOnly = hanya barang READY (stok yang masih dijual)
+    public BarangPage getBarangPage(UUID userId, BarangCursor after, Integer size, boolean readyOnly) {
+        int limit = size == null ? pageSize : Math.clamp(size, 1, maxPageSize);
+
+        BarangPage cached = barangListCache.getPage(userId, after, limit, readyOnly);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = barangListCache.generation();
+        BarangPage page = readOnlyTransaction.execute(status -> loadPage(userId, after, limit, readyOnly));
+        barangListCache.putPage(userId, after, limit, readyOnly, page, generation);
+        return page;
+    }
+
+    private BarangPage loadPage(UUID userId, BarangCursor after, int limit, boolean readyOnly) {
+        // Ambil satu baris lebih untuk mengetahui apakah masih ada halaman berikutnya
+        Limit fetchLimit = Limit.of(limit + 1);
+        List<BarangSummary> rows;
+        if (after == null) {
+            rows = readyOnly ? barangRepository.findReadyFirstPage(userId, fetchLimit)
+                    : barangRepository.findFirstPage(userId, fetchLimit);
+        } else if (after.tanggalMasuk() == null) {
+            rows = readyOnly ? barangRepository.findReadyPageAfterUndated(userId, after.id(), fetchLimit)
+                    : barangRepository.findPageAfterUndated(userId, after.id(), fetchLimit);
+        } else {
+            rows = readyOnly
+                    ? barangRepository.findReadyPageAfter(userId, after.tanggalMasuk(), after.id(), fetchLimit)
+                    : barangRepository.findPageAfter(userId, after.tanggalMasuk(), after.id(), fetchLimit);
+        }
+
+        if (rows.size() <= limit) {
+            return new BarangPage(List.copyOf(rows), null);
+        }
+        List<BarangSummary> items = List.copyOf(rows.subList(0, limit));
+        return new BarangPage(items, BarangCursor.of(items.get(limit - 1)).encode());
+    }
+
+    // Versi data barang milik user, berubah setiap kali ada barang yang
+    // ditambah/diubah/dihapus. Dipakai sebagai ETag (conditional GET); cache
+    // hit (termasuk response 304) tidak memakai koneksi database
+    public BarangVersion getVersion(UUID userId) {
+        BarangVersion cached = barangListCache.getVersion(userId);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = barangListCache.generation();
+        BarangVersion version = readOnlyTransaction.execute(status -> barangRepository.findVersion(userId));
+        barangListCache.putVersion(userId, version, generation);
+        return version;
+    }
+
+    // 1b. Cari barang berdasarkan nama/deskripsi, urut dari yang paling relevan.
+    // Semua kata harus ada (utuh, tanpa membedakan huruf besar/kecil);
+    // status null / kategori kosong berarti tidak difilter
     @Transactional(readOnly = true)
-    public List<Barang> getAllBarang(UUID userId) {
-        // Kita pakai method baru yang sudah dibuat di Repository tadi (Desc = Terbaru diatas)
-        return barangRepository.findAllByUserIdOrderByTanggalMasukDesc(userId);
+    public List<BarangSummary> searchBarang(UUID userId, String keyword, BarangStatus status, String kategori,
+            Integer size) {
+        String query = toTsQuery(keyword);
+        if (query == null) {
+            return List.of();
+        }
+        int limit = size == null ? pageSize : Math.clamp(size, 1, maxPageSize);
+
+        List<UUID> ids = barangRepository.searchIds(userId, query,
+                status != null ? status.code() : null,
+                StringUtils.hasText(kategori) ? kategori : null,
+                limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // Kembalikan ke urutan relevansi dari searchIds
+        Map<UUID, BarangSummary> byId = barangRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(BarangSummary::id, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    // Kata kunci -> tsquery "kata1 & kata2". Hanya huruf dan angka yang dipakai,
+    // jadi input pengguna tidak bisa membentuk sintaks tsquery lain. Sengaja
+    // tanpa pencocokan awalan (kata:*): partial match di GIN harus mengumpulkan
+    // semua barang (semua user) yang cocok sebelum dipotong ke user_id.
+    // null jika tidak ada kata yang bisa dicari
+    static String toTsQuery(String keyword) {
+        if (keyword == null) {
+            return null;
+        }
+        String query = Arrays.stream(keyword.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .limit(MAX_SEARCH_TERMS)
+                .collect(Collectors.joining(" & "));
+        return query.isEmpty() ? null : query;
     }
 
-    // 2. Mengambil satu barang detail berdasarkan ID
+    // 1c. Statistik barang (total, READY, terjual, per kategori) dari
+    // counter barang_stats, tanpa menghitung ulang tabel barang
     @Transactional(readOnly = true)
-    public Barang getBarangById(UUID id) {
-        return barangRepository.findById(id).orElse(null);
+    public BarangStats getStats(UUID userId) {
+        return BarangStats.of(barangRepository.findStats(userId));
     }
 
-    // 3. Menambah Barang Baru + Upload Foto
+    // Hitung ulang counter statistik user dari tabel barang (GROUP BY), mis.
+    // setelah data barang diubah langsung di database dengan trigger mati
     @Transactional
+    public BarangStats rebuildStats(UUID userId) {
+        barangRepository.deleteStats(userId);
+        barangRepository.insertStatsFromBarang(userId);
+        return getStats(userId);
+    }
+
+    // 2. Mengambil satu barang detail berdasarkan ID. null jika barang tidak
+    // ada atau bukan milik user
+    @Transactional(readOnly = true)
+    public Barang getBarangById(UUID userId, UUID id) {
+        return barangRepository.findByIdAndUserId(id, userId).orElse(null);
+    }
+
+    // 3. Menambah Barang Baru + Upload Foto. Foto ditulis ke folder staging
+    // dulu (di luar transaksi), lalu barang di-insert sekali dengan kolom foto
+    // sudah terisi. File staging menjadi final setelah commit
     public Barang createBarang(Barang barang, MultipartFile file) throws IOException {
-        // Simpan dulu ke database untuk generate ID
-        Barang savedBarang = barangRepository.save(barang);
-
-        // Jika ada file gambar yang diupload
-        if (file != null && !file.isEmpty()) {
-            // Simpan fisik file ke folder uploads
-            String filename = fileStorageService.storeFile(file, savedBarang.getId());
-            
-            // Update nama file di database (field 'foto')
-            savedBarang.setFoto(filename);
-            return barangRepository.save(savedBarang); 
-        }
+        // id dan foto yang ikut ter-bind dari request (form web di-bind ke
+        // entity) diabaikan: id yang terisi membuat save() menjadi merge yang
+        // menimpa barang lain, bukan insert
+        barang.setId(null);
+        barang.setKategoriId(kategoriDictionary.idOf(barang.getKategori()));
+        String foto = stagePhoto(file);
+        barang.setFoto(foto);
 
-        return savedBarang;
+        return inTransaction(foto, status -> {
+            Barang savedBarang = barangRepository.save(barang);
+            barangListCache.invalidateUser(barang.getUser().getId());
+            return savedBarang;
+        });
     }
 
-    // 4. Update Barang + Ganti Foto (Jika ada)
-    @Transactional
-    public Barang updateBarang(UUID id, Barang barangDetails, MultipartFile file) throws IOException {
-        Barang existingBarang = getBarangById(id);
-        if (existingBarang == null) return null;
-
-        // Update Data Text (Sesuai field baru di Entity Barang)
-        existingBarang.setNamaBarang(barangDetails.getNamaBarang()); // Dulu: setJudul
-        existingBarang.setKategori(barangDetails.getKategori());     // Dulu: setMataKuliah
-        existingBarang.setDeskripsi(barangDetails.getDeskripsi());
-        existingBarang.setTanggalMasuk(barangDetails.getTanggalMasuk()); // Dulu: setDeadline
-
-        // Logic Ganti Foto
-        if (file != null && !file.isEmpty()) {
-            // Hapus file lama jika ada (agar storage tidak penuh sampah)
-            if (existingBarang.getFoto() != null) {
-                fileStorageService.deleteFile(existingBarang.getFoto());
+    // 4. Update Barang + Ganti Foto (Jika ada), dengan pola yang sama seperti
+    // createBarang: file baru di-staging sebelum transaksi. null jika barang
+    // tidak ada atau bukan milik user
+    public Barang updateBarang(UUID userId, UUID id, Barang barangDetails, MultipartFile file) throws IOException {
+        int kategoriId = kategoriDictionary.idOf(barangDetails.getKategori());
+        String newFoto = stagePhoto(file);
+
+        return inTransaction(newFoto, status -> {
+            Barang existingBarang = barangRepository.findByIdAndUserId(id, userId).orElse(null);
+            if (existingBarang == null) {
+                // Tidak ada yang ditulis; rollback agar file staging dibuang
+                status.setRollbackOnly();
+                return null;
             }
-            
-            // Upload file baru
-            String newFilename = fileStorageService.storeFile(file, existingBarang.getId());
-            existingBarang.setFoto(newFilename);
-        }
+            barangListCache.invalidateUser(userId);
+
+            // Update Data Text (Sesuai field baru di Entity Barang)
+            existingBarang.setNamaBarang(barangDetails.getNamaBarang()); // Dulu: setJudul
+            existingBarang.setKategori(barangDetails.getKategori());     // Dulu: setMataKuliah
+            existingBarang.setKategoriId(kategoriId);
+            existingBarang.setDeskripsi(barangDetails.getDeskripsi());
+            existingBarang.setTanggalMasuk(barangDetails.getTanggalMasuk()); // Dulu: setDeadline
+
+            // Logic Ganti Foto: file lama dihapus setelah commit (agar storage
+            // tidak penuh sampah)
+            if (newFoto != null) {
+                if (existingBarang.getFoto() != null) {
+                    fileDeletionQueue.enqueue(existingBarang.getFoto());
+                }
+                existingBarang.setFoto(newFoto);
+            }
+
+            return barangRepository.save(existingBarang);
+        });
+    }
+
+    // Nama file staging, null jika tidak ada foto yang diupload
+    private String stagePhoto(MultipartFile file) throws IOException {
+        return file != null && !file.isEmpty() ? fileStorageService.stageFile(file) : null;
+    }
 
-        return barangRepository.save(existingBarang);
+    // Jalankan action dalam satu transaksi pendek. File staging (jika ada)
+    // dipindahkan ke folder upload setelah commit dan dibuang jika gagal
+    private <T> T inTransaction(String stagedFoto, TransactionCallback<T> action) {
+        try {
+            return transactionOperations.execute(status -> {
+                if (stagedFoto != null) {
+                    fileStorageService.promoteOnCommit(stagedFoto);
+                }
+                return action.doInTransaction(status);
+            });
+        } catch (RuntimeException e) {
+            if (stagedFoto != null) {
+                fileStorageService.discardStaged(stagedFoto);
+            }
+            throw e;
+        }
     }
 
-    // 5. Update Status Saja (READY / SOLD)
+    // 5. Update Status Saja (READY / SOLD): satu UPDATE kolom status dan
+    // updated_at, tanpa load entity dulu. null jika barang tidak ada atau
+    // bukan milik user
     @Transactional
-    public Barang updateStatus(UUID id, String status) {
-        Barang barang = getBarangById(id);
+    public Barang updateStatus(UUID userId, UUID id, BarangStatus status) {
+        Barang barang = barangRepository.updateStatusReturning(userId, id, status.code(), LocalDateTime.now())
+                .orElse(null);
         if (barang != null) {
-            barang.setStatus(status);
-            return barangRepository.save(barang);
+            barangListCache.invalidateUser(userId);
         }
-        return null;
+        return barang;
     }
 
-    // 6. Hapus Barang + Hapus File Foto
+    // 5b. Update Status banyak barang milik user sekaligus (satu UPDATE, tanpa
+    // load entity satu per satu). Id milik user lain atau yang tidak ada
+    // diabaikan. Mengembalikan id barang yang statusnya berubah
     @Transactional
-    public void deleteBarang(UUID id) {
-        Barang barang = getBarangById(id);
-        if (barang != null) {
-            // Hapus file fisiknya dari folder agar bersih
-            if (barang.getFoto() != null) {
-                fileStorageService.deleteFile(barang.getFoto());
-            }
-            // Hapus data dari database
-            barangRepository.delete(barang);
+    public List<UUID> updateStatusBulk(UUID userId, Collection<UUID> ids, BarangStatus status) {
+        Set<UUID> distinctIds = Set.copyOf(ids);
+        if (distinctIds.size() > MAX_BULK_STATUS_IDS) {
+            throw new IllegalArgumentException("Maksimal " + MAX_BULK_STATUS_IDS + " barang sekali ubah");
+        }
+        if (distinctIds.isEmpty()) {
+            return List.of();
+        }
+
+        List<UUID> updated = barangRepository.updateStatusReturningIds(userId, distinctIds, status.code(),
+                LocalDateTime.now());
+        if (!updated.isEmpty()) {
+            barangListCache.invalidateUser(userId);
+        }
+        return updated;
+    }
+
+    // 6. Hapus Barang + Hapus File Foto: satu DELETE yang sekaligus mengecek
+    // pemilik. false jika barang tidak ada atau bukan milik user
+    @Transactional
+    public boolean deleteBarang(UUID userId, UUID id) {
+        Barang barang = barangRepository.deleteReturning(userId, id).orElse(null);
+        if (barang == null) {
+            return false;
+        }
+        barangListCache.invalidateUser(userId);
+        // File fisiknya dihapus dari folder setelah commit (FileDeletionQueue)
+        if (barang.getFoto() != null) {
+            fileDeletionQueue.enqueue(barang.getFoto());
         }
+        return true;
     }
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+package org.delcom.app.services;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.delcom.app.entities.FileDeletion;
+import org.delcom.app.repositories.FileDeletionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Antrian penghapusan file foto yang disimpan di tabel file_deletions.
+ * {@link #enqueue} dipanggil di dalam transaksi yang menghapus/mengganti foto,
+ * jadi file hanya dihapus jika transaksi commit; worker terjadwal menghapus
+ * file per batch di luar transaksi request, dengan retry (backoff
+ * eksponensial) jika filesystem gagal.
+ */
+@Component
+public class FileDeletionQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(FileDeletionQueue.class);
+
+    private final FileDeletionRepository fileDeletionRepository;
+    private final FileStorageService fileStorageService;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retryDelay;
+    private final Counter deletedFiles;
+    private final Counter failedAttempts;
+
+    public FileDeletionQueue(FileDeletionRepository fileDeletionRepository, FileStorageService fileStorageService,
+            @Value("${app.file-deletion.batch-size:100}") int batchSize,
+            @Value("${app.file-deletion.max-attempts:10}") int maxAttempts,
+            @Value("${app.file-deletion.retry-delay:PT1M}") Duration retryDelay,
+            MeterRegistry meterRegistry) {
+        this.fileDeletionRepository = fileDeletionRepository;
+        this.fileStorageService = fileStorageService;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryDelay = retryDelay;
+        this.deletedFiles = Counter.builder("file.deletion.deleted")
+                .description("Jumlah file foto yang berhasil dihapus")
+                .register(meterRegistry);
+        this.failedAttempts = Counter.builder("file.deletion.failed")
+                .description("Jumlah percobaan hapus file yang gagal")
+                .register(meterRegistry);
+    }
+
+    // Catat file untuk dihapus setelah transaksi yang sedang berjalan commit
+    public void enqueue(String filename) {
+        fileDeletionRepository.save(new FileDeletion(filename));
+    }
+
+    @Scheduled(initialDelayString = "${app.file-deletion.initial-delay:PT30S}",
+            fixedDelayString = "${app.file-deletion.interval:PT30S}")
+    public int drain() {
+        int total = 0;
+        List<FileDeletion> batch;
+        do {
+            batch = fileDeletionRepository.claimDue(LocalDateTime.now(), retryDelay.toSeconds(), batchSize);
+            List<Long> done = new ArrayList<>(batch.size());
+            for (FileDeletion deletion : batch) {
+                if (delete(deletion)) {
+                    done.add(deletion.getId());
+                }
+            }
+            if (!done.isEmpty()) {
+                fileDeletionRepository.deleteByIds(done);
+            }
+            total += batch.size();
+        } while (batch.size() == batchSize);
+        return total;
+    }
+
+    // true jika baris antrian boleh dibuang (berhasil atau sudah menyerah)
+    private boolean delete(FileDeletion deletion) {
+        try {
+            fileStorageService.deleteFileOrThrow(deletion.getFilename());
+            deletedFiles.increment();
+            return true;
+        } catch (IOException e) {
+            failedAttempts.increment();
+            if (deletion.getAttempts() >= maxAttempts) {
+                log.error("Menyerah menghapus file {} setelah {} percobaan: {}", deletion.getFilename(),
+                        deletion.getAttempts(), e.getMessage());
+                return true;
+            }
+            log.warn("Gagal menghapus file {} (percobaan {}), dicoba lagi {}: {}", deletion.getFilename(),
+                    deletion.getAttempts(), deletion.getNextAttemptAt(), e.getMessage());
+            return false;
+        }
+    }
+}
@@ -1,18 +1,25 @@
 package org.delcom.app.services;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.UUID;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
 @Service
 public class FileStorageService {
+
+    private static final Logger log = LoggerFactory.getLogger(FileStorageService.class);
     
     @Value("${app.upload.dir:./uploads}") 
     protected String uploadDir;
@@ -21,12 +28,22 @@ public class FileStorageService {
         this.uploadDir = uploadDir;
     }
 
-    public String storeFile(MultipartFile file, UUID tugasId) throws IOException {
-        Path uploadPath = Paths.get(uploadDir).toAbsolutePath().normalize();
+    // Subfolder untuk file yang transaksinya belum selesai (satu filesystem
+    // dengan uploadDir, jadi pemindahan ke folder final bersifat atomic)
+    static final String STAGING_DIR = ".staging";
+
+    /**
+     * Simpan file upload ke folder staging dan kembalikan nama file finalnya.
+     * Dipanggil sebelum transaksi dibuka agar koneksi database tidak ikut
+     * menunggu penulisan file. Nama file selalu baru (UUID acak), jadi file
+     * lama tidak pernah tertimpa. Lanjutkan dengan {@link #promoteOnCommit}.
+     */
+    public String stageFile(MultipartFile file) throws IOException {
+        Path stagingPath = stagingPath();
         
         // 1. Logic Create Directory (Akan di-cover test khusus)
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
+        if (!Files.exists(stagingPath)) {
+            Files.createDirectories(stagingPath);
         }
 
         String originalFilename = file.getOriginalFilename();
@@ -37,14 +54,60 @@ public class FileStorageService {
             fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
         }
 
-        String filename = "barang" + tugasId.toString() + fileExtension;
+        String filename = "barang" + UUID.randomUUID().toString() + fileExtension;
 
-        Path filePath = uploadPath.resolve(filename);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+        try (InputStream input = file.getInputStream()) {
+            Files.copy(input, stagingPath.resolve(filename));
+        }
 
         return filename;
     }
 
+    /**
+     * Pindahkan file staging ke folder upload setelah transaksi yang sedang
+     * berjalan commit, atau hapus jika transaksi di-rollback. Di luar
+     * transaksi file langsung dipindahkan.
+     */
+    public void promoteOnCommit(String filename) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            promote(filename);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    promote(filename);
+                } else {
+                    discardStaged(filename);
+                }
+            }
+        });
+    }
+
+    // Transaksi gagal (atau tidak pernah dimulai): buang file staging
+    public void discardStaged(String filename) {
+        try {
+            deleteFileInternal(stagingPath().resolve(filename));
+        } catch (IOException e) {
+            log.warn("Gagal menghapus file staging {}: {}", filename, e.getMessage());
+        }
+    }
+
+    void promote(String filename) {
+        Path uploadPath = Paths.get(uploadDir).toAbsolutePath().normalize();
+        try {
+            Files.move(stagingPath().resolve(filename), uploadPath.resolve(filename), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Data barang sudah tersimpan, foto tidak akan tampil
+            log.error("Gagal memindahkan file staging {}: {}", filename, e.getMessage());
+        }
+    }
+
+    private Path stagingPath() {
+        return Paths.get(uploadDir).toAbsolutePath().normalize().resolve(STAGING_DIR);
+    }
+
     public boolean deleteFile(String filename) {
         if (filename == null || filename.isEmpty()) return false;
         
@@ -58,6 +121,12 @@ public class FileStorageService {
         }
     }
 
+    // Hapus file tanpa menelan IOException, agar pemanggil (FileDeletionQueue)
+    // bisa mencoba lagi. File yang sudah tidak ada dianggap berhasil
+    public void deleteFileOrThrow(String filename) throws IOException {
+        deleteFileInternal(Paths.get(uploadDir).resolve(filename).normalize());
+    }
+
     // METHOD BARU: Protected agar bisa di-mock oleh Test
     protected boolean deleteFileInternal(Path path) throws IOException {
         return Files.deleteIfExists(path);
@@ -0,0 +1,47 @@
+package org.delcom.app.services;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.delcom.app.repositories.KategoriRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Nama kategori -> id di tabel kategori. Baris kategori tidak pernah diubah
+ * atau dihapus, jadi id yang sudah diketahui boleh disimpan selamanya; hanya
+ * kategori yang belum pernah dilihat yang perlu ke database.
+ */
+@Component
+public class KategoriDictionary {
+
+    private final KategoriRepository kategoriRepository;
+    private final int maxEntries;
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+    public KategoriDictionary(KategoriRepository kategoriRepository,
+            @Value("${app.kategori.cache.max-entries:10000}") int maxEntries) {
+        this.kategoriRepository = kategoriRepository;
+        this.maxEntries = maxEntries;
+    }
+
+    // Id kategori, dibuat jika belum ada. Kategori kosong ditolak
+    // (IllegalArgumentException), sama seperti validasi form
+    public int idOf(String nama) {
+        if (!StringUtils.hasText(nama)) {
+            throw new IllegalArgumentException("Kategori tidak boleh kosong");
+        }
+        Integer id = ids.get(nama);
+        if (id != null) {
+            return id;
+        }
+        id = kategoriRepository.upsertId(nama);
+        // Kategori bebas diisi lewat API; setelah cache penuh kategori baru
+        // tetap benar, hanya selalu dibaca dari database
+        if (ids.size() < maxEntries) {
+            ids.put(nama, id);
+        }
+        return id;
+    }
+}
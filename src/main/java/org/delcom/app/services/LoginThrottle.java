@@ -0,0 +1,62 @@
+package org.delcom.app.services;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.utils.StripedTokenBuckets;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Membatasi percobaan login per email dan per IP klien. Dicek sebelum lookup
+ * user dan verifikasi BCrypt.
+ */
+@Component
+public class LoginThrottle {
+
+    private final StripedTokenBuckets emailBuckets;
+    private final StripedTokenBuckets ipBuckets;
+
+    public LoginThrottle(
+            @Value("${app.auth.login-throttle.email.capacity:5}") int emailCapacity,
+            @Value("${app.auth.login-throttle.email.refill-period:PT1M}") Duration emailRefillPeriod,
+            @Value("${app.auth.login-throttle.ip.capacity:20}") int ipCapacity,
+            @Value("${app.auth.login-throttle.ip.refill-period:PT1M}") Duration ipRefillPeriod,
+            @Value("${app.auth.login-throttle.stripes:64}") int stripes,
+            @Value("${app.auth.login-throttle.max-keys:100000}") int maxKeys) {
+        this.emailBuckets = new StripedTokenBuckets(emailCapacity, emailRefillPeriod.toNanos(), stripes, maxKeys);
+        this.ipBuckets = new StripedTokenBuckets(ipCapacity, ipRefillPeriod.toNanos(), stripes, maxKeys);
+    }
+
+    /**
+     * Catat satu percobaan login.
+     *
+     * @return 0 jika boleh lanjut, atau jumlah detik yang harus ditunggu
+     */
+    public long tryAcquire(String email, String clientIp) {
+        long now = currentTimeNanos();
+        long waitNanos = ipBuckets.tryAcquire(clientIp, now);
+        if (waitNanos == 0) {
+            waitNanos = emailBuckets.tryAcquire(email.trim().toLowerCase(Locale.ROOT), now);
+        }
+        return waitNanos == 0 ? 0 : TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999);
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.login-throttle.cleanup-interval:PT1M}")
+    public void evictIdle() {
+        long now = currentTimeNanos();
+        emailBuckets.evictIdle(now);
+        ipBuckets.evictIdle(now);
+    }
+
+    public int size() {
+        return emailBuckets.size() + ipBuckets.size();
+    }
+
+    // Protected agar bisa di-override oleh Test
+    protected long currentTimeNanos() {
+        return System.nanoTime();
+    }
+}
@@ -0,0 +1,126 @@
+package org.delcom.app.services;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntToLongFunction;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Hashing dan pengecekan password (BCrypt) dijalankan di executor terpisah
+ * yang ukurannya dibatasi, agar lonjakan login tidak menghabiskan thread
+ * Tomcat. Jika antrean penuh, request langsung ditolak dengan
+ * {@link BusyException}.
+ */
+@Service
+public class PasswordService {
+
+    public static class BusyException extends RuntimeException {
+        private final Duration retryAfter;
+
+        public BusyException(Duration retryAfter) {
+            super("Antrean hashing password penuh");
+            this.retryAfter = retryAfter;
+        }
+
+        public Duration getRetryAfter() {
+            return retryAfter;
+        }
+    }
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration retryAfter;
+
+    public PasswordService(PasswordEncoder passwordEncoder,
+            @Value("${app.security.password.threads:0}") int threads,
+            @Value("${app.security.password.queue-capacity:64}") int queueCapacity,
+            @Value("${app.security.password.retry-after:PT1S}") Duration retryAfter) {
+        // 0 = sesuai jumlah core
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+
+        this.passwordEncoder = passwordEncoder;
+        this.retryAfter = retryAfter;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public String encode(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    // True jika hash dibuat dengan work factor yang lebih rendah dari saat ini
+    public boolean upgradeEncoding(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new BusyException(retryAfter);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Hashing password dibatalkan", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Hashing password gagal", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Pilih strength BCrypt tertinggi (antara min dan max) yang waktu hash-nya
+     * masih di bawah target. Cukup diukur sekali di minStrength karena setiap
+     * kenaikan strength menggandakan waktu hash.
+     */
+    public static int calibrateStrength(Duration targetLatency, int minStrength, int maxStrength,
+            IntToLongFunction hashNanos) {
+        int strength = minStrength;
+        long nanos = hashNanos.applyAsLong(strength);
+        while (strength < maxStrength && nanos * 2 <= targetLatency.toNanos()) {
+            strength++;
+            nanos *= 2;
+        }
+        return strength;
+    }
+
+    public static long measureHashNanos(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        // Hash pertama termasuk warmup JIT, tidak dihitung
+        encoder.encode("calibration");
+        long start = System.nanoTime();
+        encoder.encode("calibration");
+        return System.nanoTime() - start;
+    }
+}
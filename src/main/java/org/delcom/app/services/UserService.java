@@ -10,9 +10,14 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class UserService {
     private final UserRepository userRepository;
+    private final AuthTokenCache authTokenCache;
+    private final AccessTokenService accessTokenService;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, AuthTokenCache authTokenCache,
+            AccessTokenService accessTokenService) {
         this.userRepository = userRepository;
+        this.authTokenCache = authTokenCache;
+        this.accessTokenService = accessTokenService;
     }
 
     @Transactional
@@ -22,7 +27,7 @@ public class UserService {
     }
 
     public User getUserByEmail(String email) {
-        return userRepository.findFirstByEmail(email).orElse(null);
+        return userRepository.findByEmail(email).orElse(null);
     }
 
     public User getUserById(UUID id) {
@@ -37,6 +42,9 @@ public class UserService {
         }
         user.setName(name);
         user.setEmail(email);
+        authTokenCache.invalidateUser(id);
+        // Nama/email di access token lama sudah tidak sesuai
+        accessTokenService.revokeUser(id);
         return userRepository.save(user);
     }
 
@@ -47,7 +55,17 @@ public class UserService {
             return null;
         }
         user.setPassword(newPassword);
+        authTokenCache.invalidateUser(id);
         return userRepository.save(user);
     }
 
+    // Ganti hash lama dengan hash ber-work factor baru (password tetap sama)
+    @Transactional
+    public boolean rehashPassword(UUID id, String currentPassword, String newPassword) {
+        if (userRepository.updatePasswordIfUnchanged(id, currentPassword, newPassword) == 0) {
+            return false;
+        }
+        authTokenCache.invalidateUser(id);
+        return true;
+    }
 }
@@ -0,0 +1,108 @@
+package org.delcom.app.utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pembaca CSV (RFC 4180) yang membaca satu record setiap kali, sehingga file
+ * sebesar apa pun tidak perlu dimuat seluruhnya ke memori. Field dipisah koma
+ * dan boleh diapit tanda kutip ganda; di dalam kutip, "" berarti satu tanda
+ * kutip dan koma/baris baru ikut menjadi isi field.
+ *
+ * Panjang satu record dibatasi, sehingga file tanpa baris baru (atau dengan
+ * tanda kutip yang tidak ditutup) tidak bisa menghabiskan memori.
+ */
+public class CsvReader {
+
+    private final Reader reader;
+    private final int maxRecordLength;
+    private long line = 1;
+    private long recordLine;
+    private int recordLength;
+    private int pushback = -2;
+
+    public CsvReader(Reader reader, int maxRecordLength) {
+        this.reader = reader;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    /**
+     * Baca record berikutnya.
+     *
+     * @return isi field, atau null jika sudah akhir file
+     * @throws IllegalArgumentException jika tanda kutip tidak ditutup atau
+     *         record melebihi maxRecordLength karakter
+     */
+    public List<String> readRecord() throws IOException {
+        recordLength = 0;
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        recordLine = line;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Tanda kutip tidak ditutup");
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next != '"') {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                }
+                field.append((char) c);
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                break;
+            } else if (c == '\r') {
+                int next = read();
+                if (next != '\n') {
+                    // Baris diakhiri \r saja
+                    pushback = next;
+                    line++;
+                }
+                break;
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // Nomor baris (mulai 1) tempat record terakhir dimulai
+    public long recordLine() {
+        return recordLine;
+    }
+
+    private int read() throws IOException {
+        int c;
+        if (pushback != -2) {
+            c = pushback;
+            pushback = -2;
+        } else {
+            c = reader.read();
+        }
+        if (c != -1 && ++recordLength > maxRecordLength) {
+            throw new IllegalArgumentException("Record melebihi " + maxRecordLength + " karakter");
+        }
+        if (c == '\n') {
+            line++;
+        }
+        return c;
+    }
+}
@@ -2,6 +2,11 @@ package org.delcom.app.utils;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
 import java.util.UUID;
 
@@ -14,26 +19,113 @@ public class JwtUtil {
     private static final long EXPIRATION_TIME = 1000 * 60 * 60 * 2; // 2 jam
     private static final SecretKey key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
 
+    // JwtParser immutable dan thread-safe, jadi cukup dibuat sekali
+    private static final JwtParser parser = Jwts.parser().verifyWith(key).build();
+
+    // Jenis token (claim "typ"): access token berumur pendek dan diverifikasi
+    // tanpa database, refresh token disimpan di tabel auth_tokens
+    public static final String CLAIM_TYPE = "typ";
+    public static final String TYPE_ACCESS = "access";
+    public static final String TYPE_REFRESH = "refresh";
+
+    // Claim "iat" standar hanya berpresisi detik. Access token juga membawa
+    // waktu dibuat dalam milidetik agar bisa dibandingkan dengan waktu
+    // pencabutan (AccessTokenService.isRevoked) di detik yang sama
+    public static final String CLAIM_ISSUED_AT_MILLIS = "iat_ms";
+
+    /**
+     * Hasil verifikasi token.
+     * 
+     * @param userId    null jika subject bukan UUID yang valid
+     * @param expiresAt waktu kedaluwarsa token (bisa null)
+     * @param expired   true jika token sudah melewati expiresAt
+     * @param type      isi claim "typ" (bisa null untuk token lama)
+     * @param issuedAt  waktu token dibuat, dalam milidetik jika token membawa
+     *                  claim iat_ms (bisa null)
+     * @param name      nama user (hanya ada di access token)
+     * @param email     email user (hanya ada di access token)
+     */
+    public record VerifiedToken(UUID userId, Instant expiresAt, boolean expired, String type,
+            Instant issuedAt, String name, String email) {
+    }
+
     public static SecretKey getKey() {
         return key;
     }
 
+    public static long getExpirationTime() {
+        return EXPIRATION_TIME;
+    }
+
+    // Token yang disimpan di auth_tokens (refresh token pada mode stateless)
     public static String generateToken(UUID userId) {
         return Jwts.builder()
                 .subject(userId.toString())
+                .claim(CLAIM_TYPE, TYPE_REFRESH)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
                 .signWith(key)
                 .compact();
     }
 
+    // Access token membawa nama dan email agar principal bisa dibangun tanpa
+    // query ke database
+    public static String generateAccessToken(UUID userId, String name, String email, Duration ttl) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .subject(userId.toString())
+                .claim(CLAIM_TYPE, TYPE_ACCESS)
+                .claim("name", name)
+                .claim("email", email)
+                .claim(CLAIM_ISSUED_AT_MILLIS, now)
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + ttl.toMillis()))
+                .signWith(key)
+                .compact();
+    }
+
+    /**
+     * Verifikasi signature sekaligus membaca userId dan expiry dalam satu kali
+     * parsing.
+     * 
+     * @return null jika token rusak atau signature tidak valid
+     */
+    public static VerifiedToken verify(String token) {
+        Claims claims;
+        boolean expired = false;
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (ExpiredJwtException e) {
+            // Signature sudah diverifikasi sebelum expiry diperiksa
+            claims = e.getClaims();
+            expired = true;
+        } catch (Exception e) {
+            return null;
+        }
+
+        UUID userId;
+        try {
+            userId = UUID.fromString(claims.getSubject());
+        } catch (Exception e) {
+            userId = null;
+        }
+
+        Date expiration = claims.getExpiration();
+        Date issuedAt = claims.getIssuedAt();
+        Long issuedAtMillis = claims.get(CLAIM_ISSUED_AT_MILLIS, Long.class);
+        return new VerifiedToken(userId,
+                expiration != null ? expiration.toInstant() : null,
+                expired,
+                claims.get(CLAIM_TYPE, String.class),
+                issuedAtMillis != null ? Instant.ofEpochMilli(issuedAtMillis)
+                        : issuedAt != null ? issuedAt.toInstant() : null,
+                claims.get("name", String.class),
+                claims.get("email", String.class));
+    }
+
     public static UUID extractUserId(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            Claims claims = parser.parseSignedClaims(token).getPayload();
 
             return UUID.fromString(claims.getSubject());
         } catch (Exception e) {
@@ -49,10 +141,7 @@ public class JwtUtil {
      */
     public static boolean validateToken(String token, boolean ignoreExpired) {
         try {
-            Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token);
+            parser.parseSignedClaims(token);
             return true; // valid
         } catch (ExpiredJwtException e) {
             if (ignoreExpired) {
@@ -63,4 +152,17 @@ public class JwtUtil {
             return false; // token invalid
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * SHA-256 dari token (32 byte), disimpan di auth_tokens.token_digest agar
+     * lookup tidak perlu membandingkan string JWT yang panjang.
+     */
+    public static byte[] digest(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 wajib tersedia di setiap JVM
+            throw new IllegalStateException(e);
+        }
+    }
+}
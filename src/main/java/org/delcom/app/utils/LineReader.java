@@ -0,0 +1,68 @@
+package org.delcom.app.utils;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Pembaca teks per baris seperti BufferedReader.readLine, tetapi panjang
+ * satu baris dibatasi. Baris yang terlalu panjang tidak disimpan di memori:
+ * sisanya dilewati sampai baris baru, sehingga baris berikutnya tetap bisa
+ * dibaca. Baris diakhiri \n atau \r\n.
+ */
+public class LineReader {
+
+    private final Reader reader;
+    private final int maxLineLength;
+    private final StringBuilder buffer = new StringBuilder();
+    private boolean eof;
+
+    public LineReader(Reader reader, int maxLineLength) {
+        this.reader = reader;
+        this.maxLineLength = maxLineLength;
+    }
+
+    /**
+     * Baca baris berikutnya.
+     *
+     * @return isi baris tanpa akhiran baris, atau null jika sudah akhir file
+     * @throws IllegalArgumentException jika baris melebihi maxLineLength
+     *         karakter (baris tersebut sudah dilewati)
+     */
+    public String readLine() throws IOException {
+        if (eof) {
+            return null;
+        }
+        buffer.setLength(0);
+        boolean tooLong = false;
+        int c;
+        while ((c = reader.read()) != -1 && c != '\n') {
+            if (tooLong) {
+                continue;
+            }
+            if (buffer.length() >= maxLineLength + 1) {
+                // +1: sisakan tempat untuk \r dari akhiran \r\n
+                tooLong = true;
+                buffer.setLength(0);
+            } else {
+                buffer.append((char) c);
+            }
+        }
+        if (c == -1) {
+            eof = true;
+            if (!tooLong && buffer.isEmpty()) {
+                return null;
+            }
+        }
+        if (tooLong) {
+            throw new IllegalArgumentException("Baris melebihi " + maxLineLength + " karakter");
+        }
+        int length = buffer.length();
+        if (length > 0 && buffer.charAt(length - 1) == '\r') {
+            buffer.setLength(--length);
+        }
+        if (length > maxLineLength) {
+            throw new IllegalArgumentException("Baris melebihi " + maxLineLength + " karakter");
+        }
+        return buffer.toString();
+    }
+}
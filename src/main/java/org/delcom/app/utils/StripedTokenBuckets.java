@@ -0,0 +1,116 @@
+package org.delcom.app.utils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Kumpulan token bucket per key (mis. email atau IP). Key dibagi ke beberapa
+ * stripe (map dengan lock masing-masing) sehingga tidak ada lock global.
+ *
+ * Jumlah key per stripe dibatasi. Setiap stripe diurutkan menurut akses
+ * terakhir (LRU), jadi saat stripe penuh hanya bucket paling lama yang
+ * dicek: dibuang jika sudah penuh kembali (isinya sama dengan bucket baru).
+ * Bucket yang belum penuh tidak pernah dibuang, karena key-nya akan kembali
+ * dengan bucket penuh; key baru yang ditolak sampai ada bucket yang idle.
+ */
+public class StripedTokenBuckets {
+
+    private static final class State {
+        private double tokens;
+        private long updatedNanos;
+
+        private State(double tokens, long updatedNanos) {
+            this.tokens = tokens;
+            this.updatedNanos = updatedNanos;
+        }
+    }
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final int maxKeysPerStripe;
+    private final LinkedHashMap<String, State>[] stripes;
+
+    @SuppressWarnings("unchecked")
+    public StripedTokenBuckets(int capacity, long refillPeriodNanos, int stripeCount, int maxKeys) {
+        this.capacity = capacity;
+        this.tokensPerNano = (double) capacity / refillPeriodNanos;
+        this.maxKeysPerStripe = Math.max(1, maxKeys / stripeCount);
+        this.stripes = new LinkedHashMap[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new LinkedHashMap<>(16, 0.75f, true);
+        }
+    }
+
+    /**
+     * Ambil satu token dari bucket milik key.
+     *
+     * @return 0 jika berhasil, atau lama menunggu (nanodetik) sampai token
+     *         berikutnya tersedia (untuk key baru pada stripe penuh: sampai
+     *         bucket paling lama bisa dibuang)
+     */
+    public long tryAcquire(String key, long nowNanos) {
+        LinkedHashMap<String, State> stripe = stripeOf(key);
+        synchronized (stripe) {
+            State bucket = stripe.get(key);
+            if (bucket == null) {
+                if (stripe.size() >= maxKeysPerStripe) {
+                    long waitNanos = evictEldest(stripe, nowNanos);
+                    if (waitNanos > 0) {
+                        return waitNanos;
+                    }
+                }
+                bucket = new State(capacity, nowNanos);
+                stripe.put(key, bucket);
+            }
+
+            double tokens = tokensAt(bucket, nowNanos);
+            if (tokens < 1) {
+                return (long) Math.ceil((1 - tokens) / tokensPerNano);
+            }
+            bucket.tokens = tokens - 1;
+            bucket.updatedNanos = Math.max(nowNanos, bucket.updatedNanos);
+            return 0;
+        }
+    }
+
+    // Buang semua bucket yang sudah penuh kembali
+    public void evictIdle(long nowNanos) {
+        for (LinkedHashMap<String, State> stripe : stripes) {
+            synchronized (stripe) {
+                stripe.values().removeIf(bucket -> tokensAt(bucket, nowNanos) >= capacity);
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (LinkedHashMap<String, State> stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    private LinkedHashMap<String, State> stripeOf(String key) {
+        return stripes[(key.hashCode() & 0x7fffffff) % stripes.length];
+    }
+
+    private double tokensAt(State state, long nowNanos) {
+        long elapsed = Math.max(0, nowNanos - state.updatedNanos);
+        return Math.min(capacity, state.tokens + elapsed * tokensPerNano);
+    }
+
+    // Stripe penuh: buang bucket yang paling lama tidak dipakai jika sudah
+    // penuh kembali. Jika belum, kembalikan sisa waktu sampai penuh.
+    private long evictEldest(LinkedHashMap<String, State> stripe, long nowNanos) {
+        Iterator<Map.Entry<String, State>> eldest = stripe.entrySet().iterator();
+        double tokens = tokensAt(eldest.next().getValue(), nowNanos);
+        if (tokens < capacity) {
+            return Math.max(1, (long) Math.ceil((capacity - tokens) / tokensPerNano));
+        }
+        eldest.remove();
+        return 0;
+    }
+}
@@ -2,20 +2,26 @@ package org.delcom.app.views;
 
 import java.util.List;
 
+import org.delcom.app.configs.AuthContext;
+import org.delcom.app.configs.AuthPrincipal;
 import org.delcom.app.dto.LoginForm;
 import org.delcom.app.dto.RegisterForm;
 import org.delcom.app.entities.User;
-import org.delcom.app.services.AuthTokenService;
+import org.delcom.app.services.AuthService;
+import org.delcom.app.services.AuthService.LoginResult;
+import org.delcom.app.services.AuthService.LoginStatus;
+import org.delcom.app.services.LoginThrottle;
+import org.delcom.app.services.PasswordService;
 import org.delcom.app.services.UserService;
 import org.delcom.app.utils.ConstUtil;
-import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -24,6 +30,8 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 
@@ -34,20 +42,25 @@ import org.springframework.validation.BindingResult;
 @RequestMapping("/auth")
 public class AuthView {
 
+    private static final String SERVER_SIBUK = "Server sedang sibuk, silakan coba lagi";
+
     private final UserService userService;
+    private final AuthService authService;
+    private final PasswordService passwordService;
+    private final LoginThrottle loginThrottle;
 
-    public AuthView(UserService userService, AuthTokenService authTokenService) {
+    public AuthView(UserService userService, AuthService authService, PasswordService passwordService,
+            LoginThrottle loginThrottle) {
         this.userService = userService;
+        this.authService = authService;
+        this.passwordService = passwordService;
+        this.loginThrottle = loginThrottle;
     }
 
     @GetMapping("/login")
     public String showLogin(Model model, HttpSession session) {
-        // Cek apakah sudah login
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        boolean isLoggedIn = auth != null
-                && auth.isAuthenticated()
-                && !(auth instanceof AnonymousAuthenticationToken);
-        if (isLoggedIn) {
+        // Cek apakah sudah login (principal di-resolve oleh AuthFilter)
+        if (AuthContext.isAuthenticated()) {
             return "redirect:/";
         }
 
@@ -58,6 +71,8 @@ public class AuthView {
     @PostMapping("/login/post")
     public String postLogin(@Valid @ModelAttribute("loginForm") LoginForm loginForm,
             BindingResult bindingResult,
+            HttpServletRequest request,
+            HttpServletResponse response,
             HttpSession session,
             Model model) {
 
@@ -66,25 +81,38 @@ public class AuthView {
             return ConstUtil.TEMPLATE_PAGES_AUTH_LOGIN;
         }
 
-        User existingUser = userService.getUserByEmail(loginForm.getEmail());
-        if (existingUser == null) {
-            bindingResult.rejectValue("email", "error.loginForm", "Pengguna ini belum terdaftar");
+        // Batasi percobaan login sebelum menyentuh database / BCrypt
+        long retryAfter = loginThrottle.tryAcquire(loginForm.getEmail(), request.getRemoteAddr());
+        if (retryAfter > 0) {
+            bindingResult.rejectValue("email", "error.loginForm",
+                    "Terlalu banyak percobaan login, coba lagi dalam " + retryAfter + " detik");
             return ConstUtil.TEMPLATE_PAGES_AUTH_LOGIN;
         }
 
-        boolean isPasswordMatch = new BCryptPasswordEncoder()
-                .matches(loginForm.getPassword(), existingUser.getPassword());
-        if (!isPasswordMatch) {
+        LoginResult loginResult;
+        try {
+            loginResult = authService.authenticate(loginForm.getEmail(), loginForm.getPassword());
+        } catch (PasswordService.BusyException e) {
+            rejectBusy(e, bindingResult, response);
+            return ConstUtil.TEMPLATE_PAGES_AUTH_LOGIN;
+        }
+        if (loginResult.status() == LoginStatus.USER_NOT_FOUND) {
+            bindingResult.rejectValue("email", "error.loginForm", "Pengguna ini belum terdaftar");
+            return ConstUtil.TEMPLATE_PAGES_AUTH_LOGIN;
+        }
+        if (!loginResult.isSuccess()) {
             bindingResult.rejectValue("email", "error.loginForm", "Email atau kata sandi salah");
             return ConstUtil.TEMPLATE_PAGES_AUTH_LOGIN;
         }
+        User existingUser = loginResult.user();
 
-        // Set authenticated user ke session
+        // Set authenticated user ke session. Yang disimpan hanya principal
+        // (id, nama, email), bukan entity User beserta hash password
         List<GrantedAuthority> authorities = List.of(
                 new SimpleGrantedAuthority("ROLE_USER"));
 
         Authentication authentication = new UsernamePasswordAuthenticationToken(
-                existingUser,
+                AuthPrincipal.from(existingUser),
                 null,
                 authorities);
 
@@ -101,12 +129,8 @@ public class AuthView {
 
     @GetMapping("/register")
     public String showRegister(Model model, HttpSession session) {
-        // Cek apakah sudah login
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        boolean isLoggedIn = auth != null
-                && auth.isAuthenticated()
-                && !(auth instanceof AnonymousAuthenticationToken);
-        if (isLoggedIn) {
+        // Cek apakah sudah login (principal di-resolve oleh AuthFilter)
+        if (AuthContext.isAuthenticated()) {
             return "redirect:/";
         }
 
@@ -118,6 +142,7 @@ public class AuthView {
     public String postRegister(@Valid @ModelAttribute("registerForm") RegisterForm registerForm,
             BindingResult bindingResult,
             RedirectAttributes redirectAttributes,
+            HttpServletResponse response,
             HttpSession session,
             Model model) {
 
@@ -133,7 +158,13 @@ public class AuthView {
             return ConstUtil.TEMPLATE_PAGES_AUTH_REGISTER;
         }
 
-        String hashPassword = new BCryptPasswordEncoder().encode(registerForm.getPassword());
+        String hashPassword;
+        try {
+            hashPassword = passwordService.encode(registerForm.getPassword());
+        } catch (PasswordService.BusyException e) {
+            rejectBusy(e, bindingResult, response);
+            return ConstUtil.TEMPLATE_PAGES_AUTH_REGISTER;
+        }
 
         User createdUser = userService.createUser(
                 registerForm.getName(),
@@ -151,6 +182,15 @@ public class AuthView {
         return "redirect:/auth/login";
     }
 
+    // Executor hashing password penuh: form ditampilkan lagi dengan pesan
+    // error, status 503 dan Retry-After seperti API (ServiceBusyHandler)
+    private static void rejectBusy(PasswordService.BusyException e, BindingResult bindingResult,
+            HttpServletResponse response) {
+        bindingResult.reject("error.busy", SERVER_SIBUK);
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfter().toSeconds())));
+    }
+
     @GetMapping("/logout")
     public String logout(HttpSession session) {
         session.invalidate();
@@ -4,12 +4,13 @@
     import java.util.List;
     import java.util.UUID;
 
+    import org.delcom.app.configs.AuthContext;
+    import org.delcom.app.configs.AuthPrincipal;
+    import org.delcom.app.dto.BarangCursor;
+    import org.delcom.app.dto.BarangPage;
     import org.delcom.app.entities.Barang;
-    import org.delcom.app.entities.User;
+    import org.delcom.app.entities.BarangStatus;
     import org.delcom.app.services.BarangService;
-    import org.springframework.security.authentication.AnonymousAuthenticationToken;
-    import org.springframework.security.core.Authentication;
-    import org.springframework.security.core.context.SecurityContextHolder;
     import org.springframework.stereotype.Controller;
     import org.springframework.ui.Model;
     import org.springframework.web.bind.annotation.GetMapping;
@@ -31,34 +32,58 @@
             this.barangService = barangService;
         }
 
-        // --- HELPER: Mengambil User yang sedang Login ---
-        private User getAuthenticatedUser() {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)) {
-                Object principal = auth.getPrincipal();
-                if (principal instanceof User) {
-                    return (User) principal;
-                }
-            }
-            return null;
+        // --- HELPER: Mengambil User yang sedang Login (di-resolve oleh AuthFilter) ---
+        private AuthPrincipal getAuthenticatedUser() {
+            return AuthContext.current();
         }
 
         // 1. Tampilkan Halaman DAFTAR BARANG (Stok)
         @GetMapping
-        public String showList(Model model) {
-            User user = getAuthenticatedUser();
+        public String showList(@RequestParam(value = "q", required = false) String keyword,
+                @RequestParam(value = "ready", defaultValue = "false") boolean ready, Model model) {
+            AuthPrincipal user = getAuthenticatedUser();
             if (user == null) return "redirect:/auth/login";
             
-            List<Barang> listBarang = barangService.getAllBarang(user.getId());
-            
-            // Catatan: Nama attribute tetap "listTugas" agar cocok dengan th:each di index.html
-            model.addAttribute("listTugas", listBarang);
-            model.addAttribute("userName", user.getName());
+            if (keyword != null && !keyword.isBlank()) {
+                // Mode pencarian: hasil paling relevan saja, tanpa infinite scroll
+                model.addAttribute("listTugas", barangService.searchBarang(user.id(), keyword,
+                        ready ? BarangStatus.READY : null, null, null));
+                model.addAttribute("keyword", keyword);
+            } else {
+                // Hanya halaman pertama, sisanya dimuat lewat /barang/items (infinite scroll)
+                BarangPage barangPage = barangService.getBarangPage(user.id(), null, null, ready);
+
+                // Catatan: Nama attribute tetap "listTugas" agar cocok dengan th:each di index.html
+                model.addAttribute("listTugas", barangPage.items());
+                model.addAttribute("nextCursor", barangPage.nextCursor());
+            }
+            // Filter "Hanya READY" (stok yang masih dijual)
+            model.addAttribute("ready", ready);
+            // Total/Ready/Sold dari counter statistik, bukan dari list di atas
+            model.addAttribute("stats", barangService.getStats(user.id()));
+            model.addAttribute("userName", user.name());
             
             // UPDATE: Ambil dari folder 'barang'
             return "pages/barang/index"; 
         }
 
+        // 1b. Halaman berikutnya untuk infinite scroll (fragment kartu barang saja)
+        @GetMapping("/items")
+        public String showItems(@RequestParam("cursor") String cursor,
+                @RequestParam(value = "ready", defaultValue = "false") boolean ready, Model model) {
+            AuthPrincipal user = getAuthenticatedUser();
+            if (user == null) return "redirect:/auth/login";
+
+            BarangCursor after = BarangCursor.decode(cursor);
+            BarangPage barangPage = after == null
+                    ? new BarangPage(List.of(), null)
+                    : barangService.getBarangPage(user.id(), after, null, ready);
+
+            model.addAttribute("listTugas", barangPage.items());
+            model.addAttribute("nextCursor", barangPage.nextCursor());
+            return "pages/barang/index :: items";
+        }
+
         // 2. Tampilkan Form UPLOAD BARANG
         @GetMapping("/create")
         public String showCreateForm(Model model) {
@@ -78,15 +103,17 @@
                 @RequestParam("fileGambar") MultipartFile file, 
                 RedirectAttributes redirectAttributes
         ) {
-            User user = getAuthenticatedUser();
+            AuthPrincipal user = getAuthenticatedUser();
             if (user == null) return "redirect:/auth/login";
 
             try {
-                barang.setUser(user);
+                barang.setUser(user.toUser());
                 barangService.createBarang(barang, file);
                 redirectAttributes.addFlashAttribute("success", "Barang berhasil ditambahkan ke stok!");
             } catch (IOException e) {
                 redirectAttributes.addFlashAttribute("error", "Gagal mengupload foto barang.");
+            } catch (IllegalArgumentException e) {
+                redirectAttributes.addFlashAttribute("error", e.getMessage() + ".");
             }
 
             // UPDATE: Redirect ke /barang
@@ -96,9 +123,10 @@
         // 4. Tampilkan Form EDIT BARANG
         @GetMapping("/edit/{id}")
         public String showEditForm(@PathVariable UUID id, Model model) {
-            if (getAuthenticatedUser() == null) return "redirect:/auth/login";
+            AuthPrincipal user = getAuthenticatedUser();
+            if (user == null) return "redirect:/auth/login";
 
-            Barang barang = barangService.getBarangById(id);
+            Barang barang = barangService.getBarangById(user.id(), id);
             if (barang == null) return "redirect:/barang";
 
             model.addAttribute("barang", barang);
@@ -114,13 +142,19 @@
                 @RequestParam(value = "fileGambar", required = false) MultipartFile file,
                 RedirectAttributes redirectAttributes
         ) {
-            if (getAuthenticatedUser() == null) return "redirect:/auth/login";
+            AuthPrincipal user = getAuthenticatedUser();
+            if (user == null) return "redirect:/auth/login";
 
             try {
-                barangService.updateBarang(barang.getId(), barang, file);
-                redirectAttributes.addFlashAttribute("success", "Data barang berhasil diperbarui!");
+                if (barangService.updateBarang(user.id(), barang.getId(), barang, file) == null) {
+                    redirectAttributes.addFlashAttribute("error", "Barang tidak ditemukan.");
+                } else {
+                    redirectAttributes.addFlashAttribute("success", "Data barang berhasil diperbarui!");
+                }
             } catch (IOException e) {
                 redirectAttributes.addFlashAttribute("error", "Gagal update gambar.");
+            } catch (IllegalArgumentException e) {
+                redirectAttributes.addFlashAttribute("error", e.getMessage() + ".");
             }
 
             // UPDATE: Redirect ke /barang
@@ -130,10 +164,14 @@
         // 6. Proses DELETE BARANG
         @PostMapping("/delete/{id}")
         public String deleteBarang(@PathVariable UUID id, RedirectAttributes redirectAttributes) {
-            if (getAuthenticatedUser() == null) return "redirect:/auth/login";
+            AuthPrincipal user = getAuthenticatedUser();
+            if (user == null) return "redirect:/auth/login";
 
-            barangService.deleteBarang(id);
-            redirectAttributes.addFlashAttribute("success", "Barang berhasil dihapus dari stok.");
+            if (barangService.deleteBarang(user.id(), id)) {
+                redirectAttributes.addFlashAttribute("success", "Barang berhasil dihapus dari stok.");
+            } else {
+                redirectAttributes.addFlashAttribute("error", "Barang tidak ditemukan.");
+            }
             
             // UPDATE: Redirect ke /barang
             return "redirect:/barang";
@@ -142,11 +180,37 @@
         // 7. Proses TANDAI SOLD (Selesai)
         @PostMapping("/{id}/selesai")
         public String tandaiSold(@PathVariable UUID id) {
-            if (getAuthenticatedUser() == null) return "redirect:/auth/login";
+            AuthPrincipal user = getAuthenticatedUser();
+            if (user == null) return "redirect:/auth/login";
             
-            barangService.updateStatus(id, "Selesai");
+            barangService.updateStatus(user.id(), id, BarangStatus.SOLD);
             
             // UPDATE: Redirect ke /barang
             return "redirect:/barang";
         }
+
+        // 7b. Proses TANDAI banyak barang sekaligus (checkbox di daftar barang)
+        @PostMapping("/status")
+        public String updateStatusBulk(
+                @RequestParam(value = "ids", required = false) List<UUID> ids,
+                @RequestParam("status") String status,
+                RedirectAttributes redirectAttributes
+        ) {
+            AuthPrincipal user = getAuthenticatedUser();
+            if (user == null) return "redirect:/auth/login";
+
+            if (ids == null || ids.isEmpty()) {
+                redirectAttributes.addFlashAttribute("error", "Pilih minimal satu barang.");
+                return "redirect:/barang";
+            }
+
+            try {
+                List<UUID> updatedIds = barangService.updateStatusBulk(user.id(), ids, BarangStatus.parse(status));
+                redirectAttributes.addFlashAttribute("success", updatedIds.size() + " barang berhasil diperbarui.");
+            } catch (IllegalArgumentException e) {
+                redirectAttributes.addFlashAttribute("error", e.getMessage());
+            }
+
+            return "redirect:/barang";
+        }
     }
\ No newline at end of file
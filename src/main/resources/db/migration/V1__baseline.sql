@@ -0,0 +1,36 @@
+-- Skema awal (sama dengan yang dulu dibuat Hibernate lewat ddl-auto=update).
+-- Database lama yang sudah punya tabel ini di-baseline di versi 1 dan
+-- langsung lanjut ke migrasi berikutnya (spring.flyway.baseline-on-migrate).
+
+CREATE TABLE users (
+    id          uuid         NOT NULL,
+    name        varchar(255) NOT NULL,
+    email       varchar(255) NOT NULL,
+    password    varchar(255) NOT NULL,
+    created_at  timestamp(6) NOT NULL,
+    updated_at  timestamp(6) NOT NULL,
+    CONSTRAINT users_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE auth_tokens (
+    id          uuid         NOT NULL,
+    token       text         NOT NULL,
+    user_id     uuid         NOT NULL,
+    created_at  timestamp(6) NOT NULL,
+    CONSTRAINT auth_tokens_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE barang (
+    id            uuid         NOT NULL,
+    nama_barang   varchar(255) NOT NULL,
+    kategori      varchar(255) NOT NULL,
+    deskripsi     text,
+    tanggal_masuk timestamp(6),
+    foto          varchar(255),
+    status        varchar(255) NOT NULL,
+    user_id       uuid         NOT NULL,
+    created_at    timestamp(6) NOT NULL,
+    updated_at    timestamp(6) NOT NULL,
+    CONSTRAINT barang_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_barang_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
@@ -0,0 +1,19 @@
+-- Lookup token memakai SHA-256 dari token (lihat AuthTokenRepository.findUserToken).
+-- Menggantikan AuthTokenDigestMigration yang dulu berjalan setiap startup.
+
+ALTER TABLE auth_tokens ADD COLUMN IF NOT EXISTS token_digest bytea;
+
+-- Token duplikat milik user yang sama dihapus dulu agar tidak melanggar index unik
+DELETE FROM auth_tokens a USING auth_tokens b
+WHERE a.user_id = b.user_id AND a.token = b.token AND a.id < b.id
+  AND (a.token_digest IS NULL OR b.token_digest IS NULL);
+
+UPDATE auth_tokens SET token_digest = sha256(convert_to(token, 'UTF8'))
+WHERE token_digest IS NULL;
+
+ALTER TABLE auth_tokens ALTER COLUMN token_digest SET NOT NULL;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_auth_tokens_user_digest ON auth_tokens (user_id, token_digest);
+
+-- Batch AuthTokenReaper (created_at < cutoff ORDER BY created_at)
+CREATE INDEX IF NOT EXISTS idx_auth_tokens_created_at ON auth_tokens (created_at);
@@ -0,0 +1,16 @@
+-- Index untuk setiap query di BarangRepository dan UserRepository.
+-- Semua index barang diawali user_id, sekaligus menjadi index foreign key.
+
+-- findFirstPage / findPageAfter / findPageAfterUndated / countByUserId
+CREATE INDEX IF NOT EXISTS idx_barang_user_tanggal ON barang (user_id, tanggal_masuk DESC, id DESC);
+
+-- findAllByUserIdAndStatus
+CREATE INDEX IF NOT EXISTS idx_barang_user_status ON barang (user_id, status);
+
+-- findAllByUserIdAndKategori
+CREATE INDEX IF NOT EXISTS idx_barang_user_kategori ON barang (user_id, kategori);
+
+-- findByEmail: email unik tanpa membedakan huruf besar/kecil. Gagal jika
+-- sudah ada dua akun dengan email yang hanya beda kapitalisasi; gabungkan
+-- akun tersebut dulu sebelum migrasi dijalankan.
+CREATE UNIQUE INDEX IF NOT EXISTS ux_users_email_lower ON users (lower(email));
@@ -0,0 +1,16 @@
+-- Pencarian full-text nama & deskripsi barang (BarangRepository.searchIds).
+-- Konfigurasi 'simple': tanpa stemming/stopword bahasa tertentu, cocok untuk
+-- nama produk campuran Indonesia/Inggris. Nama barang diberi bobot lebih tinggi.
+
+ALTER TABLE barang ADD COLUMN search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(nama_barang, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(deskripsi, '')), 'B')
+    ) STORED;
+
+-- Index GIN gabungan (user_id, search_vector): posting list kata langsung
+-- dipotong ke barang milik user, tidak perlu BitmapAnd dengan index user_id.
+-- btree_gin termasuk extension "trusted", bisa dibuat oleh pemilik database.
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+
+CREATE INDEX idx_barang_user_search ON barang USING GIN (user_id, search_vector);
@@ -0,0 +1,72 @@
+-- Statistik barang per user (BarangRepository.findStats): jumlah barang per
+-- (kategori, status). Diperbarui oleh trigger di setiap INSERT/UPDATE/DELETE
+-- barang, di dalam transaksi yang sama, jadi ikut di-rollback dan juga
+-- mencakup import (JDBC batch) dan ubah status massal. Membaca statistik
+-- cukup lewat primary key, tidak perlu menghitung tabel barang.
+
+CREATE TABLE barang_stats (
+    user_id   uuid         NOT NULL,
+    kategori  varchar(255) NOT NULL,
+    status    varchar(255) NOT NULL,
+    jumlah    bigint       NOT NULL,
+    CONSTRAINT barang_stats_pkey PRIMARY KEY (user_id, kategori, status),
+    CONSTRAINT fk_barang_stats_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+-- Trigger per statement (bukan per baris): satu batch insert atau UPDATE
+-- massal hanya menulis satu kali per (user, kategori, status). Urutan
+-- ORDER BY membuat urutan lock baris statistik selalu sama antar transaksi.
+CREATE FUNCTION barang_stats_insert() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO barang_stats (user_id, kategori, status, jumlah)
+    SELECT user_id, kategori, status, count(*) FROM new_rows
+    GROUP BY user_id, kategori, status
+    ORDER BY user_id, kategori, status
+    ON CONFLICT (user_id, kategori, status) DO UPDATE SET jumlah = barang_stats.jumlah + EXCLUDED.jumlah;
+    RETURN NULL;
+END;
+$$;
+
+CREATE FUNCTION barang_stats_update() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO barang_stats (user_id, kategori, status, jumlah)
+    SELECT user_id, kategori, status, sum(delta) FROM (
+        SELECT user_id, kategori, status, 1 AS delta FROM new_rows
+        UNION ALL
+        SELECT user_id, kategori, status, -1 AS delta FROM old_rows
+    ) changes
+    GROUP BY user_id, kategori, status
+    HAVING sum(delta) <> 0
+    ORDER BY user_id, kategori, status
+    ON CONFLICT (user_id, kategori, status) DO UPDATE SET jumlah = barang_stats.jumlah + EXCLUDED.jumlah;
+    RETURN NULL;
+END;
+$$;
+
+CREATE FUNCTION barang_stats_delete() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO barang_stats (user_id, kategori, status, jumlah)
+    SELECT user_id, kategori, status, -count(*) FROM old_rows
+    GROUP BY user_id, kategori, status
+    ORDER BY user_id, kategori, status
+    ON CONFLICT (user_id, kategori, status) DO UPDATE SET jumlah = barang_stats.jumlah + EXCLUDED.jumlah;
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_barang_stats_insert AFTER INSERT ON barang
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION barang_stats_insert();
+
+CREATE TRIGGER trg_barang_stats_update AFTER UPDATE ON barang
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION barang_stats_update();
+
+CREATE TRIGGER trg_barang_stats_delete AFTER DELETE ON barang
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION barang_stats_delete();
+
+-- Isi awal dari data yang sudah ada (sama dengan BarangService.rebuildStats)
+INSERT INTO barang_stats (user_id, kategori, status, jumlah)
+SELECT user_id, kategori, status, count(*) FROM barang
+GROUP BY user_id, kategori, status;
@@ -0,0 +1,16 @@
+-- Antrian penghapusan file foto (FileDeletionQueue). Baris ditulis di dalam
+-- transaksi yang menghapus/mengganti foto barang, jadi ikut hilang jika
+-- transaksi di-rollback; file baru dihapus worker setelah commit, dan tetap
+-- dicoba lagi setelah aplikasi restart.
+
+CREATE TABLE file_deletions (
+    id               bigint       GENERATED BY DEFAULT AS IDENTITY,
+    filename         varchar(255) NOT NULL,
+    attempts         integer      NOT NULL,
+    next_attempt_at  timestamp(6) NOT NULL,
+    created_at       timestamp(6) NOT NULL,
+    CONSTRAINT file_deletions_pkey PRIMARY KEY (id)
+);
+
+-- FileDeletionRepository.claimDue (next_attempt_at <= now ORDER BY next_attempt_at)
+CREATE INDEX idx_file_deletions_next_attempt ON file_deletions (next_attempt_at);
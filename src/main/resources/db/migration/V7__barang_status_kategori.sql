@@ -0,0 +1,112 @@
+-- Status dan kategori barang dengan tipe ringkas:
+-- * status: smallint (BarangStatus, 0 = READY, 1 = SOLD) menggantikan
+--   varchar yang bisa berisi "READY", "SOLD" atau "Selesai"
+-- * kategori: kamus kategori (nama unik, key integer); barang hanya
+--   menyimpan kategori_id, bukan nama kategori di setiap baris
+-- Statistik barang_stats (V5) ikut memakai kolom baru.
+
+-- Trigger statistik dimatikan selama data barang diubah; dibuat ulang di bawah
+DROP TRIGGER trg_barang_stats_insert ON barang;
+DROP TRIGGER trg_barang_stats_update ON barang;
+DROP TRIGGER trg_barang_stats_delete ON barang;
+DROP TABLE barang_stats;
+
+CREATE TABLE kategori (
+    id    integer      GENERATED BY DEFAULT AS IDENTITY,
+    nama  varchar(255) NOT NULL,
+    CONSTRAINT kategori_pkey PRIMARY KEY (id),
+    CONSTRAINT ux_kategori_nama UNIQUE (nama)
+);
+
+INSERT INTO kategori (nama)
+SELECT DISTINCT kategori FROM barang ORDER BY kategori;
+
+ALTER TABLE barang ADD COLUMN kategori_id integer;
+
+UPDATE barang b SET kategori_id = k.id FROM kategori k WHERE k.nama = b.kategori;
+
+-- Index idx_barang_user_kategori ikut terhapus bersama kolom kategori
+ALTER TABLE barang
+    ALTER COLUMN kategori_id SET NOT NULL,
+    ADD CONSTRAINT fk_barang_kategori FOREIGN KEY (kategori_id) REFERENCES kategori (id),
+    DROP COLUMN kategori;
+
+-- "Selesai" (tandai sold dari halaman web) sama dengan SOLD. Status lain
+-- yang pernah ditulis lewat API dianggap masih READY. Mengubah tipe kolom
+-- menulis ulang tabel, sekaligus membuang baris lama hasil UPDATE di atas.
+DROP INDEX idx_barang_user_status;
+
+ALTER TABLE barang ALTER COLUMN status TYPE smallint
+    USING CASE WHEN upper(trim(status)) IN ('SOLD', 'SELESAI') THEN 1 ELSE 0 END;
+
+-- findAllByUserIdAndKategori
+CREATE INDEX idx_barang_user_kategori ON barang (user_id, kategori_id);
+
+-- Stok yang masih dijual (findReadyFirstPage dan halaman berikutnya, filter
+-- ?ready=true): index partial hanya berisi barang READY, urut seperti daftar
+-- barang. Barang SOLD tidak disimpan di index dan tidak ikut discan.
+CREATE INDEX idx_barang_user_ready ON barang (user_id, tanggal_masuk DESC, id DESC) WHERE status = 0;
+
+CREATE TABLE barang_stats (
+    user_id      uuid     NOT NULL,
+    kategori_id  integer  NOT NULL,
+    status       smallint NOT NULL,
+    jumlah       bigint   NOT NULL,
+    CONSTRAINT barang_stats_pkey PRIMARY KEY (user_id, kategori_id, status),
+    CONSTRAINT fk_barang_stats_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE,
+    CONSTRAINT fk_barang_stats_kategori FOREIGN KEY (kategori_id) REFERENCES kategori (id)
+);
+
+CREATE OR REPLACE FUNCTION barang_stats_insert() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO barang_stats (user_id, kategori_id, status, jumlah)
+    SELECT user_id, kategori_id, status, count(*) FROM new_rows
+    GROUP BY user_id, kategori_id, status
+    ORDER BY user_id, kategori_id, status
+    ON CONFLICT (user_id, kategori_id, status) DO UPDATE SET jumlah = barang_stats.jumlah + EXCLUDED.jumlah;
+    RETURN NULL;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION barang_stats_update() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO barang_stats (user_id, kategori_id, status, jumlah)
+    SELECT user_id, kategori_id, status, sum(delta) FROM (
+        SELECT user_id, kategori_id, status, 1 AS delta FROM new_rows
+        UNION ALL
+        SELECT user_id, kategori_id, status, -1 AS delta FROM old_rows
+    ) changes
+    GROUP BY user_id, kategori_id, status
+    HAVING sum(delta) <> 0
+    ORDER BY user_id, kategori_id, status
+    ON CONFLICT (user_id, kategori_id, status) DO UPDATE SET jumlah = barang_stats.jumlah + EXCLUDED.jumlah;
+    RETURN NULL;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION barang_stats_delete() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO barang_stats (user_id, kategori_id, status, jumlah)
+    SELECT user_id, kategori_id, status, -count(*) FROM old_rows
+    GROUP BY user_id, kategori_id, status
+    ORDER BY user_id, kategori_id, status
+    ON CONFLICT (user_id, kategori_id, status) DO UPDATE SET jumlah = barang_stats.jumlah + EXCLUDED.jumlah;
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_barang_stats_insert AFTER INSERT ON barang
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION barang_stats_insert();
+
+CREATE TRIGGER trg_barang_stats_update AFTER UPDATE ON barang
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION barang_stats_update();
+
+CREATE TRIGGER trg_barang_stats_delete AFTER DELETE ON barang
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION barang_stats_delete();
+
+INSERT INTO barang_stats (user_id, kategori_id, status, jumlah)
+SELECT user_id, kategori_id, status, count(*) FROM barang
+GROUP BY user_id, kategori_id, status;
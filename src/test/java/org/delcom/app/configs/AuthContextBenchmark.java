@@ -0,0 +1,131 @@
+package org.delcom.app.configs;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.entities.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.context.annotation.RequestScope;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+
+/**
+ * Membandingkan AuthContext lama (bean request-scope di balik scoped proxy)
+ * dengan AuthContext berbasis ScopedValue. Setiap operasi = satu request yang
+ * menyimpan principal lalu membacanya tiga kali (seperti controller).
+ *
+ * Jalankan dengan profiler GC untuk melihat alokasi per request
+ * (gc.alloc.rate.norm): lihat bagian "Menjalankan Benchmark" di README.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthContextBenchmark {
+
+    // Salinan AuthContext sebelum diganti ScopedValue
+    public static class LegacyAuthContext {
+        private User authUser;
+
+        public User getAuthUser() {
+            return authUser;
+        }
+
+        public void setAuthUser(User authUser) {
+            this.authUser = authUser;
+        }
+
+        public boolean isAuthenticated() {
+            return authUser != null;
+        }
+    }
+
+    @Configuration
+    static class LegacyConfig {
+        @Bean
+        @RequestScope
+        public LegacyAuthContext legacyAuthContext() {
+            return new LegacyAuthContext();
+        }
+    }
+
+    private AnnotationConfigWebApplicationContext context;
+    private LegacyAuthContext legacyProxy;
+    private MockHttpServletRequest request;
+    private User user;
+    private AuthPrincipal principal;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new AnnotationConfigWebApplicationContext();
+        context.setServletContext(new MockServletContext());
+        context.register(LegacyConfig.class);
+        context.refresh();
+        legacyProxy = context.getBean(LegacyAuthContext.class);
+
+        request = new MockHttpServletRequest();
+        user = new User("Benchmark", "benchmark@example.com", null);
+        user.setId(UUID.randomUUID());
+        principal = AuthPrincipal.from(user);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void requestScopedProxy(Blackhole blackhole) {
+        // Sama seperti RequestContextFilter/DispatcherServlet per request
+        ServletRequestAttributes attributes = new ServletRequestAttributes(request);
+        RequestContextHolder.setRequestAttributes(attributes);
+        try {
+            legacyProxy.setAuthUser(user);
+            blackhole.consume(legacyProxy.isAuthenticated());
+            blackhole.consume(legacyProxy.getAuthUser().getId());
+            blackhole.consume(legacyProxy.getAuthUser().getName());
+        } finally {
+            attributes.requestCompleted();
+            RequestContextHolder.resetRequestAttributes();
+            // Request berikutnya adalah request baru (tanpa bean lama)
+            request.clearAttributes();
+        }
+    }
+
+    @Benchmark
+    public void scopedValue(Blackhole blackhole) {
+        ScopedValue.where(AuthContext.PRINCIPAL, principal).run(() -> {
+            blackhole.consume(AuthContext.isAuthenticated());
+            blackhole.consume(AuthContext.current().id());
+            blackhole.consume(AuthContext.current().name());
+        });
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(AuthContextBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -1,32 +1,52 @@
 package org.delcom.app.configs;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.UUID;
+
 import org.delcom.app.entities.User;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 public class AuthContextTests {
     @Test
-    @DisplayName("Membuat instance kelas AuthContext dengan benar")
-    void testMembuatInstanceKelasAuthContextDenganBenar() {
-        AuthContext authContext = new AuthContext();
+    @DisplayName("Principal hanya terlihat selama ScopedValue di-bind")
+    void testPrincipalTerlihatSelamaDiBind() {
+        AuthPrincipal principal = new AuthPrincipal(UUID.randomUUID(), "Abdullah Ubaid", "test@example.com");
 
-        // Menguji dengan data user tersedia
+        // Menguji dengan principal tersedia
         {
-            User user = new User("Abdullah Ubaid", "test@example.com", "123456");
-            authContext.setAuthUser(user);
-
-            assertEquals(user, authContext.getAuthUser());
-            assertTrue(authContext.isAuthenticated());
+            ScopedValue.where(AuthContext.PRINCIPAL, principal).run(() -> {
+                assertSame(principal, AuthContext.current());
+                assertTrue(AuthContext.isAuthenticated());
+            });
         }
 
-        // Menguji dengan data user kosong
+        // Menguji di luar binding
         {
-            authContext.setAuthUser(null);
-            assertTrue(!authContext.isAuthenticated());
+            assertNull(AuthContext.current());
+            assertFalse(AuthContext.isAuthenticated());
         }
+    }
+
+    @Test
+    @DisplayName("Konversi AuthPrincipal dari dan ke User")
+    void testKonversiAuthPrincipal() {
+        UUID userId = UUID.randomUUID();
+        User user = new User("Abdullah Ubaid", "test@example.com", "123456");
+        user.setId(userId);
+
+        AuthPrincipal principal = AuthPrincipal.from(user);
+        assertEquals(new AuthPrincipal(userId, "Abdullah Ubaid", "test@example.com"), principal);
 
+        User reference = principal.toUser();
+        assertEquals(userId, reference.getId());
+        assertEquals("Abdullah Ubaid", reference.getName());
+        assertEquals("test@example.com", reference.getEmail());
+        assertNull(reference.getPassword());
     }
 }
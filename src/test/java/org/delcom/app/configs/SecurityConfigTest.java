@@ -1,15 +1,23 @@
 package org.delcom.app.configs;
 
+import java.util.UUID;
+
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 
 @SpringBootTest
@@ -34,6 +42,32 @@ public class SecurityConfigTest {
                                 .andExpect(status().is4xxClientError());
         }
 
+        @Test
+        void api_isStatelessWithoutSession() throws Exception {
+                MvcResult result = mockMvc.perform(get("/api/barang"))
+                                .andExpect(status().isUnauthorized())
+                                .andReturn();
+                assertThat(result.getRequest().getSession(false)).isNull();
+        }
+
+        @Test
+        void api_postWithoutCsrfToken_isNotForbidden() throws Exception {
+                mockMvc.perform(post("/api/auth/login")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{}"))
+                                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void sessionPrincipal_isResolvedForViews() throws Exception {
+                AuthPrincipal principal = new AuthPrincipal(UUID.randomUUID(), "Test User", "user@example.com");
+                mockMvc.perform(get("/")
+                                .with(authentication(new UsernamePasswordAuthenticationToken(principal, null,
+                                                AuthorityUtils.createAuthorityList("ROLE_USER")))))
+                                .andExpect(status().is3xxRedirection())
+                                .andExpect(redirectedUrl("/barang"));
+        }
+
         @Test
         void redirect_toLogin_ifNotAuthenticated() throws Exception {
                 mockMvc.perform(get("/dashboard"))
@@ -0,0 +1,29 @@
+package org.delcom.app.configs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+
+import org.delcom.app.services.PasswordService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+public class ServiceBusyHandlerTests {
+    @Test
+    @DisplayName("BusyException menjadi 503 dengan Retry-After")
+    void testHandlePasswordBusy() {
+        ServiceBusyHandler handler = new ServiceBusyHandler();
+
+        ResponseEntity<ApiResponse<Void>> response = handler
+                .handlePasswordBusy(new PasswordService.BusyException(Duration.ofSeconds(2)));
+        assertEquals(503, response.getStatusCode().value());
+        assertEquals("2", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals("error", response.getBody().getStatus());
+
+        // Retry-After minimal 1 detik
+        response = handler.handlePasswordBusy(new PasswordService.BusyException(Duration.ofMillis(200)));
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+}
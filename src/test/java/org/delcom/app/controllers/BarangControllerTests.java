@@ -1,30 +1,60 @@
 package org.delcom.app.controllers;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import org.delcom.app.configs.ApiResponse;
 import org.delcom.app.configs.AuthContext;
+import org.delcom.app.configs.AuthPrincipal;
+import org.delcom.app.dto.BarangCursor;
+import org.delcom.app.dto.BarangImportResult;
+import org.delcom.app.dto.BarangPage;
+import org.delcom.app.dto.BarangStats;
+import org.delcom.app.dto.BarangStatusBulkRequest;
+import org.delcom.app.dto.BarangSummary;
+import org.delcom.app.dto.BarangVersion;
 import org.delcom.app.entities.Barang;
+import org.delcom.app.entities.BarangStatus;
 import org.delcom.app.entities.User;
+import org.delcom.app.services.BarangExportService;
+import org.delcom.app.services.BarangImportService;
 import org.delcom.app.services.BarangService;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
 
 @ExtendWith(MockitoExtension.class)
 public class BarangControllerTests {
@@ -33,7 +63,13 @@ public class BarangControllerTests {
     private BarangService barangService;
 
     @Mock
-    private AuthContext authContext;
+    private BarangImportService barangImportService;
+
+    @Mock
+    private BarangExportService barangExportService;
+
+    @Spy
+    private ObjectMapper objectMapper = JsonMapper.builder().build();
 
     @InjectMocks
     private BarangController barangController;
@@ -41,6 +77,7 @@ public class BarangControllerTests {
     private User user;
     private MultipartFile file;
     private UUID uuid;
+    private final BarangVersion version = new BarangVersion(3, LocalDateTime.of(2024, 1, 1, 10, 0));
 
     @BeforeEach
     void setUp() {
@@ -48,6 +85,19 @@ public class BarangControllerTests {
         user.setId(UUID.randomUUID());
         file = mock(MultipartFile.class);
         uuid = UUID.randomUUID();
+        lenient().when(barangService.getVersion(user.getId())).thenReturn(version);
+    }
+
+    // Request GET tanpa If-None-Match
+    private static ServletWebRequest webRequest() {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", "/api/barang"), new MockHttpServletResponse());
+    }
+
+    // Jalankan seperti di dalam request yang sudah melewati AuthFilter
+    private <T> T asUser(Supplier<T> action) {
+        List<T> result = new ArrayList<>(1);
+        ScopedValue.where(AuthContext.PRINCIPAL, AuthPrincipal.from(user)).run(() -> result.add(action.get()));
+        return result.get(0);
     }
 
     // ========================================================================
@@ -57,20 +107,197 @@ public class BarangControllerTests {
     @Test
     @DisplayName("Get All: Unauthorized (Cover Baris 47)")
     void testGetAll_Unauthorized() {
-        when(authContext.isAuthenticated()).thenReturn(false);
-        ResponseEntity<ApiResponse<List<Barang>>> response = barangController.getAllBarang();
+        ResponseEntity<ApiResponse<BarangPage>> response = barangController.getAllBarang(null, null, false, webRequest());
         assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
     }
 
     @Test
-    @DisplayName("Get All: Success")
+    @DisplayName("Get All: Success (halaman pertama, cursor kosong)")
     void testGetAll_Success() {
-        when(authContext.isAuthenticated()).thenReturn(true);
-        when(authContext.getAuthUser()).thenReturn(user);
-        when(barangService.getAllBarang(any())).thenReturn(List.of(new Barang()));
+        BarangPage page = new BarangPage(List.of(new BarangSummary(UUID.randomUUID(), "Jaket", "Jaket", null, null, null, BarangStatus.READY)), "next");
+        when(barangService.getBarangPage(user.getId(), null, 10, false)).thenReturn(page);
+        when(barangService.getBarangPage(user.getId(), null, null, false)).thenReturn(page);
+
+        ResponseEntity<ApiResponse<BarangPage>> response = asUser(() -> barangController.getAllBarang(null, 10, false, webRequest()));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(page, response.getBody().getData());
+
+        response = asUser(() -> barangController.getAllBarang("", null, false, webRequest()));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Get All: hanya barang READY")
+    void testGetAll_ReadyOnly() {
+        BarangPage page = new BarangPage(List.of(), null);
+        when(barangService.getBarangPage(user.getId(), null, null, true)).thenReturn(page);
+
+        var response = asUser(() -> barangController.getAllBarang(null, null, true, webRequest()));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(page, response.getBody().getData());
+    }
+
+    @Test
+    @DisplayName("Get All: halaman berikutnya dengan cursor")
+    void testGetAll_WithCursor() {
+        BarangCursor cursor = new BarangCursor(LocalDateTime.of(2024, 1, 1, 10, 0), UUID.randomUUID());
+        BarangPage page = new BarangPage(List.of(), null);
+        when(barangService.getBarangPage(user.getId(), cursor, null, false)).thenReturn(page);
+
+        var response = asUser(() -> barangController.getAllBarang(cursor.encode(), null, false, webRequest()));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(page, response.getBody().getData());
+    }
+
+    @Test
+    @DisplayName("Search: Unauthorized dan kata kunci kosong")
+    void testSearch_Invalid() {
+        assertEquals(HttpStatus.UNAUTHORIZED, barangController.searchBarang("nike", null, null, null, webRequest()).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST,
+                asUser(() -> barangController.searchBarang(null, null, null, null, webRequest())).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST,
+                asUser(() -> barangController.searchBarang("  ", null, null, null, webRequest())).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Search: Success dengan filter status dan kategori")
+    void testSearch_Success() {
+        List<BarangSummary> results = List.of(new BarangSummary(UUID.randomUUID(), "Nike", "Sepatu", null, null, null, BarangStatus.READY));
+        when(barangService.searchBarang(user.getId(), "nike", BarangStatus.READY, "Sepatu", 5)).thenReturn(results);
+        when(barangService.searchBarang(user.getId(), "nike", null, null, null)).thenReturn(List.of());
+
+        var response = asUser(() -> barangController.searchBarang("nike", "ready", "Sepatu", 5, webRequest()));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(results, response.getBody().getData());
+
+        response = asUser(() -> barangController.searchBarang("nike", " ", null, null, webRequest()));
+        assertEquals(List.of(), response.getBody().getData());
+    }
+
+    @Test
+    @DisplayName("Search: filter status tidak dikenal -> 400")
+    void testSearch_InvalidStatus() {
+        var response = asUser(() -> barangController.searchBarang("nike", "HABIS", null, null, webRequest()));
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Status harus READY atau SOLD", response.getBody().getMessage());
+        verify(barangService, never()).searchBarang(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Stats: Unauthorized, Success, dan 304 jika ETag sama")
+    void testStats() {
+        assertEquals(HttpStatus.UNAUTHORIZED, barangController.getStats(webRequest()).getStatusCode());
+
+        BarangStats stats = new BarangStats(5, 3, 2, Map.of("Jaket", 5L));
+        when(barangService.getStats(user.getId())).thenReturn(stats);
+        var response = asUser(() -> barangController.getStats(webRequest()));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(stats, response.getBody().getData());
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/barang/stats");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"" + stats.etag() + "\"");
+        assertNull(asUser(() -> barangController.getStats(new ServletWebRequest(request, new MockHttpServletResponse()))));
+
+        // Setelah rebuild memperbaiki counter, ETag lama tidak lagi cocok
+        when(barangService.getStats(user.getId())).thenReturn(new BarangStats(5, 4, 1, Map.of("Jaket", 5L)));
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        response = asUser(() -> barangController.getStats(new ServletWebRequest(request, servletResponse)));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"" + new BarangStats(5, 4, 1, Map.of("Jaket", 5L)).etag() + "\"",
+                servletResponse.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    @DisplayName("Stats Rebuild: Unauthorized dan Success")
+    void testRebuildStats() {
+        assertEquals(HttpStatus.UNAUTHORIZED, barangController.rebuildStats().getStatusCode());
+
+        BarangStats stats = new BarangStats(1, 1, 0, Map.of("Jaket", 1L));
+        when(barangService.rebuildStats(user.getId())).thenReturn(stats);
+        var response = asUser(() -> barangController.rebuildStats());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(stats, response.getBody().getData());
+    }
+
+    @Test
+    @DisplayName("Conditional GET: ETag sama -> 304 tanpa memuat barang, ETag lama -> 200 dengan ETag baru")
+    void testConditionalGet() throws Exception {
+        String etag = "\"" + version.etag() + "\"";
+
+        // Daftar barang
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/barang");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        assertNull(asUser(() -> barangController.getAllBarang(null, null, false, new ServletWebRequest(request, servletResponse))));
+        assertEquals(304, servletResponse.getStatus());
+        assertEquals(etag, servletResponse.getHeader(HttpHeaders.ETAG));
+
+        // Pencarian dan export
+        assertNull(asUser(() -> barangController.searchBarang("nike", null, null, null,
+                new ServletWebRequest(request, new MockHttpServletResponse()))));
+        assertNull(asUser(() -> barangController.exportBarang("csv",
+                new ServletWebRequest(request, new MockHttpServletResponse()))));
+        verify(barangService, never()).getBarangPage(any(), any(), any(), anyBoolean());
+        verify(barangService, never()).searchBarang(any(), any(), any(), any(), any());
+
+        // Data sudah berubah sejak ETag milik client
+        BarangPage page = new BarangPage(List.of(), null);
+        when(barangService.getBarangPage(user.getId(), null, null, false)).thenReturn(page);
+        MockHttpServletRequest stale = new MockHttpServletRequest("GET", "/api/barang");
+        stale.addHeader(HttpHeaders.IF_NONE_MATCH, "\"2-0\"");
+        MockHttpServletResponse freshResponse = new MockHttpServletResponse();
+        var response = asUser(() -> barangController.getAllBarang(null, null, false, new ServletWebRequest(stale, freshResponse)));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(page, response.getBody().getData());
+        assertEquals("no-cache, private", response.getHeaders().getCacheControl());
+        assertEquals(etag, freshResponse.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    @DisplayName("Get All: cursor tidak valid")
+    void testGetAll_InvalidCursor() {
+        var response = asUser(() -> barangController.getAllBarang("bukan-cursor", null, false, webRequest()));
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Cursor tidak valid", response.getBody().getMessage());
+    }
+
+    // ========================================================================
+    // 1c. EXPORT BARANG (CSV / NDJSON)
+    // ========================================================================
+
+    private static String write(ResponseEntity<StreamingResponseBody> response) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        response.getBody().writeTo(output);
+        return output.toString();
+    }
+
+    @Test
+    @DisplayName("Export: Unauthorized dan format tidak dikenal (body JSON)")
+    void testExport_Invalid() throws Exception {
+        var response = barangController.exportBarang("csv", webRequest());
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        assertEquals("{\"status\":\"fail\",\"message\":\"Unauthorized\"}", write(response));
 
-        ResponseEntity<ApiResponse<List<Barang>>> response = barangController.getAllBarang();
+        response = asUser(() -> barangController.exportBarang("xlsx", webRequest()));
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("{\"status\":\"fail\",\"message\":\"Format export harus csv atau ndjson\"}", write(response));
+    }
+
+    @Test
+    @DisplayName("Export: CSV dan NDJSON ditulis oleh export service ke response")
+    void testExport_Success() throws Exception {
+        var response = asUser(() -> barangController.exportBarang("csv", webRequest()));
         assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("text/csv;charset=UTF-8", response.getHeaders().getContentType().toString());
+        assertEquals("attachment; filename=\"barang.csv\"", response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION));
+        write(response);
+        verify(barangExportService).exportCsv(eq(user.getId()), any());
+
+        response = asUser(() -> barangController.exportBarang("NDJSON", webRequest()));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("application/x-ndjson", response.getHeaders().getContentType().toString());
+        write(response);
+        verify(barangExportService).exportNdjson(eq(user.getId()), any());
     }
 
     // ========================================================================
@@ -80,7 +307,6 @@ public class BarangControllerTests {
     @Test
     @DisplayName("Create: Unauthorized (Cover Baris 63)")
     void testCreate_Unauthorized() {
-        when(authContext.isAuthenticated()).thenReturn(false);
         var response = barangController.createBarang("N", "K", "D", "2024-01-01T10:00:00", file);
         assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
     }
@@ -88,14 +314,12 @@ public class BarangControllerTests {
     @Test
     @DisplayName("Create: IOException / Gagal Upload (Cover Baris 76-77)")
     void testCreate_IOException() throws IOException {
-        when(authContext.isAuthenticated()).thenReturn(true);
-        when(authContext.getAuthUser()).thenReturn(user);
         
         // Simulasi Service melempar error IO
         when(barangService.createBarang(any(Barang.class), any()))
             .thenThrow(new IOException("Disk Full"));
 
-        var response = barangController.createBarang("N", "K", "D", "2024-01-01T10:00:00", file);
+        var response = asUser(() -> barangController.createBarang("N", "K", "D", "2024-01-01T10:00:00", file));
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
         assertEquals("error", response.getBody().getStatus());
     }
@@ -103,11 +327,9 @@ public class BarangControllerTests {
     @Test
     @DisplayName("Create: Format Tanggal Salah (Cover Baris 78-79)")
     void testCreate_DateError() {
-        when(authContext.isAuthenticated()).thenReturn(true);
-        when(authContext.getAuthUser()).thenReturn(user);
 
         // Kirim tanggal ngawur
-        var response = barangController.createBarang("N", "K", "D", "BUKAN-TANGGAL", file);
+        var response = asUser(() -> barangController.createBarang("N", "K", "D", "BUKAN-TANGGAL", file));
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertEquals("fail", response.getBody().getStatus());
     }
@@ -115,28 +337,87 @@ public class BarangControllerTests {
     @Test
     @DisplayName("Create: Exception Umum (Cover Baris 80-81)")
     void testCreate_GeneralException() throws IOException {
-        when(authContext.isAuthenticated()).thenReturn(true);
-        when(authContext.getAuthUser()).thenReturn(user);
 
         // Simulasi error tak terduga (bukan IO, bukan Date)
         when(barangService.createBarang(any(Barang.class), any()))
             .thenThrow(new RuntimeException("Database Down"));
 
-        var response = barangController.createBarang("N", "K", "D", "2024-01-01T10:00:00", file);
+        var response = asUser(() -> barangController.createBarang("N", "K", "D", "2024-01-01T10:00:00", file));
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
     }
 
+    @Test
+    @DisplayName("Create: Kategori kosong -> 400")
+    void testCreate_BlankKategori() throws IOException {
+        when(barangService.createBarang(any(Barang.class), any()))
+            .thenThrow(new IllegalArgumentException("Kategori tidak boleh kosong"));
+
+        var response = asUser(() -> barangController.createBarang("N", " ", "D", "2024-01-01T10:00:00", file));
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Kategori tidak boleh kosong", response.getBody().getMessage());
+    }
+
     @Test
     @DisplayName("Create: Success")
     void testCreate_Success() throws IOException {
-        when(authContext.isAuthenticated()).thenReturn(true);
-        when(authContext.getAuthUser()).thenReturn(user);
         when(barangService.createBarang(any(Barang.class), any())).thenReturn(new Barang());
 
-        var response = barangController.createBarang("N", "K", "D", "2024-01-01T10:00:00", file);
+        var response = asUser(() -> barangController.createBarang("N", "K", "D", "2024-01-01T10:00:00", file));
         assertEquals(HttpStatus.OK, response.getStatusCode());
     }
 
+    // ========================================================================
+    // 2b. IMPORT BARANG (CSV / NDJSON)
+    // ========================================================================
+
+    private MockHttpServletRequest importRequest(String contentType) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/barang/import");
+        request.setContentType(contentType);
+        request.setContent("isi".getBytes());
+        return request;
+    }
+
+    @Test
+    @DisplayName("Import: Unauthorized")
+    void testImport_Unauthorized() {
+        var response = barangController.importBarang(importRequest("text/csv"));
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Import: CSV dan NDJSON diteruskan ke service sesuai Content-Type")
+    void testImport_Success() throws Exception {
+        BarangImportResult csvResult = new BarangImportResult(2, 1,
+                List.of(new BarangImportResult.RowError(3, "Kategori harus diisi")), false);
+        BarangImportResult ndjsonResult = new BarangImportResult(5, 0, List.of(), false);
+        when(barangImportService.importCsv(any(UUID.class), any())).thenReturn(csvResult);
+        when(barangImportService.importNdjson(any(UUID.class), any())).thenReturn(ndjsonResult);
+
+        var response = asUser(() -> barangController.importBarang(importRequest("text/csv; charset=UTF-8")));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(csvResult, response.getBody().getData());
+        assertEquals("Import selesai: 2 barang berhasil, 1 gagal", response.getBody().getMessage());
+
+        response = asUser(() -> barangController.importBarang(importRequest("application/x-ndjson")));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(ndjsonResult, response.getBody().getData());
+    }
+
+    @Test
+    @DisplayName("Import: header CSV tidak valid (400) dan gagal membaca body (500)")
+    void testImport_Errors() throws Exception {
+        when(barangImportService.importCsv(any(UUID.class), any()))
+                .thenThrow(new IllegalArgumentException("Header CSV wajib berisi kolom namaBarang"));
+        when(barangImportService.importNdjson(any(UUID.class), any())).thenThrow(new IOException("putus"));
+
+        var response = asUser(() -> barangController.importBarang(importRequest("text/csv")));
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Header CSV wajib berisi kolom namaBarang", response.getBody().getMessage());
+
+        response = asUser(() -> barangController.importBarang(importRequest("application/x-ndjson")));
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+    }
+
     // ========================================================================
     // 3. UPDATE BARANG (PUT)
     // ========================================================================
@@ -144,7 +425,6 @@ public class BarangControllerTests {
     @Test
     @DisplayName("Update: Unauthorized (Cover Baris 95)")
     void testUpdate_Unauthorized() {
-        when(authContext.isAuthenticated()).thenReturn(false);
         var response = barangController.updateBarang(uuid, "N", "K", "D", "2024-01-01", file);
         assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
     }
@@ -152,57 +432,63 @@ public class BarangControllerTests {
     @Test
     @DisplayName("Update: Barang Tidak Ditemukan / Null (Cover Baris 111-112)")
     void testUpdate_NotFound_NullReturn() throws IOException {
-        when(authContext.isAuthenticated()).thenReturn(true);
 
         // Service return null
-        when(barangService.updateBarang(any(UUID.class), any(Barang.class), any()))
+        when(barangService.updateBarang(eq(user.getId()), eq(uuid), any(Barang.class), any()))
             .thenReturn(null);
 
-        var response = barangController.updateBarang(uuid, "N", "K", "D", "2024-01-01T10:00:00", file);
+        var response = asUser(() -> barangController.updateBarang(uuid, "N", "K", "D", "2024-01-01T10:00:00", file));
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
 
     @Test
     @DisplayName("Update: IOException (Cover Baris 117-118)")
     void testUpdate_IOException() throws IOException {
-        when(authContext.isAuthenticated()).thenReturn(true);
         
-        when(barangService.updateBarang(any(UUID.class), any(Barang.class), any()))
+        when(barangService.updateBarang(eq(user.getId()), eq(uuid), any(Barang.class), any()))
             .thenThrow(new IOException("IO Error"));
 
-        var response = barangController.updateBarang(uuid, "N", "K", "D", "2024-01-01T10:00:00", file);
+        var response = asUser(() -> barangController.updateBarang(uuid, "N", "K", "D", "2024-01-01T10:00:00", file));
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
     }
 
     @Test
     @DisplayName("Update: Date Error (Cover Baris 119-120)")
     void testUpdate_DateError() {
-        when(authContext.isAuthenticated()).thenReturn(true);
-        var response = barangController.updateBarang(uuid, "N", "K", "D", "SALAH", file);
+        var response = asUser(() -> barangController.updateBarang(uuid, "N", "K", "D", "SALAH", file));
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
     }
 
     @Test
     @DisplayName("Update: Runtime Exception (Cover Baris 121-122)")
     void testUpdate_RuntimeException() throws IOException {
-        when(authContext.isAuthenticated()).thenReturn(true);
         
         // Simulasi error "Barang tidak ditemukan" via Exception
-        when(barangService.updateBarang(any(UUID.class), any(Barang.class), any()))
+        when(barangService.updateBarang(eq(user.getId()), eq(uuid), any(Barang.class), any()))
             .thenThrow(new RuntimeException("Not Found"));
 
-        var response = barangController.updateBarang(uuid, "N", "K", "D", "2024-01-01T10:00:00", file);
+        var response = asUser(() -> barangController.updateBarang(uuid, "N", "K", "D", "2024-01-01T10:00:00", file));
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
 
+    @Test
+    @DisplayName("Update: Kategori kosong -> 400, bukan 404")
+    void testUpdate_BlankKategori() throws IOException {
+        when(barangService.updateBarang(eq(user.getId()), eq(uuid), any(Barang.class), any()))
+            .thenThrow(new IllegalArgumentException("Kategori tidak boleh kosong"));
+
+        var response = asUser(() -> barangController.updateBarang(uuid, "N", "", "D", "2024-01-01T10:00:00", file));
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Kategori tidak boleh kosong", response.getBody().getMessage());
+    }
+
     @Test
     @DisplayName("Update: Success")
     void testUpdate_Success() throws IOException {
-        when(authContext.isAuthenticated()).thenReturn(true);
-        when(barangService.updateBarang(any(UUID.class), any(Barang.class), any()))
+        when(barangService.updateBarang(eq(user.getId()), eq(uuid), any(Barang.class), any()))
             .thenReturn(new Barang());
 
-        var response = barangController.updateBarang(uuid, "N", "K", "D", "2024-01-01T10:00:00", file);
+        var response = asUser(() -> barangController.updateBarang(uuid, "N", "K", "D", "2024-01-01T10:00:00", file));
         assertEquals(HttpStatus.OK, response.getStatusCode());
     }
 
@@ -213,7 +499,6 @@ public class BarangControllerTests {
     @Test
     @DisplayName("Status: Unauthorized (Cover Baris 132)")
     void testStatus_Unauthorized() {
-        when(authContext.isAuthenticated()).thenReturn(false);
         var response = barangController.updateStatus(uuid, "SOLD");
         assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
     }
@@ -221,32 +506,67 @@ public class BarangControllerTests {
     @Test
     @DisplayName("Status: Input Null (Cover Baris 137-138)")
     void testStatus_NullInput() {
-        when(authContext.isAuthenticated()).thenReturn(true);
-        var response = barangController.updateStatus(uuid, null);
+        var response = asUser(() -> barangController.updateStatus(uuid, null));
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertEquals("fail", response.getBody().getStatus());
     }
 
     @Test
-    @DisplayName("Status: Runtime Exception / Not Found (Cover Baris 146-147)")
+    @DisplayName("Status: barang tidak ada / milik user lain -> 404, status tidak dikenal -> 400")
     void testStatus_NotFound() {
-        when(authContext.isAuthenticated()).thenReturn(true);
-        
-        when(barangService.updateStatus(any(UUID.class), anyString()))
-            .thenThrow(new RuntimeException("Not Found"));
+        when(barangService.updateStatus(user.getId(), uuid, BarangStatus.SOLD)).thenReturn(null);
 
-        var response = barangController.updateStatus(uuid, "SOLD");
+        var response = asUser(() -> barangController.updateStatus(uuid, "SOLD"));
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+
+        response = asUser(() -> barangController.updateStatus(uuid, "x".repeat(256)));
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Status harus READY atau SOLD", response.getBody().getMessage());
     }
 
     @Test
     @DisplayName("Status: Success")
     void testStatus_Success() {
-        when(authContext.isAuthenticated()).thenReturn(true);
-        when(barangService.updateStatus(any(UUID.class), anyString())).thenReturn(new Barang());
+        when(barangService.updateStatus(user.getId(), uuid, BarangStatus.SOLD)).thenReturn(new Barang());
         
-        var response = barangController.updateStatus(uuid, "\"SOLD\"");
+        var response = asUser(() -> barangController.updateStatus(uuid, "\"SOLD\""));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Status Massal: Unauthorized dan body tidak valid")
+    void testStatusBulk_Invalid() {
+        List<UUID> ids = List.of(uuid);
+        assertEquals(HttpStatus.UNAUTHORIZED,
+                barangController.updateStatusBulk(new BarangStatusBulkRequest(ids, "SOLD")).getStatusCode());
+
+        List<UUID> withNull = new ArrayList<>();
+        withNull.add(null);
+        for (BarangStatusBulkRequest request : List.of(
+                new BarangStatusBulkRequest(null, "SOLD"),
+                new BarangStatusBulkRequest(List.of(), "SOLD"),
+                new BarangStatusBulkRequest(withNull, "SOLD"),
+                new BarangStatusBulkRequest(ids, null),
+                new BarangStatusBulkRequest(ids, "  "))) {
+            assertEquals(HttpStatus.BAD_REQUEST, asUser(() -> barangController.updateStatusBulk(request)).getStatusCode());
+        }
+    }
+
+    @Test
+    @DisplayName("Status Massal: Success mengembalikan id yang berubah, batas service -> 400")
+    void testStatusBulk_Success() {
+        when(barangService.updateStatusBulk(user.getId(), List.of(uuid), BarangStatus.SOLD)).thenReturn(List.of(uuid));
+        when(barangService.updateStatusBulk(user.getId(), List.of(uuid), BarangStatus.READY))
+                .thenThrow(new IllegalArgumentException("Maksimal 1000 barang sekali ubah"));
+
+        var response = asUser(() -> barangController.updateStatusBulk(new BarangStatusBulkRequest(List.of(uuid), " SOLD ")));
         assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(uuid), response.getBody().getData());
+        assertEquals("1 barang berhasil diubah statusnya", response.getBody().getMessage());
+
+        response = asUser(() -> barangController.updateStatusBulk(new BarangStatusBulkRequest(List.of(uuid), "READY")));
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Maksimal 1000 barang sekali ubah", response.getBody().getMessage());
     }
 
     // ========================================================================
@@ -256,7 +576,6 @@ public class BarangControllerTests {
     @Test
     @DisplayName("Delete: Unauthorized (Cover Baris 154)")
     void testDelete_Unauthorized() {
-        when(authContext.isAuthenticated()).thenReturn(false);
         var response = barangController.deleteBarang(uuid);
         assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
     }
@@ -264,20 +583,29 @@ public class BarangControllerTests {
     @Test
     @DisplayName("Delete: Exception (Cover Baris 161-163)")
     void testDelete_Exception() {
-        when(authContext.isAuthenticated()).thenReturn(true);
         
         // Paksa delete throw error (misal foreign key constraint)
-        doThrow(new RuntimeException("DB Error")).when(barangService).deleteBarang(uuid);
+        doThrow(new RuntimeException("DB Error")).when(barangService).deleteBarang(user.getId(), uuid);
 
-        var response = barangController.deleteBarang(uuid);
+        var response = asUser(() -> barangController.deleteBarang(uuid));
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
     }
 
+    @Test
+    @DisplayName("Delete: Barang tidak ada atau milik user lain -> 404")
+    void testDelete_NotFound() {
+        when(barangService.deleteBarang(user.getId(), uuid)).thenReturn(false);
+
+        var response = asUser(() -> barangController.deleteBarang(uuid));
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
     @Test
     @DisplayName("Delete: Success")
     void testDelete_Success() {
-        when(authContext.isAuthenticated()).thenReturn(true);
-        var response = barangController.deleteBarang(uuid);
+        when(barangService.deleteBarang(user.getId(), uuid)).thenReturn(true);
+
+        var response = asUser(() -> barangController.deleteBarang(uuid));
         assertEquals(HttpStatus.OK, response.getStatusCode());
     }
 }
\ No newline at end of file
@@ -1,22 +1,29 @@
 package org.delcom.app.controllers;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 import org.delcom.app.configs.ApiResponse;
 import org.delcom.app.configs.AuthContext;
-import org.delcom.app.entities.AuthToken;
+import org.delcom.app.configs.AuthPrincipal;
 import org.delcom.app.entities.User;
+import org.delcom.app.services.AccessTokenService;
+import org.delcom.app.services.AuthService;
+import org.delcom.app.services.AuthService.LoginResult;
+import org.delcom.app.services.AuthService.LoginStatus;
 import org.delcom.app.services.AuthTokenService;
+import org.delcom.app.services.LoginThrottle;
+import org.delcom.app.services.PasswordService;
 import org.delcom.app.services.UserService;
 import org.delcom.app.utils.JwtUtil;
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 public class UserControllerTests {
@@ -30,8 +37,21 @@ public class UserControllerTests {
         // Mock UserService
         UserService userService = Mockito.mock(UserService.class);
 
-        UserController userController = new UserController(userService, authTokenService);
-        userController.authContext = new AuthContext();
+        // Mock AuthService
+        AuthService authService = Mockito.mock(AuthService.class);
+
+        PasswordService passwordService = new PasswordService(new BCryptPasswordEncoder(), 1, 8,
+                Duration.ofSeconds(1));
+
+        // Mock LoginThrottle
+        LoginThrottle loginThrottle = Mockito.mock(LoginThrottle.class);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+
+        // Mode lama (bukan stateless)
+        AccessTokenService accessTokenService = new AccessTokenService(false, Duration.ofMinutes(15));
+
+        UserController userController = new UserController(userService, authTokenService, authService,
+                passwordService, loginThrottle, accessTokenService);
 
         // Menguji method registerUser
         {
@@ -104,195 +124,140 @@ public class UserControllerTests {
 
                 ResponseEntity<ApiResponse<Map<String, String>>> result;
                 for (User user : invalidUsers) {
-                    result = userController.loginUser(user);
+                    result = userController.loginUser(user, request);
                     assert (result != null);
                     assert (result.getStatusCode().is4xxClientError());
                     assert (result.getBody().getStatus().equals("fail"));
                 }
             }
 
-            // Email atau password salah
+            // Terlalu banyak percobaan login
             {
-                String password = "password123";
-                String hashedPassword = new BCryptPasswordEncoder()
-                        .encode(password);
-                UUID userId = UUID.randomUUID();
+                Mockito.when(loginThrottle.tryAcquire("user@example.com", request.getRemoteAddr())).thenReturn(12L);
 
-                User fakeUser = new User("Fake User", "user@example.com", hashedPassword);
-                fakeUser.setId(userId);
+                ResponseEntity<ApiResponse<Map<String, String>>> result = userController
+                        .loginUser(new User("user@example.com", "password123"), request);
+                assertEquals(429, result.getStatusCode().value());
+                assertEquals("12", result.getHeaders().getFirst("Retry-After"));
+                assertEquals("fail", result.getBody().getStatus());
+                Mockito.verifyNoInteractions(authService);
 
-                // User tidak ditemuka  n
-                Mockito.when(userService.getUserByEmail("user@example.com")).thenReturn(null);
+                Mockito.when(loginThrottle.tryAcquire("user@example.com", request.getRemoteAddr())).thenReturn(0L);
+            }
+
+            // Email atau password salah
+            {
+                Mockito.when(authService.login("user@example.com", "wrongpassword"))
+                        .thenReturn(new LoginResult(LoginStatus.BAD_CREDENTIALS, null, null));
 
                 ResponseEntity<ApiResponse<Map<String, String>>> result = userController
-                        .loginUser(fakeUser);
+                        .loginUser(new User("user@example.com", "wrongpassword"), request);
                 assert (result != null);
                 assert (result.getStatusCode().is4xxClientError());
                 assert (result.getBody().getStatus().equals("fail"));
-
-                // Password salah
-                Mockito.when(userService.getUserByEmail("user@example.com")).thenReturn(fakeUser);
-                ResponseEntity<ApiResponse<Map<String, String>>> result2 = userController
-                        .loginUser(new User("user@example.com", "wrongpassword"));
-                assert (result2 != null);
-                assert (result2.getStatusCode().is4xxClientError());
-                assert (result2.getBody().getStatus().equals("fail"));
             }
 
-            // Gagagal membuat auth token
+            // Berhasil login
             {
-                String password = "password123";
-                String hashedPassword = new BCryptPasswordEncoder()
-                        .encode(password);
-                UUID userId = UUID.randomUUID();
-
-                String bearerToken = JwtUtil.generateToken(userId);
-                AuthToken fakeAuthToken = new AuthToken(userId, bearerToken);
-
-                User fakeReqUser = new User("Fake User", "user@example.com", password);
-                fakeReqUser.setId(userId);
-
-                User fakeUser = new User("Fake User", "user@example.com", hashedPassword);
-                fakeUser.setId(userId);
-
-                Mockito.when(userService.getUserByEmail("user@example.com")).thenReturn(fakeUser);
-
-                // Auth token gagal disimpan dengan terdapat token lama
-                {
-                    // Hapus token lama jika ada
-                    Mockito.when(authTokenService.findUserToken(Mockito.any(UUID.class), Mockito.anyString()))
-                            .thenReturn(fakeAuthToken);
-                    Mockito.doNothing().when(authTokenService).deleteAuthToken(Mockito.any(UUID.class));
-
-                    Mockito.when(authTokenService.createAuthToken(Mockito.any(AuthToken.class))).thenReturn(null);
-
-                    ResponseEntity<ApiResponse<Map<String, String>>> result = userController
-                            .loginUser(fakeReqUser);
-                    assertTrue(result != null);
-                    assertTrue(result.getStatusCode().is5xxServerError());
-                    assertEquals(result.getBody().getStatus(), "error");
-                }
-
-                // Auth token gagal disimpan dengan tidak terdapat token lama
-                {
-                    Mockito.when(authTokenService.findUserToken(Mockito.any(UUID.class), Mockito.anyString()))
-                            .thenReturn(null);
-
-                    Mockito.when(authTokenService.createAuthToken(Mockito.any(AuthToken.class))).thenReturn(null);
-
-                    ResponseEntity<ApiResponse<Map<String, String>>> result = userController
-                            .loginUser(fakeReqUser);
-                    assert (result != null);
-                    assert (result.getStatusCode().is5xxServerError());
-                    assert (result.getBody().getStatus().equals("error"));
-                }
-
-                // Berhasil login
-                {
-                    Mockito.when(authTokenService.findUserToken(Mockito.any(UUID.class),
-                            Mockito.anyString()))
-                            .thenReturn(null);
-
-                    Mockito.when(authTokenService.createAuthToken(Mockito.any(AuthToken.class)))
-                            .thenReturn(fakeAuthToken);
-
-                    ResponseEntity<ApiResponse<Map<String, String>>> result = userController
-                            .loginUser(fakeReqUser);
-                    assert (result != null);
-                    assert (result.getStatusCode().is2xxSuccessful());
-                    assert (result.getBody().getStatus().equals("success"));
-                }
+                User fakeUser = new User("Fake User", "user@example.com", "hashed");
+                fakeUser.setId(UUID.randomUUID());
+                Mockito.when(authService.login("user@example.com", "password123"))
+                        .thenReturn(new LoginResult(LoginStatus.SUCCESS, fakeUser, "jwt-token"));
 
+                ResponseEntity<ApiResponse<Map<String, String>>> result = userController
+                        .loginUser(new User("user@example.com", "password123"), request);
+                assert (result != null);
+                assert (result.getStatusCode().is2xxSuccessful());
+                assert (result.getBody().getStatus().equals("success"));
+                assertEquals("jwt-token", result.getBody().getData().get("authToken"));
             }
         }
 
         User authUser = new User("Auth User", "user@example.com", "password123");
         authUser.setId(UUID.randomUUID());
+        AuthPrincipal principal = AuthPrincipal.from(authUser);
 
         // Menguji method getUserInfo
         {
             // Tidak terautentikasi
             {
-                userController.authContext.setAuthUser(null);
-
-                ResponseEntity<ApiResponse<Map<String, User>>> result = userController.getUserInfo();
+                ResponseEntity<ApiResponse<Map<String, AuthPrincipal>>> result = userController.getUserInfo();
                 assert (result != null);
                 assert (result.getStatusCode().is4xxClientError());
                 assert (result.getBody().getStatus().equals("fail"));
             }
 
             // Berhasil mendapatkan info user
-            {
-                userController.authContext.setAuthUser(authUser);
-
-                ResponseEntity<ApiResponse<Map<String, User>>> result = userController.getUserInfo();
-                assert (result != null);
-                assert (result.getStatusCode().is2xxSuccessful());
-                assert (result.getBody().getStatus().equals("success"));
-            }
+            ScopedValue.where(AuthContext.PRINCIPAL, principal).run(() -> {
+                {
+                    ResponseEntity<ApiResponse<Map<String, AuthPrincipal>>> result = userController.getUserInfo();
+                    assert (result != null);
+                    assert (result.getStatusCode().is2xxSuccessful());
+                    assert (result.getBody().getStatus().equals("success"));
+                    assertEquals(principal, result.getBody().getData().get("user"));
+                }
+            });
         }
 
         // Menguji method updateUser
         {
             // Tidak terautentikasi
             {
-                userController.authContext.setAuthUser(null);
-
                 ResponseEntity<ApiResponse<User>> result = userController.updateUser(authUser);
                 assert (result != null);
                 assert (result.getStatusCode().is4xxClientError());
                 assert (result.getBody().getStatus().equals("fail"));
             }
 
-            // Data tidal valid
-            {
-                userController.authContext.setAuthUser(authUser);
+            ScopedValue.where(AuthContext.PRINCIPAL, principal).run(() -> {
+                // Data tidal valid
+                {
+                    List<User> invalidUsers = List.of(
+                            // Nama Null
+                            new User(null, "user@example.com", ""),
+                            // Nama Kosong
+                            new User("", "user@example.com", ""),
+                            // Email Null
+                            new User("Auth User", null, ""),
+                            // Email Kosong
+                            new User("Auth User", "", ""));
+
+                    for (User reqUser : invalidUsers) {
+                        ResponseEntity<ApiResponse<User>> result = userController.updateUser(reqUser);
+                        assert (result != null);
+                        assert (result.getStatusCode().is4xxClientError());
+                        assert (result.getBody().getStatus().equals("fail"));
+                    }
+                }
 
-                List<User> invalidUsers = List.of(
-                        // Nama Null
-                        new User(null, "user@example.com", ""),
-                        // Nama Kosong
-                        new User("", "user@example.com", ""),
-                        // Email Null
-                        new User("Auth User", null, ""),
-                        // Email Kosong
-                        new User("Auth User", "", ""));
+                // Gagal update user karena user tidak ditemukan
+                {
+                    Mockito.when(userService.updateUser(
+                            Mockito.any(UUID.class),
+                            Mockito.any(String.class),
+                            Mockito.any(String.class)))
+                            .thenReturn(null);
 
-                for (User reqUser : invalidUsers) {
-                    ResponseEntity<ApiResponse<User>> result = userController.updateUser(reqUser);
+                    ResponseEntity<ApiResponse<User>> result = userController.updateUser(authUser);
                     assert (result != null);
                     assert (result.getStatusCode().is4xxClientError());
                     assert (result.getBody().getStatus().equals("fail"));
                 }
-            }
-
-            // Gagal update user karena user tidak ditemukan
-            {
-                Mockito.when(userService.updateUser(
-                        Mockito.any(UUID.class),
-                        Mockito.any(String.class),
-                        Mockito.any(String.class)))
-                        .thenReturn(null);
 
-                ResponseEntity<ApiResponse<User>> result = userController.updateUser(authUser);
-                assert (result != null);
-                assert (result.getStatusCode().is4xxClientError());
-                assert (result.getBody().getStatus().equals("fail"));
-            }
-
-            // Berhasil mengupdate user
-            {
-                Mockito.when(userService.updateUser(
-                        Mockito.any(UUID.class),
-                        Mockito.any(String.class),
-                        Mockito.any(String.class)))
-                        .thenReturn(authUser);
+                // Berhasil mengupdate user
+                {
+                    Mockito.when(userService.updateUser(
+                            Mockito.any(UUID.class),
+                            Mockito.any(String.class),
+                            Mockito.any(String.class)))
+                            .thenReturn(authUser);
 
-                ResponseEntity<ApiResponse<User>> result = userController.updateUser(authUser);
-                assert (result != null);
-                assert (result.getStatusCode().is2xxSuccessful());
-                assert (result.getBody().getStatus().equals("success"));
-            }
+                    ResponseEntity<ApiResponse<User>> result = userController.updateUser(authUser);
+                    assert (result != null);
+                    assert (result.getStatusCode().is2xxSuccessful());
+                    assert (result.getBody().getStatus().equals("success"));
+                }
+            });
         }
 
         // Menguji method updateUserPassword
@@ -303,8 +268,6 @@ public class UserControllerTests {
 
             // Tidak terautentikasi
             {
-                userController.authContext.setAuthUser(null);
-
                 ResponseEntity<ApiResponse<Void>> result = userController
                         .updateUserPassword(passwordPayload);
                 assert (result != null);
@@ -312,78 +275,139 @@ public class UserControllerTests {
                 assert (result.getBody().getStatus().equals("fail"));
             }
 
-            userController.authContext.setAuthUser(authUser);
+            ScopedValue.where(AuthContext.PRINCIPAL, principal).run(() -> {
+                Mockito.when(userService.getUserById(authUser.getId())).thenReturn(authUser);
 
-            // Data tidal valid
-            {
-                List<Map<String, String>> invalidPayloads = List.of(
-                        // Old password Null
-                        Map.of(
-                                "no-password", "",
-                                "newPassword", "newpassword123"),
-                        // Old password Kosong
-                        Map.of(
-                                "password", "",
-                                "newPassword", "newpassword123"),
-                        // New password Null
-                        Map.of(
-                                "password", "oldpassword123",
-                                "no-newPassword", ""),
-                        // New password Kosong
-                        Map.of(
-                                "password", "oldpassword123",
-                                "newPassword", ""));
-
-                for (Map<String, String> payload : invalidPayloads) {
+                // Data tidal valid
+                {
+                    List<Map<String, String>> invalidPayloads = List.of(
+                            // Old password Null
+                            Map.of(
+                                    "no-password", "",
+                                    "newPassword", "newpassword123"),
+                            // Old password Kosong
+                            Map.of(
+                                    "password", "",
+                                    "newPassword", "newpassword123"),
+                            // New password Null
+                            Map.of(
+                                    "password", "oldpassword123",
+                                    "no-newPassword", ""),
+                            // New password Kosong
+                            Map.of(
+                                    "password", "oldpassword123",
+                                    "newPassword", ""));
+
+                    for (Map<String, String> payload : invalidPayloads) {
+                        ResponseEntity<ApiResponse<Void>> result = userController
+                                .updateUserPassword(payload);
+                        assert (result != null);
+                        assert (result.getStatusCode().is4xxClientError());
+                        assert (result.getBody().getStatus().equals("fail"));
+                    }
+                }
+
+                // User sudah dihapus dari database
+                {
+                    Mockito.when(userService.getUserById(authUser.getId())).thenReturn(null);
+                    ResponseEntity<ApiResponse<Void>> result = userController
+                            .updateUserPassword(passwordPayload);
+                    assertEquals(404, result.getStatusCode().value());
+                    Mockito.when(userService.getUserById(authUser.getId())).thenReturn(authUser);
+                }
+
+                // Password lama salah
+                {
+                    authUser.setPassword(new BCryptPasswordEncoder().encode("correctOldPassword"));
                     ResponseEntity<ApiResponse<Void>> result = userController
-                            .updateUserPassword(payload);
+                            .updateUserPassword(passwordPayload);
                     assert (result != null);
                     assert (result.getStatusCode().is4xxClientError());
                     assert (result.getBody().getStatus().equals("fail"));
                 }
-            }
 
-            // Password lama salah
-            {
-                authUser.setPassword(new BCryptPasswordEncoder().encode("correctOldPassword"));
-                ResponseEntity<ApiResponse<Void>> result = userController
-                        .updateUserPassword(passwordPayload);
-                assert (result != null);
-                assert (result.getStatusCode().is4xxClientError());
-                assert (result.getBody().getStatus().equals("fail"));
-            }
+                // User tidak ditemukan saat mengupdate password
+                {
+                    authUser.setPassword(new BCryptPasswordEncoder().encode("oldpassword123"));
 
-            // User tidak ditemukan saat mengupdate password
-            {
-                authUser.setPassword(new BCryptPasswordEncoder().encode("oldpassword123"));
+                    Mockito.when(userService.updatePassword(
+                            Mockito.any(UUID.class),
+                            Mockito.any(String.class)))
+                            .thenReturn(null);
 
-                Mockito.when(userService.updatePassword(
-                        Mockito.any(UUID.class),
-                        Mockito.any(String.class)))
-                        .thenReturn(null);
+                    ResponseEntity<ApiResponse<Void>> result = userController
+                            .updateUserPassword(passwordPayload);
+                    assert (result != null);
+                    assert (result.getStatusCode().is4xxClientError());
+                    assert (result.getBody().getStatus().equals("fail"));
+                }
 
-                ResponseEntity<ApiResponse<Void>> result = userController
-                        .updateUserPassword(passwordPayload);
-                assert (result != null);
-                assert (result.getStatusCode().is4xxClientError());
-                assert (result.getBody().getStatus().equals("fail"));
-            }
+                // Berhasil mengupdate password
+                {
+                    authUser.setPassword(new BCryptPasswordEncoder().encode("oldpassword123"));
 
-            // Berhasil mengupdate password
-            {
-                authUser.setPassword(new BCryptPasswordEncoder().encode("oldpassword123"));
+                    Mockito.when(userService.updatePassword(
+                            Mockito.any(UUID.class),
+                            Mockito.any(String.class)))
+                            .thenReturn(authUser);
 
-                Mockito.when(userService.updatePassword(
-                        Mockito.any(UUID.class),
-                        Mockito.any(String.class)))
-                        .thenReturn(authUser);
+                    ResponseEntity<ApiResponse<Void>> result = userController
+                            .updateUserPassword(passwordPayload);
+                    assert (result != null);
+                    assert (result.getStatusCode().is2xxSuccessful());
+                    assert (result.getBody().getStatus().equals("success"));
+                }
+            });
+        }
+    }
 
-                ResponseEntity<ApiResponse<Void>> result = userController
-                        .updateUserPassword(passwordPayload);
-                assert (result != null);
-                assert (result.getStatusCode().is2xxSuccessful());
-                assert (result.getBody().getStatus().equals("success"));
-            }
+    @Test
+    @DisplayName("Login mode stateless dan refresh token")
+    public void testStatelessLoginAndRefresh() {
+        AuthService authService = Mockito.mock(AuthService.class);
+        LoginThrottle loginThrottle = Mockito.mock(LoginThrottle.class);
+        AccessTokenService accessTokenService = new AccessTokenService(true, Duration.ofMinutes(15));
+        UserController userController = new UserController(Mockito.mock(UserService.class),
+                Mockito.mock(AuthTokenService.class), authService, null, loginThrottle, accessTokenService);
+
+        // Login mengembalikan access token dan refresh token
+        {
+            User fakeUser = new User("Fake User", "user@example.com", "hashed");
+            fakeUser.setId(UUID.randomUUID());
+            Mockito.when(authService.login("user@example.com", "password123"))
+                    .thenReturn(new LoginResult(LoginStatus.SUCCESS, fakeUser, "refresh-token"));
+
+            ResponseEntity<ApiResponse<Map<String, String>>> result = userController
+                    .loginUser(new User("user@example.com", "password123"), new MockHttpServletRequest());
+            assertEquals("refresh-token", result.getBody().getData().get("refreshToken"));
+            assertEquals(fakeUser.getId(), JwtUtil.verify(result.getBody().getData().get("authToken")).userId());
+        }
+
+        // Refresh token kosong
+        {
+            ResponseEntity<ApiResponse<Map<String, String>>> result = userController.refreshToken(Map.of());
+            assertEquals(400, result.getStatusCode().value());
+
+            result = userController.refreshToken(Map.of("refreshToken", ""));
+            assertEquals(400, result.getStatusCode().value());
+        }
+
+        // Refresh token tidak valid
+        {
+            Mockito.when(authService.refresh("invalid")).thenReturn(null);
+            ResponseEntity<ApiResponse<Map<String, String>>> result = userController
+                    .refreshToken(Map.of("refreshToken", "invalid"));
+            assertEquals(401, result.getStatusCode().value());
+            assertEquals("fail", result.getBody().getStatus());
+        }
+
+        // Refresh berhasil
+        {
+            Mockito.when(authService.refresh("refresh-token")).thenReturn("access-token");
+            ResponseEntity<ApiResponse<Map<String, String>>> result = userController
+                    .refreshToken(Map.of("refreshToken", "refresh-token"));
+            assertEquals(200, result.getStatusCode().value());
+            assertEquals("access-token", result.getBody().getData().get("authToken"));
         }
     }
 }
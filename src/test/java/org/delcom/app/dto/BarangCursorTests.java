@@ -0,0 +1,61 @@
+package org.delcom.app.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import org.delcom.app.entities.BarangStatus;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class BarangCursorTests {
+
+    private static String base64(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Encode lalu decode menghasilkan cursor yang sama")
+    void testRoundTrip() {
+        UUID id = UUID.randomUUID();
+
+        // Dengan tanggal masuk (presisi mikrodetik seperti di database)
+        {
+            BarangCursor cursor = new BarangCursor(LocalDateTime.of(2024, 1, 1, 10, 0, 0, 123_456_000), id);
+            String encoded = cursor.encode();
+
+            assertFalse(encoded.contains(id.toString()));
+            assertEquals(cursor, BarangCursor.decode(encoded));
+        }
+
+        // Tanpa tanggal masuk
+        {
+            BarangCursor cursor = new BarangCursor(null, id);
+            assertEquals(cursor, BarangCursor.decode(cursor.encode()));
+        }
+    }
+
+    @Test
+    @DisplayName("Cursor dari barang terakhir di halaman")
+    void testOf() {
+        BarangSummary barang = new BarangSummary(UUID.randomUUID(), "Jaket", "Jaket", null,
+                LocalDateTime.of(2024, 5, 1, 8, 30), null, BarangStatus.READY);
+
+        assertEquals(new BarangCursor(barang.tanggalMasuk(), barang.id()), BarangCursor.of(barang));
+    }
+
+    @Test
+    @DisplayName("Cursor tidak valid menghasilkan null")
+    void testInvalid() {
+        assertNull(BarangCursor.decode("bukan base64!"));
+        assertNull(BarangCursor.decode(base64("tanpa-separator")));
+        assertNull(BarangCursor.decode(base64("2024-01-01T10:00|bukan-uuid")));
+        assertNull(BarangCursor.decode(base64("bukan-tanggal|" + UUID.randomUUID())));
+    }
+}
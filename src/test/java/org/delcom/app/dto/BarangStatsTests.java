@@ -0,0 +1,51 @@
+package org.delcom.app.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import org.delcom.app.entities.BarangStatus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BarangStatsTests {
+
+    @Test
+    @DisplayName("Counter per (kategori, status) dijumlahkan ke total, READY, terjual, dan per kategori")
+    void testOf() {
+        short ready = BarangStatus.READY.code();
+        short sold = BarangStatus.SOLD.code();
+        BarangStats stats = BarangStats.of(List.of(
+                new BarangStats.Counter("Sepatu", ready, 4),
+                new BarangStats.Counter("Jaket", ready, 2),
+                new BarangStats.Counter("Jaket", sold, 3),
+                new BarangStats.Counter("Tas", sold, 5)));
+
+        assertEquals(14, stats.total());
+        assertEquals(6, stats.ready());
+        assertEquals(8, stats.sold());
+        assertEquals(Map.of("Jaket", 5L, "Sepatu", 4L, "Tas", 5L), stats.kategori());
+        assertEquals(List.of("Jaket", "Sepatu", "Tas"), List.copyOf(stats.kategori().keySet()));
+
+        assertEquals(new BarangStats(0, 0, 0, Map.of()), BarangStats.of(List.of()));
+    }
+
+    @Test
+    @DisplayName("ETag berubah jika isi statistik berubah")
+    void testEtag() {
+        BarangStats stats = new BarangStats(5, 3, 2, Map.of("Jaket", 5L));
+
+        assertEquals(stats.etag(), new BarangStats(5, 3, 2, Map.of("Jaket", 5L)).etag());
+        assertNotEquals(stats.etag(), new BarangStats(5, 4, 1, Map.of("Jaket", 5L)).etag());
+        assertNotEquals(stats.etag(), new BarangStats(5, 3, 2, Map.of("Jaket", 4L, "Tas", 1L)).etag());
+
+        // Jumlah ditukar antar kategori: total sama, hashCode map juga sama
+        BarangStats sepatuTiga = new BarangStats(5, 5, 0, Map.of("Sepatu", 3L, "Topi", 2L));
+        BarangStats sepatuDua = new BarangStats(5, 5, 0, Map.of("Sepatu", 2L, "Topi", 3L));
+        assertEquals(sepatuTiga.kategori().hashCode(), sepatuDua.kategori().hashCode());
+        assertNotEquals(sepatuTiga.etag(), sepatuDua.etag());
+        assertEquals(64, sepatuTiga.etag().length());
+    }
+}
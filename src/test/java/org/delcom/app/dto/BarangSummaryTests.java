@@ -0,0 +1,40 @@
+package org.delcom.app.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.UUID;
+
+import org.delcom.app.entities.BarangStatus;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class BarangSummaryTests {
+
+    private static BarangSummary withDeskripsi(String deskripsi) {
+        return new BarangSummary(UUID.randomUUID(), "Jaket", "Jaket", deskripsi, null, null, BarangStatus.READY);
+    }
+
+    @Test
+    @DisplayName("Deskripsi panjang dipotong, deskripsi pendek dan null tetap")
+    void testDeskripsiTruncated() {
+        // Deskripsi null
+        {
+            assertNull(withDeskripsi(null).deskripsi());
+        }
+
+        // Tepat di batas, tidak dipotong
+        {
+            String deskripsi = "a".repeat(BarangSummary.DESKRIPSI_MAX_LENGTH);
+            assertEquals(deskripsi, withDeskripsi(deskripsi).deskripsi());
+        }
+
+        // Melebihi batas (query mengambil satu karakter lebih)
+        {
+            String deskripsi = "a".repeat(BarangSummary.DESKRIPSI_MAX_LENGTH + 1);
+            assertEquals("a".repeat(BarangSummary.DESKRIPSI_MAX_LENGTH) + "…",
+                    withDeskripsi(deskripsi).deskripsi());
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package org.delcom.app.dto;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BarangVersionTests {
+
+    @Test
+    @DisplayName("ETag berubah jika jumlah atau updated_at terbaru berubah")
+    void testEtag() {
+        LocalDateTime updated = LocalDateTime.of(2024, 1, 1, 10, 0, 0, 123_456_000);
+        BarangVersion version = new BarangVersion(3, updated);
+
+        assertEquals("3-" + Long.toHexString(1_704_103_200_123_456L), version.etag());
+        assertEquals(version.etag(), new BarangVersion(3, updated).etag());
+        assertNotEquals(version.etag(), new BarangVersion(2, updated).etag());
+        assertNotEquals(version.etag(), new BarangVersion(3, updated.plusNanos(1_000)).etag());
+
+        // User tanpa barang
+        assertEquals("0-0", new BarangVersion(0, null).etag());
+    }
+}
@@ -1,10 +1,13 @@
 package org.delcom.app.entities;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.UUID;
 
+import org.delcom.app.utils.JwtUtil;
+
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
@@ -18,6 +21,8 @@ public class AuthTokenTests {
 
             assertEquals("token123", authToken.getToken());
             assertTrue(authToken.getUserId() != null);
+            assertArrayEquals(JwtUtil.digest("token123"), authToken.getTokenDigest());
+            assertEquals(32, authToken.getTokenDigest().length);
         }
 
         // AuthToken dengan nilai default
@@ -27,6 +32,7 @@ public class AuthTokenTests {
             assertEquals(null, authToken.getId());
             assertEquals(null, authToken.getToken());
             assertEquals(null, authToken.getUserId());
+            assertEquals(null, authToken.getTokenDigest());
         }
 
         // AuthToken dengan setNilai
@@ -42,6 +48,10 @@ public class AuthTokenTests {
             assertEquals(authToken.getId(), generatedId);
             assertEquals(authToken.getUserId(), generatedUserId);
             assertEquals(authToken.getToken(), "Set Token");
+            assertArrayEquals(JwtUtil.digest("Set Token"), authToken.getTokenDigest());
+
+            authToken.setToken(null);
+            assertEquals(null, authToken.getTokenDigest());
             assertTrue(authToken.getCreatedAt() != null);
         }
     }
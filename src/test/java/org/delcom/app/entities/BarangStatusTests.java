@@ -0,0 +1,37 @@
+package org.delcom.app.entities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class BarangStatusTests {
+    @Test
+    @DisplayName("Status dari teks API / form")
+    void testParse() {
+        assertEquals(BarangStatus.READY, BarangStatus.parse("READY"));
+        assertEquals(BarangStatus.SOLD, BarangStatus.parse(" sold "));
+        // Label lama halaman web
+        assertEquals(BarangStatus.SOLD, BarangStatus.parse("Selesai"));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> BarangStatus.parse("HABIS"));
+        assertEquals("Status harus READY atau SOLD", e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> BarangStatus.parse(""));
+    }
+
+    @Test
+    @DisplayName("Nilai kolom smallint sama dengan urutan konstanta")
+    void testCode() {
+        assertEquals(0, BarangStatus.READY.code());
+        assertEquals(1, BarangStatus.SOLD.code());
+        for (BarangStatus status : BarangStatus.values()) {
+            assertEquals(status, BarangStatus.fromCode(status.code()));
+        }
+
+        // Kode yang tidak dikenal (data ditulis di luar aplikasi)
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> BarangStatus.fromCode((short) 2));
+        assertEquals("Kode status barang tidak dikenal: 2", e.getMessage());
+        assertThrows(IllegalStateException.class, () -> BarangStatus.fromCode((short) -1));
+    }
+}
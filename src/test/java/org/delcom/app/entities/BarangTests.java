@@ -24,7 +24,7 @@ public class BarangTests {
             assert (barang.getDeskripsi().equals("Size 42, kondisi 90%"));
             assert (barang.getTanggalMasuk() != null);
             assert (barang.getUser().equals(user));
-            assert (barang.getStatus().equals("READY"));
+            assert (barang.getStatus() == BarangStatus.READY);
         }
 
         // Barang dengan nilai default
@@ -34,6 +34,7 @@ public class BarangTests {
             assert (barang.getId() == null);
             assert (barang.getNamaBarang() == null);
             assert (barang.getKategori() == null);
+            assert (barang.getKategoriId() == null);
             assert (barang.getDeskripsi() == null);
             assert (barang.getTanggalMasuk() == null);
             assert (barang.getFoto() == null);
@@ -50,10 +51,11 @@ public class BarangTests {
             barang.setId(generatedId);
             barang.setNamaBarang("Adidas Jacket");
             barang.setKategori("Jaket");
+            barang.setKategoriId(3);
             barang.setDeskripsi("Size L, kondisi mulus");
             barang.setTanggalMasuk(tanggalMasuk);
             barang.setFoto("/uploads/jacket.jpg");
-            barang.setStatus("SOLD");
+            barang.setStatus(BarangStatus.SOLD);
             barang.setUser(user);
             barang.onCreate();
             barang.onUpdate();
@@ -61,10 +63,11 @@ public class BarangTests {
             assert (barang.getId().equals(generatedId));
             assert (barang.getNamaBarang().equals("Adidas Jacket"));
             assert (barang.getKategori().equals("Jaket"));
+            assert (barang.getKategoriId() == 3);
             assert (barang.getDeskripsi().equals("Size L, kondisi mulus"));
             assert (barang.getTanggalMasuk().equals(tanggalMasuk));
             assert (barang.getFoto().equals("/uploads/jacket.jpg"));
-            assert (barang.getStatus().equals("SOLD"));
+            assert (barang.getStatus() == BarangStatus.SOLD);
             assert (barang.getUser().equals(user));
             assert (barang.getCreatedAt() != null);
             assert (barang.getUpdatedAt() != null);
@@ -78,7 +81,7 @@ public class BarangTests {
             barang.setUser(user);
             barang.onCreate();
 
-            assert (barang.getStatus().equals("READY"));
+            assert (barang.getStatus() == BarangStatus.READY);
             assert (barang.getCreatedAt() != null);
             assert (barang.getUpdatedAt() != null);
         }
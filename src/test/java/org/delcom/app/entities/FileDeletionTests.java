@@ -0,0 +1,34 @@
+package org.delcom.app.entities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class FileDeletionTests {
+    @Test
+    @DisplayName("Membuat instance dari kelas FileDeletion")
+    void testMembuatInstanceFileDeletion() {
+        // FileDeletion baru langsung siap diproses
+        {
+            FileDeletion deletion = new FileDeletion("foto.jpg");
+
+            assertEquals("foto.jpg", deletion.getFilename());
+            assertEquals(0, deletion.getAttempts());
+            assertEquals(deletion.getCreatedAt(), deletion.getNextAttemptAt());
+        }
+
+        // FileDeletion dengan nilai default dan setNilai
+        {
+            FileDeletion deletion = new FileDeletion();
+            assertNull(deletion.getId());
+            assertNull(deletion.getFilename());
+
+            deletion.setId(7L);
+            deletion.setAttempts(2);
+            assertEquals(7L, deletion.getId());
+            assertEquals(2, deletion.getAttempts());
+        }
+    }
+}
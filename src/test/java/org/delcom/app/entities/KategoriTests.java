@@ -0,0 +1,28 @@
+package org.delcom.app.entities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class KategoriTests {
+    @Test
+    @DisplayName("Membuat instance dari kelas Kategori")
+    void testMembuatInstanceKategori() {
+        // Kategori baru, id diisi database
+        {
+            Kategori kategori = new Kategori("Sepatu");
+
+            assertNull(kategori.getId());
+            assertEquals("Sepatu", kategori.getNama());
+        }
+
+        // Kategori dengan nilai default
+        {
+            Kategori kategori = new Kategori();
+            assertNull(kategori.getId());
+            assertNull(kategori.getNama());
+        }
+    }
+}
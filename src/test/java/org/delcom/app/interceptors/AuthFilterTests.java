@@ -0,0 +1,439 @@
+package org.delcom.app.interceptors;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.delcom.app.configs.AuthContext;
+import org.delcom.app.configs.AuthPrincipal;
+import org.delcom.app.entities.AuthToken;
+import org.delcom.app.entities.User;
+import org.delcom.app.services.AccessTokenService;
+import org.delcom.app.services.AuthTokenCache;
+import org.delcom.app.services.AuthTokenService;
+import org.delcom.app.services.UserService;
+import org.delcom.app.utils.JwtUtil;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class AuthFilterTests {
+
+    @Mock private AuthTokenService authTokenService;
+    @Mock private UserService userService;
+    @Mock private AuthTokenCache authTokenCache;
+    @Mock private AccessTokenService accessTokenService;
+
+    @InjectMocks
+    private AuthFilter authFilter;
+
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    // Principal yang terlihat oleh sisa filter chain (controller)
+    private List<AuthPrincipal> chainPrincipals;
+    private FilterChain chain;
+
+    private static JwtUtil.VerifiedToken verified(UUID userId) {
+        return new JwtUtil.VerifiedToken(userId, Instant.now(), false, JwtUtil.TYPE_REFRESH, Instant.now(),
+                null, null);
+    }
+
+    private static JwtUtil.VerifiedToken accessToken(UUID userId, String type, boolean expired) {
+        return new JwtUtil.VerifiedToken(userId, Instant.now(), expired, type, Instant.now(),
+                "Test User", "user@example.com");
+    }
+
+    @BeforeEach
+    void setUp() {
+        request = new MockHttpServletRequest();
+        response = new MockHttpServletResponse();
+        chainPrincipals = new ArrayList<>();
+        chain = (req, res) -> chainPrincipals.add(AuthContext.current());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private void filter(String path, String authorization) throws Exception {
+        request.setRequestURI(path);
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        authFilter.doFilter(request, response, chain);
+    }
+
+    private void assertRejected(int status, String message) throws Exception {
+        assertTrue(chainPrincipals.isEmpty());
+        assertEquals(status, response.getStatus());
+        assertTrue(response.getContentAsString().contains(message));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> void sneakyThrow(Throwable e) throws E {
+        throw (E) e;
+    }
+
+    // =========================================================================
+    // 1. HAPPY PATH (SUKSES)
+    // =========================================================================
+    @Test
+    @DisplayName("100% Path: Token Valid, User Found -> Principal di-bind ke chain")
+    void testHappyPath() throws Exception {
+        String tokenExtracted = "token_valid_abc";
+        UUID userId = UUID.randomUUID();
+
+        AuthToken mockAuthToken = new AuthToken();
+        mockAuthToken.setUserId(userId);
+        User mockUser = new User("Test User", "user@example.com", "hash");
+        mockUser.setId(userId);
+        AuthPrincipal expected = new AuthPrincipal(userId, "Test User", "user@example.com");
+
+        try (MockedStatic<JwtUtil> mockedJwt = mockStatic(JwtUtil.class)) {
+            mockedJwt.when(() -> JwtUtil.verify(anyString())).thenReturn(verified(userId));
+
+            when(authTokenService.findUserToken(userId, tokenExtracted)).thenReturn(mockAuthToken);
+            when(userService.getUserById(userId)).thenReturn(mockUser);
+
+            filter("/api/protected/resource", "Bearer token_valid_abc");
+
+            assertEquals(List.of(expected), chainPrincipals);
+            verify(authTokenCache).put(userId, tokenExtracted, expected, 0L);
+            // Binding hanya berlaku selama chain berjalan
+            assertFalse(AuthContext.isAuthenticated());
+        }
+    }
+
+    @Test
+    @DisplayName("Token ada di cache -> tidak query ke database")
+    void testCacheHit() throws Exception {
+        UUID userId = UUID.randomUUID();
+        AuthPrincipal cachedPrincipal = new AuthPrincipal(userId, "Test User", "user@example.com");
+
+        try (MockedStatic<JwtUtil> mockedJwt = mockStatic(JwtUtil.class)) {
+            mockedJwt.when(() -> JwtUtil.verify(anyString())).thenReturn(verified(userId));
+
+            when(authTokenCache.get(userId, "token_cached")).thenReturn(cachedPrincipal);
+
+            filter("/api/protected/resource", "Bearer token_cached");
+
+            assertEquals(1, chainPrincipals.size());
+            assertSame(cachedPrincipal, chainPrincipals.get(0));
+            verifyNoInteractions(authTokenService, userService);
+        }
+    }
+
+    // =========================================================================
+    // 2. PUBLIC ENDPOINTS & VIEW TANPA LOGIN
+    // =========================================================================
+    static Stream<String> publicPathProvider() {
+        return Stream.of(
+            "/api/auth/login",
+            "/auth/register",
+            "/error",
+            "/uploads/avatar.png",
+            "/css/style.css",
+            "/js/script.js",
+            "/images/logo.svg",
+            "/dashboard"
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("publicPathProvider")
+    @DisplayName("Endpoint public dan view tanpa session langsung diteruskan tanpa principal")
+    void testPublicEndpoints(String path) throws Exception {
+        filter(path, null);
+
+        assertEquals(1, chainPrincipals.size());
+        assertNull(chainPrincipals.get(0));
+        verifyNoInteractions(authTokenService, userService, authTokenCache, accessTokenService);
+    }
+
+    @Test
+    @DisplayName("Hanya /api/auth yang dilewati filter")
+    void testShouldNotFilter() {
+        request.setRequestURI("/api/auth/refresh");
+        assertTrue(authFilter.shouldNotFilter(request));
+
+        request.setRequestURI("/auth/login");
+        assertFalse(authFilter.shouldNotFilter(request));
+
+        request.setRequestURI("/api/barang");
+        assertFalse(authFilter.shouldNotFilter(request));
+    }
+
+    // =========================================================================
+    // 2b. VIEW DENGAN SESSION
+    // =========================================================================
+    @Test
+    @DisplayName("View: principal dari SecurityContext session di-bind ke chain")
+    void testSessionPrincipal() throws Exception {
+        AuthPrincipal principal = new AuthPrincipal(UUID.randomUUID(), "Test User", "user@example.com");
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                principal, null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+
+        filter("/barang", null);
+
+        assertEquals(List.of(principal), chainPrincipals);
+        verifyNoInteractions(authTokenService, userService, authTokenCache, accessTokenService);
+    }
+
+    @Test
+    @DisplayName("View: authentication lain (anonymous) tidak menghasilkan principal")
+    void testSessionNonPrincipal() throws Exception {
+        Authentication anonymous = new AnonymousAuthenticationToken("key", "anonymousUser",
+                AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+        SecurityContextHolder.getContext().setAuthentication(anonymous);
+
+        filter("/barang", null);
+
+        assertEquals(1, chainPrincipals.size());
+        assertNull(chainPrincipals.get(0));
+    }
+
+    @Test
+    @DisplayName("API: session diabaikan, tetap butuh bearer token")
+    void testApiIgnoresSession() throws Exception {
+        AuthPrincipal principal = new AuthPrincipal(UUID.randomUUID(), "Test User", "user@example.com");
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                principal, null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+
+        filter("/api/barang", null);
+
+        assertRejected(401, "Token autentikasi tidak ditemukan");
+    }
+
+    // =========================================================================
+    // 3. COVERAGE FOR TOKEN NULL / EMPTY
+    // =========================================================================
+
+    @Test
+    @DisplayName("Token NULL (Header missing) on API Request")
+    void testTokenNull_ApiRequest() throws Exception {
+        filter("/api/data", null);
+
+        assertRejected(401, "Token autentikasi tidak ditemukan");
+    }
+
+    @Test
+    @DisplayName("Token EMPTY STRING (Bearer tanpa token)")
+    void testTokenEmptyString() throws Exception {
+        // substring(7) akan menghasilkan string kosong "".
+        filter("/api/protected", "Bearer ");
+
+        assertRejected(401, "Token autentikasi tidak ditemukan");
+    }
+
+    @Test
+    @DisplayName("Header Format Wrong (No Bearer)")
+    void testInvalidHeaderFormat() throws Exception {
+        filter("/api/protected", "Basic 12345");
+
+        assertRejected(401, "Token autentikasi tidak ditemukan");
+    }
+
+    // =========================================================================
+    // 4. JWT VALIDATION & EXTRACTION
+    // =========================================================================
+    @Test
+    @DisplayName("JwtUtil.verify returns null")
+    void testInvalidJwtSignature() throws Exception {
+        try (MockedStatic<JwtUtil> mockedJwt = mockStatic(JwtUtil.class)) {
+            mockedJwt.when(() -> JwtUtil.verify(anyString())).thenReturn(null);
+
+            filter("/api/protected", "Bearer token_rusak");
+
+            assertRejected(401, "Token autentikasi tidak valid");
+        }
+    }
+
+    @Test
+    @DisplayName("JwtUtil.verify returns token without userId")
+    void testExtractUserIdNull() throws Exception {
+        try (MockedStatic<JwtUtil> mockedJwt = mockStatic(JwtUtil.class)) {
+            mockedJwt.when(() -> JwtUtil.verify(anyString())).thenReturn(verified(null));
+
+            filter("/api/protected", "Bearer token_valid");
+
+            assertRejected(401, "Format token autentikasi tidak valid");
+        }
+    }
+
+    // =========================================================================
+    // 5. DB CHECKS
+    // =========================================================================
+    @Test
+    @DisplayName("Token not found in Database")
+    void testTokenNotInDB() throws Exception {
+        UUID uid = UUID.randomUUID();
+
+        try (MockedStatic<JwtUtil> mockedJwt = mockStatic(JwtUtil.class)) {
+            mockedJwt.when(() -> JwtUtil.verify(anyString())).thenReturn(verified(uid));
+
+            when(authTokenService.findUserToken(any(UUID.class), anyString())).thenReturn(null);
+
+            filter("/api/protected", "Bearer token_valid");
+
+            assertRejected(401, "Token autentikasi sudah expired");
+        }
+    }
+
+    @Test
+    @DisplayName("User not found in Database")
+    void testUserNotFound() throws Exception {
+        UUID uid = UUID.randomUUID();
+        AuthToken mockAuthToken = new AuthToken();
+        mockAuthToken.setUserId(uid);
+
+        try (MockedStatic<JwtUtil> mockedJwt = mockStatic(JwtUtil.class)) {
+            mockedJwt.when(() -> JwtUtil.verify(anyString())).thenReturn(verified(uid));
+
+            when(authTokenService.findUserToken(any(UUID.class), anyString())).thenReturn(mockAuthToken);
+            when(userService.getUserById(uid)).thenReturn(null);
+
+            filter("/api/protected", "Bearer token_valid");
+
+            assertRejected(404, "User tidak ditemukan");
+        }
+    }
+
+    // =========================================================================
+    // 6. MODE STATELESS (tanpa database)
+    // =========================================================================
+    @Test
+    @DisplayName("Stateless: access token valid -> principal dari claims")
+    void testStatelessAccessToken() throws Exception {
+        UUID userId = UUID.randomUUID();
+        AuthPrincipal principal = new AuthPrincipal(userId, "Test User", "user@example.com");
+        JwtUtil.VerifiedToken token = accessToken(userId, JwtUtil.TYPE_ACCESS, false);
+
+        when(accessTokenService.isStateless()).thenReturn(true);
+        when(accessTokenService.isRevoked(userId, token.issuedAt())).thenReturn(false);
+        when(accessTokenService.toPrincipal(token)).thenReturn(principal);
+
+        try (MockedStatic<JwtUtil> mockedJwt = mockStatic(JwtUtil.class)) {
+            mockedJwt.when(() -> JwtUtil.verify(anyString())).thenReturn(token);
+
+            filter("/api/protected", "Bearer access_token");
+
+            assertEquals(List.of(principal), chainPrincipals);
+            verifyNoInteractions(authTokenService, userService, authTokenCache);
+        }
+    }
+
+    static Stream<Arguments> rejectedAccessTokenProvider() {
+        return Stream.of(
+                Arguments.of(JwtUtil.TYPE_REFRESH, false, false, "Jenis token autentikasi tidak valid"),
+                Arguments.of(null, false, false, "Jenis token autentikasi tidak valid"),
+                Arguments.of(JwtUtil.TYPE_ACCESS, true, false, "Token autentikasi sudah expired"),
+                Arguments.of(JwtUtil.TYPE_ACCESS, false, true, "Token autentikasi sudah dicabut"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("rejectedAccessTokenProvider")
+    @DisplayName("Stateless: token salah jenis, expired, atau dicabut ditolak")
+    void testStatelessRejected(String type, boolean expired, boolean revoked, String message) throws Exception {
+        UUID userId = UUID.randomUUID();
+        JwtUtil.VerifiedToken token = accessToken(userId, type, expired);
+
+        when(accessTokenService.isStateless()).thenReturn(true);
+        lenient().when(accessTokenService.isRevoked(userId, token.issuedAt())).thenReturn(revoked);
+
+        try (MockedStatic<JwtUtil> mockedJwt = mockStatic(JwtUtil.class)) {
+            mockedJwt.when(() -> JwtUtil.verify(anyString())).thenReturn(token);
+
+            filter("/api/protected", "Bearer access_token");
+
+            assertRejected(401, message);
+            verifyNoInteractions(authTokenService, userService, authTokenCache);
+        }
+    }
+
+    // =========================================================================
+    // 7. EXCEPTION DARI FILTER CHAIN
+    // =========================================================================
+    private UUID givenCachedPrincipal() {
+        UUID userId = UUID.randomUUID();
+        when(authTokenCache.get(userId, "token_cached"))
+                .thenReturn(new AuthPrincipal(userId, "Test User", "user@example.com"));
+        request.setRequestURI("/api/protected");
+        request.addHeader("Authorization", "Bearer token_cached");
+        return userId;
+    }
+
+    static Stream<Exception> passthroughExceptionProvider() {
+        return Stream.of(new IOException("io"), new ServletException("servlet"), new IllegalStateException("rt"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("passthroughExceptionProvider")
+    @DisplayName("IOException, ServletException, dan RuntimeException diteruskan apa adanya")
+    void testChainExceptionPassthrough(Exception thrown) throws Exception {
+        try (MockedStatic<JwtUtil> mockedJwt = mockStatic(JwtUtil.class)) {
+            UUID userId = givenCachedPrincipal();
+            mockedJwt.when(() -> JwtUtil.verify(anyString())).thenReturn(verified(userId));
+
+            FilterChain failing = (req, res) -> sneakyThrow(thrown);
+            Exception actual = assertThrows(Exception.class, () -> authFilter.doFilter(request, response, failing));
+
+            assertSame(thrown, actual);
+        }
+    }
+
+    @Test
+    @DisplayName("Checked exception lain dibungkus ServletException")
+    void testChainCheckedExceptionWrapped() throws Exception {
+        Exception thrown = new Exception("checked");
+        try (MockedStatic<JwtUtil> mockedJwt = mockStatic(JwtUtil.class)) {
+            UUID userId = givenCachedPrincipal();
+            mockedJwt.when(() -> JwtUtil.verify(anyString())).thenReturn(verified(userId));
+
+            FilterChain failing = (req, res) -> sneakyThrow(thrown);
+            ServletException actual = assertThrows(ServletException.class,
+                    () -> authFilter.doFilter(request, response, failing));
+
+            assertSame(thrown, actual.getCause());
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import org.delcom.app.configs.AuthPrincipal;
+import org.delcom.app.entities.User;
+import org.delcom.app.utils.JwtUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class AccessTokenServiceTests {
+
+    private long now = 1_000_000;
+
+    @Test
+    @DisplayName("Membuat access token dan membangun principal dari claims")
+    void testCreateAccessToken() {
+        AccessTokenService accessTokenService = new AccessTokenService(true, Duration.ofMinutes(15));
+        assertTrue(accessTokenService.isStateless());
+
+        User user = new User("Test User", "user@example.com", "hash");
+        user.setId(UUID.randomUUID());
+
+        JwtUtil.VerifiedToken verifiedToken = JwtUtil.verify(accessTokenService.createAccessToken(user));
+        assertEquals(JwtUtil.TYPE_ACCESS, verifiedToken.type());
+        assertFalse(verifiedToken.expired());
+
+        AuthPrincipal principal = accessTokenService.toPrincipal(verifiedToken);
+        assertEquals(new AuthPrincipal(user.getId(), "Test User", "user@example.com"), principal);
+    }
+
+    @Test
+    @DisplayName("Epoch pencabutan per user")
+    void testRevokeUser() {
+        AccessTokenService accessTokenService = new AccessTokenService(false, Duration.ofSeconds(60)) {
+            @Override
+            protected long currentTimeMillis() {
+                return now;
+            }
+        };
+        assertFalse(accessTokenService.isStateless());
+
+        UUID userId = UUID.randomUUID();
+        UUID otherUserId = UUID.randomUUID();
+        assertFalse(accessTokenService.isRevoked(userId, Instant.ofEpochMilli(now - 10_000)));
+
+        accessTokenService.revokeUser(userId);
+        assertTrue(accessTokenService.isRevoked(userId, Instant.ofEpochMilli(now - 10_000)));
+        assertTrue(accessTokenService.isRevoked(userId, null));
+        assertFalse(accessTokenService.isRevoked(userId, Instant.ofEpochMilli(now)));
+        assertFalse(accessTokenService.isRevoked(otherUserId, Instant.ofEpochMilli(now - 10_000)));
+
+        // Pencabutan lama dibuang setelah melewati TTL access token
+        now += 61_000;
+        accessTokenService.revokeUser(otherUserId);
+        assertFalse(accessTokenService.isRevoked(userId, Instant.ofEpochMilli(now - 100_000)));
+        assertTrue(accessTokenService.isRevoked(otherUserId, Instant.ofEpochMilli(now - 100_000)));
+    }
+
+    @Test
+    @DisplayName("Token dari detik yang sama dengan pencabutan dibedakan per milidetik")
+    void testRevokeUser_SameSecond() {
+        now = 1_000_500;
+        AccessTokenService accessTokenService = new AccessTokenService(true, Duration.ofMinutes(15)) {
+            @Override
+            protected long currentTimeMillis() {
+                return now;
+            }
+        };
+        UUID userId = UUID.randomUUID();
+        accessTokenService.revokeUser(userId);
+
+        assertTrue(accessTokenService.isRevoked(userId, Instant.ofEpochMilli(1_000_200)));
+        assertFalse(accessTokenService.isRevoked(userId, Instant.ofEpochMilli(1_000_800)));
+        // Token lama tanpa iat_ms (presisi detik) dari detik pencabutan ditolak
+        assertTrue(accessTokenService.isRevoked(userId, Instant.ofEpochSecond(1_000)));
+    }
+
+    @Test
+    @DisplayName("Access token membawa waktu dibuat dalam milidetik")
+    void testAccessTokenIssuedAtMillis() {
+        AccessTokenService accessTokenService = new AccessTokenService(true, Duration.ofMinutes(15));
+        User user = new User("Test User", "user@example.com", "hash");
+        user.setId(UUID.randomUUID());
+
+        long before = System.currentTimeMillis();
+        JwtUtil.VerifiedToken verifiedToken = JwtUtil.verify(accessTokenService.createAccessToken(user));
+        long after = System.currentTimeMillis();
+
+        long issuedAt = verifiedToken.issuedAt().toEpochMilli();
+        assertTrue(issuedAt >= before && issuedAt <= after);
+    }
+
+    @Test
+    @DisplayName("Waktu default memakai jam sistem")
+    void testDefaultClock() {
+        AccessTokenService accessTokenService = new AccessTokenService(true, Duration.ofMinutes(15));
+        UUID userId = UUID.randomUUID();
+        accessTokenService.revokeUser(userId);
+        assertTrue(accessTokenService.isRevoked(userId, Instant.now().minusSeconds(60)));
+    }
+}
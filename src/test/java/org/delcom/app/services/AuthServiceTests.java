@@ -0,0 +1,166 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+
+import org.delcom.app.entities.AuthToken;
+import org.delcom.app.entities.User;
+import org.delcom.app.services.AuthService.LoginResult;
+import org.delcom.app.services.AuthService.LoginStatus;
+import org.delcom.app.utils.JwtUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.jsonwebtoken.Jwts;
+
+public class AuthServiceTests {
+    @Test
+    @DisplayName("Pengujian authenticate dan login")
+    public void testAuthenticateAndLogin() {
+        UserService userService = Mockito.mock(UserService.class);
+        AuthTokenService authTokenService = Mockito.mock(AuthTokenService.class);
+        PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+        PasswordService passwordService = new PasswordService(passwordEncoder, 1, 8, Duration.ofSeconds(1));
+        AuthService authService = new AuthService(userService, authTokenService, passwordService,
+                new AccessTokenService(true, Duration.ofMinutes(15)));
+
+        UUID userId = UUID.randomUUID();
+        User user = new User("Test User", "user@example.com", passwordEncoder.encode("password123"));
+        user.setId(userId);
+        Mockito.when(userService.getUserByEmail("user@example.com")).thenReturn(user);
+
+        // User tidak ditemukan
+        {
+            LoginResult result = authService.login("unknown@example.com", "password123");
+            assertEquals(LoginStatus.USER_NOT_FOUND, result.status());
+            assertFalse(result.isSuccess());
+            assertNull(result.user());
+        }
+
+        // Password salah
+        {
+            LoginResult result = authService.login("user@example.com", "wrongpassword");
+            assertEquals(LoginStatus.BAD_CREDENTIALS, result.status());
+            assertNull(result.token());
+        }
+
+        // Authenticate berhasil tanpa membuat token
+        {
+            LoginResult result = authService.authenticate("user@example.com", "password123");
+            assertTrue(result.isSuccess());
+            assertSame(user, result.user());
+            assertNull(result.token());
+            Mockito.verifyNoInteractions(authTokenService);
+        }
+
+        // Login berhasil dan token disimpan
+        {
+            LoginResult result = authService.login("user@example.com", "password123");
+            assertTrue(result.isSuccess());
+            assertSame(user, result.user());
+            assertEquals(userId, JwtUtil.extractUserId(result.token()));
+            Mockito.verify(authTokenService, Mockito.times(1)).issueToken(userId, result.token());
+        }
+    }
+
+    @Test
+    @DisplayName("Hash dengan work factor lama diganti saat login")
+    public void testRehashOnLogin() {
+        UserService userService = Mockito.mock(UserService.class);
+        AuthTokenService authTokenService = Mockito.mock(AuthTokenService.class);
+        PasswordService passwordService = Mockito.mock(PasswordService.class);
+        AuthService authService = new AuthService(userService, authTokenService, passwordService,
+                new AccessTokenService(true, Duration.ofMinutes(15)));
+
+        UUID userId = UUID.randomUUID();
+        User user = new User("Test User", "user@example.com", "oldhash");
+        user.setId(userId);
+        Mockito.when(userService.getUserByEmail("user@example.com")).thenReturn(user);
+        Mockito.when(passwordService.matches("password123", "oldhash")).thenReturn(true);
+        Mockito.when(passwordService.upgradeEncoding("oldhash")).thenReturn(true);
+
+        // Executor penuh: login tetap berhasil, rehash ditunda
+        {
+            Mockito.when(passwordService.encode("password123"))
+                    .thenThrow(new PasswordService.BusyException(Duration.ofSeconds(1)));
+
+            assertTrue(authService.authenticate("user@example.com", "password123").isSuccess());
+            assertEquals("oldhash", user.getPassword());
+            Mockito.verify(userService, Mockito.never()).rehashPassword(Mockito.any(), Mockito.any(), Mockito.any());
+        }
+
+        // Password diganti request lain sebelum rehash
+        {
+            Mockito.reset(passwordService);
+            Mockito.when(passwordService.matches("password123", "oldhash")).thenReturn(true);
+            Mockito.when(passwordService.upgradeEncoding("oldhash")).thenReturn(true);
+            Mockito.when(passwordService.encode("password123")).thenReturn("newhash");
+            Mockito.when(userService.rehashPassword(userId, "oldhash", "newhash")).thenReturn(false);
+
+            assertTrue(authService.authenticate("user@example.com", "password123").isSuccess());
+            assertEquals("oldhash", user.getPassword());
+        }
+
+        // Rehash berhasil
+        {
+            Mockito.when(userService.rehashPassword(userId, "oldhash", "newhash")).thenReturn(true);
+
+            assertTrue(authService.authenticate("user@example.com", "password123").isSuccess());
+            assertEquals("newhash", user.getPassword());
+        }
+    }
+
+    @Test
+    @DisplayName("Refresh token ditukar dengan access token")
+    public void testRefresh() {
+        UserService userService = Mockito.mock(UserService.class);
+        AuthTokenService authTokenService = Mockito.mock(AuthTokenService.class);
+        AuthService authService = new AuthService(userService, authTokenService, null,
+                new AccessTokenService(true, Duration.ofMinutes(15)));
+
+        UUID userId = UUID.randomUUID();
+        User user = new User("Test User", "user@example.com", "hash");
+        user.setId(userId);
+        String refreshToken = JwtUtil.generateToken(userId);
+
+        // Token rusak, access token, dan token tanpa userId ditolak
+        assertNull(authService.refresh("bukan-jwt"));
+        assertNull(authService.refresh(JwtUtil.generateAccessToken(userId, "Test User", "user@example.com",
+                Duration.ofMinutes(1))));
+        assertNull(authService.refresh(Jwts.builder().subject("bukan-uuid")
+                .claim(JwtUtil.CLAIM_TYPE, JwtUtil.TYPE_REFRESH).signWith(JwtUtil.getKey()).compact()));
+
+        // Token expired ditolak
+        assertNull(authService.refresh(Jwts.builder().subject(userId.toString())
+                .claim(JwtUtil.CLAIM_TYPE, JwtUtil.TYPE_REFRESH)
+                .expiration(new Date(System.currentTimeMillis() - 60_000))
+                .signWith(JwtUtil.getKey()).compact()));
+
+        // Token sudah dihapus dari auth_tokens
+        Mockito.when(authTokenService.findUserToken(userId, refreshToken)).thenReturn(null);
+        assertNull(authService.refresh(refreshToken));
+
+        // User sudah dihapus
+        Mockito.when(authTokenService.findUserToken(userId, refreshToken))
+                .thenReturn(new AuthToken(userId, refreshToken));
+        Mockito.when(userService.getUserById(userId)).thenReturn(null);
+        assertNull(authService.refresh(refreshToken));
+
+        // Berhasil
+        Mockito.when(userService.getUserById(userId)).thenReturn(user);
+        JwtUtil.VerifiedToken accessToken = JwtUtil.verify(authService.refresh(refreshToken));
+        assertEquals(userId, accessToken.userId());
+        assertEquals(JwtUtil.TYPE_ACCESS, accessToken.type());
+        assertEquals("user@example.com", accessToken.email());
+    }
+}
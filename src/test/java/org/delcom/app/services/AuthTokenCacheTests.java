@@ -0,0 +1,157 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.delcom.app.configs.AuthPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AuthTokenCacheTests {
+
+    private long now;
+    private SimpleMeterRegistry meterRegistry;
+    private AuthTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        now = 0;
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new AuthTokenCache(2, Duration.ofSeconds(10), meterRegistry) {
+            @Override
+            protected long currentTimeNanos() {
+                return now;
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Hit, miss dan expired TTL")
+    void testHitMissAndTtl() {
+        UUID userId = UUID.randomUUID();
+        AuthPrincipal user = new AuthPrincipal(userId, "Name", "email@example.com");
+
+        assertNull(cache.get(userId, "token"));
+        cache.put(userId, "token", user, cache.generation());
+        assertSame(user, cache.get(userId, "token"));
+
+        now = Duration.ofSeconds(11).toNanos();
+        assertNull(cache.get(userId, "token"));
+
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(1, cache.getEvictions());
+        assertEquals(0, cache.size());
+        assertEquals(1.0, meterRegistry.get("auth.token.cache.hits").functionCounter().count());
+        assertEquals(2.0, meterRegistry.get("auth.token.cache.misses").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("auth.token.cache.evictions").functionCounter().count());
+        assertEquals(0.0, meterRegistry.get("auth.token.cache.size").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Entry paling lama tidak dipakai dibuang saat cache penuh")
+    void testLruEviction() {
+        UUID userId = UUID.randomUUID();
+        AuthPrincipal user = new AuthPrincipal(userId, "Name", "email@example.com");
+
+        cache.put(userId, "a", user, cache.generation());
+        cache.put(userId, "b", user, cache.generation());
+        cache.get(userId, "a");
+        cache.put(userId, "c", user, cache.generation());
+
+        assertEquals(2, cache.size());
+        assertSame(user, cache.get(userId, "a"));
+        assertNull(cache.get(userId, "b"));
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    @DisplayName("Invalidasi user dan put dengan generation lama diabaikan")
+    void testInvalidateUser() {
+        UUID userId = UUID.randomUUID();
+        UUID otherUserId = UUID.randomUUID();
+        AuthPrincipal user = new AuthPrincipal(userId, "Name", "email@example.com");
+
+        cache.put(userId, "token", user, cache.generation());
+        cache.put(otherUserId, "token", user, cache.generation());
+
+        long staleGeneration = cache.generation();
+        cache.invalidateUser(userId);
+
+        assertNull(cache.get(userId, "token"));
+        assertSame(user, cache.get(otherUserId, "token"));
+
+        cache.put(userId, "token", user, staleGeneration);
+        assertNull(cache.get(userId, "token"));
+
+        // Invalidasi user lain tidak menolak hasil query milik user ini
+        cache.put(otherUserId, "other", user, staleGeneration);
+        assertSame(user, cache.get(otherUserId, "other"));
+    }
+
+    @Test
+    @DisplayName("Catatan invalidasi dibatasi, user yang catatannya dibuang memakai batas bawah")
+    void testInvalidationFloor() {
+        UUID userId = UUID.randomUUID();
+        UUID otherUserId = UUID.randomUUID();
+        AuthPrincipal user = new AuthPrincipal(userId, "Name", "email@example.com");
+
+        long staleGeneration = cache.generation();
+        cache.invalidateUser(userId);
+        cache.invalidateUser(userId);
+        // Batas 2 catatan: userId dibuang dari catatan setelah 2 user lain
+        cache.invalidateUser(UUID.randomUUID());
+        cache.invalidateUser(UUID.randomUUID());
+
+        cache.put(userId, "token", user, staleGeneration);
+        cache.put(otherUserId, "token", user, staleGeneration);
+        assertEquals(0, cache.size());
+
+        cache.put(otherUserId, "token", user, cache.generation());
+        assertSame(user, cache.get(otherUserId, "token"));
+    }
+
+    @Test
+    @DisplayName("Invalidasi di dalam transaksi diulang setelah commit")
+    void testInvalidateUserInsideTransaction() {
+        UUID userId = UUID.randomUUID();
+        AuthPrincipal user = new AuthPrincipal(userId, "Name", "email@example.com");
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.invalidateUser(userId);
+
+        // Request lain membaca data lama sebelum commit
+        cache.put(userId, "token", user, cache.generation());
+        assertSame(user, cache.get(userId, "token"));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.afterCommit());
+        assertNull(cache.get(userId, "token"));
+    }
+
+    @Test
+    @DisplayName("Waktu default memakai System.nanoTime")
+    void testDefaultClock() {
+        AuthTokenCache defaultCache = new AuthTokenCache(10, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        UUID userId = UUID.randomUUID();
+        AuthPrincipal user = new AuthPrincipal(userId, "Name", "email@example.com");
+
+        defaultCache.put(userId, "token", user, defaultCache.generation());
+        assertSame(user, defaultCache.get(userId, "token"));
+    }
+}
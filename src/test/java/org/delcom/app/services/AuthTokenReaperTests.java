@@ -0,0 +1,70 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.delcom.app.entities.AuthToken;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AuthTokenReaperTests {
+
+    private AuthToken tokenCreatedAt(LocalDateTime createdAt) {
+        AuthToken authToken = Mockito.mock(AuthToken.class);
+        Mockito.when(authToken.getCreatedAt()).thenReturn(createdAt);
+        return authToken;
+    }
+
+    @Test
+    @DisplayName("Reaper menghapus token per batch dan mencatat metrik")
+    void testReapInBatches() {
+        AuthTokenService authTokenService = Mockito.mock(AuthTokenService.class);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AuthTokenReaper reaper = new AuthTokenReaper(authTokenService, 2, meterRegistry);
+
+        LocalDateTime t1 = LocalDateTime.of(2025, 1, 1, 10, 0);
+        LocalDateTime t2 = LocalDateTime.of(2025, 1, 1, 11, 0);
+        AuthToken first = new AuthToken(UUID.randomUUID(), "a");
+        AuthToken second = tokenCreatedAt(t1);
+        AuthToken third = tokenCreatedAt(t2);
+
+        // Batch penuh, batch penuh, lalu batch kosong
+        Mockito.when(authTokenService.deleteExpiredTokens(Mockito.any(), Mockito.any(), Mockito.eq(2)))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(third, third))
+                .thenReturn(List.of());
+
+        int total = reaper.reapExpiredTokens();
+        assertEquals(4, total);
+
+        // Batch berikutnya dimulai dari created_at terakhir batch sebelumnya
+        Mockito.verify(authTokenService).deleteExpiredTokens(Mockito.any(), Mockito.eq(t1), Mockito.eq(2));
+        Mockito.verify(authTokenService).deleteExpiredTokens(Mockito.any(), Mockito.eq(t2), Mockito.eq(2));
+
+        assertEquals(1, meterRegistry.get("auth.token.reaper.rows").summary().count());
+        assertEquals(4.0, meterRegistry.get("auth.token.reaper.rows").summary().totalAmount());
+        assertEquals(1, meterRegistry.get("auth.token.reaper.duration").timer().count());
+    }
+
+    @Test
+    @DisplayName("Reaper tanpa token expired")
+    void testReapNothing() {
+        AuthTokenService authTokenService = Mockito.mock(AuthTokenService.class);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AuthTokenReaper reaper = new AuthTokenReaper(authTokenService, 500, meterRegistry);
+
+        Mockito.when(authTokenService.deleteExpiredTokens(Mockito.any(), Mockito.any(), Mockito.eq(500)))
+                .thenReturn(List.of());
+
+        assertEquals(0, reaper.reapExpiredTokens());
+        Mockito.verify(authTokenService, Mockito.times(1))
+                .deleteExpiredTokens(Mockito.any(), Mockito.any(), Mockito.eq(500));
+        assertEquals(0.0, meterRegistry.get("auth.token.reaper.rows").summary().totalAmount());
+    }
+}
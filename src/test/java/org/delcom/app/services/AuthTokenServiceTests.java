@@ -1,15 +1,20 @@
 package org.delcom.app.services;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 import org.delcom.app.entities.AuthToken;
 import org.delcom.app.repositories.AuthTokenRepository;
+import org.delcom.app.utils.JwtUtil;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.data.domain.Limit;
 
 public class AuthTokenServiceTests {
     @Test
@@ -22,22 +27,67 @@ public class AuthTokenServiceTests {
         AuthTokenRepository authTokenRepository = Mockito.mock(AuthTokenRepository.class);
 
         // Membuat instance AuthToken dengan repository palsu
-        AuthTokenService authTokenService = new AuthTokenService(authTokenRepository);
+        AuthTokenCache authTokenCache = Mockito.mock(AuthTokenCache.class);
+        AccessTokenService accessTokenService = Mockito.mock(AccessTokenService.class);
+        AuthTokenService authTokenService = new AuthTokenService(authTokenRepository, authTokenCache, accessTokenService, 5);
         assertTrue(authTokenService != null);
 
-        // Menguji createAuthToken
+        // Menguji issueToken
         {
-            Mockito.when(authTokenRepository.save(Mockito.any(AuthToken.class))).thenReturn(authToken);
+            Mockito.when(authTokenRepository.upsertToken(Mockito.any(UUID.class), Mockito.eq(userId),
+                    Mockito.eq("token"), Mockito.any(byte[].class), Mockito.any(LocalDateTime.class), Mockito.eq(4)))
+                    .thenReturn(0);
 
-            AuthToken result = authTokenService.createAuthToken(authToken);
-            assertTrue(result != null);
-            assertEquals(authToken.getUserId(), result.getUserId());
-            assertEquals(authToken.getToken(), result.getToken());
+            authTokenService.issueToken(userId, "token");
+            Mockito.verify(authTokenRepository, Mockito.times(1)).upsertToken(Mockito.any(UUID.class),
+                    Mockito.eq(userId), Mockito.eq("token"), Mockito.eq(JwtUtil.digest("token")),
+                    Mockito.any(LocalDateTime.class), Mockito.eq(4));
+            Mockito.verify(authTokenCache, Mockito.never()).invalidateUser(userId);
+        }
+
+        // Menguji issueToken ketika token lama melebihi batas
+        {
+            Mockito.when(authTokenRepository.upsertToken(Mockito.any(UUID.class), Mockito.eq(userId),
+                    Mockito.eq("token"), Mockito.any(byte[].class), Mockito.any(LocalDateTime.class), Mockito.eq(4)))
+                    .thenReturn(2);
+
+            authTokenService.issueToken(userId, "token");
+            Mockito.verify(authTokenCache, Mockito.times(1)).invalidateUser(userId);
+            Mockito.clearInvocations(authTokenCache);
+        }
+
+        // Menguji deleteExpiredTokens tanpa token expired
+        {
+            LocalDateTime cutoff = LocalDateTime.now();
+            LocalDateTime from = cutoff.minusDays(1);
+            Mockito.when(authTokenRepository.findExpiredTokens(cutoff, from, Limit.of(10))).thenReturn(List.of());
+
+            List<AuthToken> result = authTokenService.deleteExpiredTokens(cutoff, from, 10);
+            assertTrue(result.isEmpty());
+            Mockito.verify(authTokenRepository, Mockito.never()).deleteByIds(Mockito.anyCollection());
+        }
+
+        // Menguji deleteExpiredTokens dengan token expired
+        {
+            UUID otherUserId = UUID.randomUUID();
+            AuthToken otherToken = new AuthToken(otherUserId, "other");
+            AuthToken secondToken = new AuthToken(userId, "second");
+            LocalDateTime cutoff = LocalDateTime.now();
+            LocalDateTime from = cutoff.minusDays(1);
+            Mockito.when(authTokenRepository.findExpiredTokens(cutoff, from, Limit.of(10)))
+                    .thenReturn(List.of(authToken, otherToken, secondToken));
+
+            List<AuthToken> result = authTokenService.deleteExpiredTokens(cutoff, from, 10);
+            assertEquals(3, result.size());
+            Mockito.verify(authTokenRepository, Mockito.times(1)).deleteByIds(Mockito.anyCollection());
+            Mockito.verify(authTokenCache, Mockito.times(1)).invalidateUser(userId);
+            Mockito.verify(authTokenCache, Mockito.times(1)).invalidateUser(otherUserId);
+            Mockito.clearInvocations(authTokenCache);
         }
 
         // Menguji findUserToken
         {
-            Mockito.when(authTokenRepository.findUserToken(userId, "token")).thenReturn(authToken);
+            Mockito.when(authTokenRepository.findUserToken(userId, JwtUtil.digest("token"))).thenReturn(authToken);
 
             AuthToken result = authTokenService.findUserToken(userId, "token");
             assertTrue(result != null);
@@ -51,6 +101,20 @@ public class AuthTokenServiceTests {
 
             authTokenService.deleteAuthToken(userId);
             Mockito.verify(authTokenRepository, Mockito.times(1)).deleteByUserId(userId);
+            Mockito.verify(authTokenCache, Mockito.times(1)).invalidateUser(userId);
+            Mockito.verify(accessTokenService, Mockito.times(1)).revokeUser(userId);
         }
     }
+
+    @Test
+    @DisplayName("Batas token aktif per user minimal 1")
+    public void testInvalidMaxActiveTokens() {
+        AuthTokenRepository authTokenRepository = Mockito.mock(AuthTokenRepository.class);
+        AuthTokenCache authTokenCache = Mockito.mock(AuthTokenCache.class);
+        AccessTokenService accessTokenService = Mockito.mock(AccessTokenService.class);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new AuthTokenService(authTokenRepository, authTokenCache, accessTokenService, 0));
+        assertEquals("app.auth.max-active-tokens-per-user minimal 1", e.getMessage());
+    }
 }
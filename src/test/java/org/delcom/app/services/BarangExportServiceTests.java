@@ -0,0 +1,150 @@
+package org.delcom.app.services;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.delcom.app.entities.BarangStatus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import org.mockito.Mock;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import tools.jackson.databind.json.JsonMapper;
+
+@ExtendWith(MockitoExtension.class)
+public class BarangExportServiceTests {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BarangExportService barangExportService;
+    private UUID userId;
+    private UUID barangId;
+
+    @BeforeEach
+    void setUp() {
+        barangExportService = new BarangExportService(jdbcTemplate, transactionManager, JsonMapper.builder().build(), 50);
+        userId = UUID.randomUUID();
+        barangId = UUID.randomUUID();
+    }
+
+    private ResultSet row(String namaBarang, String deskripsi, LocalDateTime tanggalMasuk, String foto)
+            throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getObject("id", UUID.class)).thenReturn(barangId);
+        when(rs.getString("nama_barang")).thenReturn(namaBarang);
+        when(rs.getString("kategori")).thenReturn("Atasan");
+        when(rs.getString("deskripsi")).thenReturn(deskripsi);
+        when(rs.getObject("tanggal_masuk", LocalDateTime.class)).thenReturn(tanggalMasuk);
+        when(rs.getShort("status")).thenReturn(BarangStatus.READY.code());
+        when(rs.getString("foto")).thenReturn(foto);
+        when(rs.getObject("created_at", LocalDateTime.class)).thenReturn(LocalDateTime.of(2024, 1, 2, 8, 30));
+        when(rs.getObject("updated_at", LocalDateTime.class)).thenReturn(LocalDateTime.of(2024, 1, 3, 9, 15, 5));
+        return rs;
+    }
+
+    // Barang tanpa deskripsi, tanggal masuk, dan foto
+    private ResultSet topi() throws Exception {
+        return row("Topi", null, null, null);
+    }
+
+    // Jalankan query seperti JdbcTemplate: buat statement lalu kirim setiap baris
+    private PreparedStatement stubQuery(List<ResultSet> rows) throws Exception {
+        Connection connection = mock(Connection.class);
+        PreparedStatement ps = mock(PreparedStatement.class);
+        when(connection.prepareStatement(BarangExportService.EXPORT_SQL, ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY)).thenReturn(ps);
+        doAnswer(invocation -> {
+            PreparedStatementCreator creator = invocation.getArgument(0);
+            RowCallbackHandler handler = invocation.getArgument(1);
+            assertSame(ps, creator.createPreparedStatement(connection));
+            for (ResultSet rs : rows) {
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        return ps;
+    }
+
+    @Test
+    @DisplayName("CSV: header + satu record per barang, field khusus dikutip, dalam transaksi read-only")
+    void testExportCsv() throws Exception {
+        PreparedStatement ps = stubQuery(List.of(
+                row("Jaket \"Denim\", Biru", "Baris 1\nBaris 2", LocalDateTime.of(2024, 1, 1, 10, 0), "foto.jpg"),
+                topi()));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        barangExportService.exportCsv(userId, output);
+
+        assertEquals("id,namaBarang,kategori,deskripsi,tanggalMasuk,status,foto,createdAt,updatedAt\r\n"
+                + barangId + ",\"Jaket \"\"Denim\"\", Biru\",Atasan,\"Baris 1\nBaris 2\",2024-01-01T10:00,READY,"
+                + "foto.jpg,2024-01-02T08:30,2024-01-03T09:15:05\r\n"
+                + barangId + ",Topi,Atasan,,,READY,,2024-01-02T08:30,2024-01-03T09:15:05\r\n",
+                output.toString(StandardCharsets.UTF_8));
+        verify(ps).setObject(1, userId);
+        verify(ps).setFetchSize(50);
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertTrue(definition.getValue().isReadOnly());
+    }
+
+    @Test
+    @DisplayName("NDJSON: satu objek JSON per baris")
+    void testExportNdjson() throws Exception {
+        stubQuery(List.of(topi()));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        barangExportService.exportNdjson(userId, output);
+
+        assertEquals("{\"id\":\"" + barangId + "\",\"namaBarang\":\"Topi\",\"kategori\":\"Atasan\","
+                + "\"deskripsi\":null,\"tanggalMasuk\":null,\"status\":\"READY\",\"foto\":null,"
+                + "\"createdAt\":\"2024-01-02T08:30:00\",\"updatedAt\":\"2024-01-03T09:15:05\"}\n",
+                output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Client terputus: IOException diteruskan dan query dihentikan")
+    void testExport_ClientAbort() throws Exception {
+        // Baris jauh lebih besar dari buffer writer, jadi ditulis ke client saat itu juga
+        stubQuery(List.of(row("Jaket", "x".repeat(50_000), null, null)));
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        IOException e = assertThrows(IOException.class, () -> barangExportService.exportNdjson(userId, broken));
+        assertEquals("Broken pipe", e.getMessage());
+    }
+}
@@ -0,0 +1,281 @@
+package org.delcom.app.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.delcom.app.dto.BarangImportResult;
+import org.delcom.app.dto.BarangImportResult.RowError;
+import org.delcom.app.entities.BarangStatus;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.support.TransactionOperations;
+
+import jakarta.validation.Validation;
+import tools.jackson.databind.json.JsonMapper;
+
+@ExtendWith(MockitoExtension.class)
+public class BarangImportServiceTests {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private BarangListCache barangListCache;
+
+    @Mock
+    private KategoriDictionary kategoriDictionary;
+
+    private BarangImportService barangImportService;
+    private UUID userId;
+
+    // Satu PreparedStatement (mock) per barang yang di-insert
+    private List<PreparedStatement> inserted;
+
+    @BeforeEach
+    void setUp() {
+        // Chunk kecil (2 barang), maksimal 3 error di laporan dan baris
+        // maksimal 300 karakter
+        barangImportService = new BarangImportService(jdbcTemplate, TransactionOperations.withoutTransaction(),
+                barangListCache, kategoriDictionary, Validation.buildDefaultValidatorFactory().getValidator(),
+                JsonMapper.builder().build(), 2, 3, 300);
+        userId = UUID.randomUUID();
+        inserted = new ArrayList<>();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubBatchInsert() {
+        when(jdbcTemplate.batchUpdate(eq(BarangImportService.INSERT_SQL), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class))).thenAnswer(invocation -> {
+                    Collection<Object> rows = invocation.getArgument(1);
+                    ParameterizedPreparedStatementSetter<Object> setter = invocation.getArgument(3);
+                    for (Object row : rows) {
+                        PreparedStatement ps = mock(PreparedStatement.class);
+                        setter.setValues(ps, row);
+                        inserted.add(ps);
+                    }
+                    return new int[0][];
+                });
+    }
+
+    private static InputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("CSV: semua baris valid di-insert per chunk dengan JDBC batch")
+    void testImportCsv_Success() throws Exception {
+        stubBatchInsert();
+        when(kategoriDictionary.idOf("Atasan")).thenReturn(1);
+        when(kategoriDictionary.idOf("Sepatu")).thenReturn(2);
+        when(kategoriDictionary.idOf("Tas")).thenReturn(3);
+        // BOM, urutan kolom bebas, field berkutip (koma, baris baru, ""), CRLF, baris kosong
+        String csv = "\uFEFFkategori,namaBarang,tanggalMasuk,deskripsi,status\r\n"
+                + "Atasan,Jaket Denim,2024-01-01T10:00,\"Biru, ukuran L\",\r\n"
+                + "\r\n"
+                + "Sepatu,\"Nike \"\"Air\"\"\",2024-01-02T09:30:15,\"Baris 1\nBaris 2\",SOLD\r\n"
+                + "Tas,  Ransel  ,2024-01-03T08:00,,\n";
+
+        BarangImportResult result = barangImportService.importCsv(userId, input(csv));
+
+        assertEquals(3, result.imported());
+        assertEquals(0, result.failed());
+        assertTrue(result.errors().isEmpty());
+        assertFalse(result.errorsTruncated());
+        // 2 chunk: [Jaket, Nike] lalu [Ransel]
+        verify(jdbcTemplate, times(2)).batchUpdate(eq(BarangImportService.INSERT_SQL), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        verify(barangListCache, times(2)).invalidateUser(userId);
+
+        assertEquals(3, inserted.size());
+        PreparedStatement jaket = inserted.get(0);
+        verify(jaket).setObject(eq(1), any(UUID.class));
+        verify(jaket).setString(2, "Jaket Denim");
+        verify(jaket).setInt(3, 1);
+        verify(jaket).setString(4, "Biru, ukuran L");
+        verify(jaket).setTimestamp(5, Timestamp.valueOf(LocalDateTime.of(2024, 1, 1, 10, 0)));
+        verify(jaket).setShort(6, BarangStatus.READY.code());
+        verify(jaket).setObject(7, userId);
+
+        PreparedStatement nike = inserted.get(1);
+        verify(nike).setString(2, "Nike \"Air\"");
+        verify(nike).setString(4, "Baris 1\nBaris 2");
+        verify(nike).setInt(3, 2);
+        verify(nike).setShort(6, BarangStatus.SOLD.code());
+
+        PreparedStatement ransel = inserted.get(2);
+        verify(ransel).setString(2, "Ransel");
+        verify(ransel).setInt(3, 3);
+        verify(ransel).setString(4, null);
+    }
+
+    @Test
+    @DisplayName("CSV: baris tidak valid dilaporkan per baris, baris lain tetap di-import")
+    void testImportCsv_InvalidRows() throws Exception {
+        stubBatchInsert();
+        String csv = "namaBarang,kategori,tanggalMasuk\n"
+                + "Jaket,Atasan,2024-01-01T10:00\n"          // baris 2: valid
+                + ",Atasan,2024-01-01T10:00\n"               // baris 3: nama kosong
+                + "Kemeja,Atasan,01-01-2024\n"               // baris 4: format tanggal
+                + "Celana\n"                                 // baris 5: kolom kurang
+                + "Topi,Aksesoris,2024-01-05T10:00\n"        // baris 6: valid
+                + "x".repeat(256) + ",Atasan,2024-01-01T10:00\n"; // baris 7: nama terlalu panjang
+
+        BarangImportResult result = barangImportService.importCsv(userId, input(csv));
+
+        assertEquals(2, result.imported());
+        assertEquals(4, result.failed());
+        // Laporan dibatasi 3 error
+        assertTrue(result.errorsTruncated());
+        assertEquals(List.of(
+                new RowError(3, "Nama barang harus diisi"),
+                new RowError(4, "Format tanggal salah (Gunakan ISO-8601)"),
+                new RowError(5, "Kategori harus diisi; Tanggal restock harus diisi")), result.errors());
+        assertEquals(2, inserted.size());
+    }
+
+    @Test
+    @DisplayName("CSV: header tidak lengkap atau file kosong ditolak")
+    void testImportCsv_InvalidHeader() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> barangImportService.importCsv(userId, input("namaBarang,kategori\nJaket,Atasan\n")));
+        assertEquals("Header CSV wajib berisi kolom namaBarang, kategori, tanggalMasuk", e.getMessage());
+
+        assertThrows(IllegalArgumentException.class, () -> barangImportService.importCsv(userId, input("")));
+        verify(barangListCache, never()).invalidateUser(any());
+    }
+
+    @Test
+    @DisplayName("CSV: tanda kutip tidak ditutup menghentikan import, baris sebelumnya tetap tersimpan")
+    void testImportCsv_UnclosedQuote() throws Exception {
+        stubBatchInsert();
+        String csv = "namaBarang,kategori,tanggalMasuk\n"
+                + "Jaket,Atasan,2024-01-01T10:00\n"
+                + "\"Kemeja,Atasan,2024-01-01T10:00\n"
+                + "Topi,Aksesoris,2024-01-05T10:00\n";
+
+        BarangImportResult result = barangImportService.importCsv(userId, input(csv));
+
+        assertEquals(1, result.imported());
+        assertEquals(List.of(new RowError(3, "CSV tidak valid: Tanda kutip tidak ditutup")), result.errors());
+    }
+
+    @Test
+    @DisplayName("CSV: record terlalu panjang menghentikan import tanpa dibaca seluruhnya")
+    void testImportCsv_RecordTooLong() throws Exception {
+        stubBatchInsert();
+        String csv = "namaBarang,kategori,tanggalMasuk\n"
+                + "Jaket,Atasan,2024-01-01T10:00\n"
+                + "\"" + "x".repeat(1000) + "\n"
+                + "Topi,Aksesoris,2024-01-05T10:00\n";
+
+        BarangImportResult result = barangImportService.importCsv(userId, input(csv));
+
+        assertEquals(1, result.imported());
+        assertEquals(List.of(new RowError(3, "CSV tidak valid: Record melebihi 300 karakter")), result.errors());
+    }
+
+    @Test
+    @DisplayName("NDJSON: baris terlalu panjang dilewati, baris berikutnya tetap di-import")
+    void testImportNdjson_LineTooLong() throws Exception {
+        stubBatchInsert();
+        String ndjson = "{\"namaBarang\":\"" + "x".repeat(1000) + "\"}\r\n"
+                + "{\"namaBarang\":\"Jaket\",\"kategori\":\"Atasan\",\"tanggalMasuk\":\"2024-01-01T10:00\"}\r\n"
+                + "{\"namaBarang\":\"" + "x".repeat(1000) + "\"}";
+
+        BarangImportResult result = barangImportService.importNdjson(userId, input(ndjson));
+
+        assertEquals(1, result.imported());
+        assertEquals(List.of(
+                new RowError(1, "Baris melebihi 300 karakter"),
+                new RowError(3, "Baris melebihi 300 karakter")), result.errors());
+        verify(inserted.get(0)).setString(2, "Jaket");
+    }
+
+    @Test
+    @DisplayName("NDJSON: satu objek per baris, JSON rusak dilaporkan per baris")
+    void testImportNdjson() throws Exception {
+        stubBatchInsert();
+        String ndjson = "{\"namaBarang\":\"Jaket\",\"kategori\":\"Atasan\",\"tanggalMasuk\":\"2024-01-01T10:00\"}\n"
+                + "\n"
+                + "{\"namaBarang\":\"Kemeja\"\n"
+                + "{\"namaBarang\":\"Topi\",\"kategori\":\"Aksesoris\",\"tanggalMasuk\":\"2024-01-05T10:00\","
+                + "\"deskripsi\":\"Topi rajut\",\"status\":\"SOLD\"}\n";
+
+        BarangImportResult result = barangImportService.importNdjson(userId, input(ndjson));
+
+        assertEquals(2, result.imported());
+        assertEquals(List.of(new RowError(3, "JSON tidak valid")), result.errors());
+        verify(inserted.get(1)).setString(4, "Topi rajut");
+        verify(inserted.get(1)).setShort(6, BarangStatus.SOLD.code());
+    }
+
+    @Test
+    @DisplayName("Status tidak dikenal atau kamus kategori gagal -> baris ditolak, baris lain tetap di-import")
+    void testImport_StatusAndKategoriRejected() throws Exception {
+        stubBatchInsert();
+        when(kategoriDictionary.idOf("Atasan")).thenReturn(2);
+        when(kategoriDictionary.idOf("Rusak")).thenThrow(new DataIntegrityViolationException("kategori"));
+        String csv = "namaBarang,kategori,tanggalMasuk,status\n"
+                + "Jaket,Atasan,2024-01-01T10:00,Selesai\n"
+                + "Kemeja,Atasan,2024-01-01T10:00,HABIS\n"
+                + "Topi,Rusak,2024-01-05T10:00,\n";
+
+        BarangImportResult result = barangImportService.importCsv(userId, input(csv));
+
+        assertEquals(1, result.imported());
+        assertEquals(List.of(
+                new RowError(3, "Status harus READY atau SOLD"),
+                new RowError(4, "Gagal menyimpan ke database")), result.errors());
+        verify(inserted.get(0)).setInt(3, 2);
+        verify(inserted.get(0)).setShort(6, BarangStatus.SOLD.code());
+    }
+
+    @Test
+    @DisplayName("Chunk yang gagal disimpan di-rollback dan semua barisnya dilaporkan")
+    @SuppressWarnings("unchecked")
+    void testImport_ChunkFailure() throws Exception {
+        when(jdbcTemplate.batchUpdate(eq(BarangImportService.INSERT_SQL), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataIntegrityViolationException("constraint"));
+        String csv = "namaBarang,kategori,tanggalMasuk\n"
+                + "Jaket,Atasan,2024-01-01T10:00\n"
+                + "Topi,Aksesoris,2024-01-05T10:00\n";
+
+        BarangImportResult result = barangImportService.importCsv(userId, input(csv));
+
+        assertEquals(0, result.imported());
+        assertEquals(2, result.failed());
+        assertEquals(List.of(
+                new RowError(2, "Gagal menyimpan ke database"),
+                new RowError(3, "Gagal menyimpan ke database")), result.errors());
+        assertFalse(result.errorsTruncated());
+    }
+}
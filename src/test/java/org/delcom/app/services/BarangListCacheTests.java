@@ -0,0 +1,205 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.delcom.app.dto.BarangCursor;
+import org.delcom.app.dto.BarangPage;
+import org.delcom.app.dto.BarangVersion;
+import org.delcom.app.dto.BarangSummary;
+import org.delcom.app.entities.BarangStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class BarangListCacheTests {
+
+    private SimpleMeterRegistry meterRegistry;
+    private BarangListCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new BarangListCache(5, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    private static BarangPage page(int items) {
+        List<BarangSummary> list = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            list.add(new BarangSummary(UUID.randomUUID(), "Barang " + i, "Jaket", null, null, null, BarangStatus.READY));
+        }
+        return new BarangPage(list, null);
+    }
+
+    @Test
+    @DisplayName("Hit dan miss untuk halaman dan versi data barang")
+    void testHitAndMiss() {
+        UUID userId = UUID.randomUUID();
+        BarangCursor cursor = new BarangCursor(null, UUID.randomUUID());
+        BarangPage first = page(2);
+
+        assertNull(cache.getPage(userId, null, 2, false));
+        assertNull(cache.getVersion(userId));
+
+        cache.putPage(userId, null, 2, false, first, cache.generation());
+        cache.putVersion(userId, new BarangVersion(7, null), cache.generation());
+        cache.putVersion(userId, new BarangVersion(8, null), cache.generation());
+
+        assertSame(first, cache.getPage(userId, null, 2, false));
+        // Halaman READY di-cache terpisah dari daftar lengkap
+        assertNull(cache.getPage(userId, null, 2, true));
+        assertNull(cache.getPage(userId, null, 3, false));
+        assertNull(cache.getPage(userId, cursor, 2, false));
+        assertEquals(new BarangVersion(8, null), cache.getVersion(userId));
+
+        // Bobot = 2 barang + 1 untuk versi
+        assertEquals(3, cache.weight());
+        assertEquals(2, cache.getHits());
+        assertEquals(5, cache.getMisses());
+        assertEquals(0, cache.getEvictions());
+        assertEquals(2.0, meterRegistry.get("barang.list.cache.hits").functionCounter().count());
+        assertEquals(5.0, meterRegistry.get("barang.list.cache.misses").functionCounter().count());
+        assertEquals(0.0, meterRegistry.get("barang.list.cache.evictions").functionCounter().count());
+        assertEquals(3.0, meterRegistry.get("barang.list.cache.weight").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Halaman yang sama ditimpa, bobot dihitung ulang")
+    void testReplacePage() {
+        UUID userId = UUID.randomUUID();
+
+        cache.putPage(userId, null, 2, false, page(2), cache.generation());
+        BarangPage empty = page(0);
+        cache.putPage(userId, null, 2, false, empty, cache.generation());
+
+        assertSame(empty, cache.getPage(userId, null, 2, false));
+        // Halaman kosong tetap berbobot 1
+        assertEquals(1, cache.weight());
+    }
+
+    @Test
+    @DisplayName("User yang paling lama tidak diakses dibuang saat bobot melebihi batas")
+    void testLruEviction() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID c = UUID.randomUUID();
+
+        cache.putPage(a, null, 2, false, page(2), cache.generation());
+        cache.putPage(b, null, 2, false, page(2), cache.generation());
+        cache.getPage(a, null, 2, false);
+        cache.putPage(c, null, 2, false, page(2), cache.generation());
+
+        assertEquals(4, cache.weight());
+        assertNull(cache.getPage(b, null, 2, false));
+        assertEquals(1, cache.getEvictions());
+
+        // Satu halaman yang lebih besar dari batas tidak pernah tersimpan
+        cache.putPage(a, null, 10, false, page(6), cache.generation());
+        assertEquals(0, cache.weight());
+        assertNull(cache.getPage(a, null, 10, false));
+        assertNull(cache.getPage(c, null, 2, false));
+    }
+
+    @Test
+    @DisplayName("Invalidasi user dan hasil query lama tidak disimpan")
+    void testInvalidateUser() {
+        UUID userId = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        cache.putPage(userId, null, 2, false, page(2), cache.generation());
+        cache.putPage(other, null, 2, false, page(1), cache.generation());
+
+        long generation = cache.generation();
+        cache.invalidateUser(userId);
+        cache.invalidateUser(UUID.randomUUID());
+
+        assertNull(cache.getPage(userId, null, 2, false));
+        assertEquals(1, cache.weight());
+
+        // Query dimulai sebelum invalidasi
+        cache.putPage(userId, null, 2, false, page(2), generation);
+        cache.putVersion(userId, new BarangVersion(2, null), generation);
+        assertNull(cache.getPage(userId, null, 2, false));
+        assertNull(cache.getVersion(userId));
+
+        // Invalidasi user lain tidak menolak hasil query milik user ini
+        cache.putVersion(other, new BarangVersion(1, null), generation);
+        assertEquals(new BarangVersion(1, null), cache.getVersion(other));
+    }
+
+    @Test
+    @DisplayName("Catatan invalidasi dibatasi, user yang catatannya dibuang memakai batas bawah")
+    void testInvalidationFloor() {
+        UUID userId = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        long generation = cache.generation();
+        cache.invalidateUser(userId);
+        cache.invalidateUser(userId);
+
+        // Batas 5 catatan: userId dibuang dari catatan setelah 5 user lain
+        for (int i = 0; i < 5; i++) {
+            cache.invalidateUser(UUID.randomUUID());
+        }
+        cache.putPage(userId, null, 2, false, page(2), generation);
+        cache.putPage(other, null, 2, false, page(2), generation);
+        assertNull(cache.getPage(userId, null, 2, false));
+        assertNull(cache.getPage(other, null, 2, false));
+
+        // Query yang dimulai sesudah invalidasi tetap boleh disimpan
+        cache.putPage(other, null, 2, false, page(2), cache.generation());
+        assertEquals(2, cache.weight());
+    }
+
+    @Test
+    @DisplayName("Invalidasi di dalam transaksi diulang setelah commit")
+    void testInvalidateAfterCommit() {
+        UUID userId = UUID.randomUUID();
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.invalidateUser(userId);
+
+        // Request lain membaca data lama selama transaksi masih berjalan
+        cache.putPage(userId, null, 2, false, page(2), cache.generation());
+
+        for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+            sync.afterCommit();
+        }
+        assertNull(cache.getPage(userId, null, 2, false));
+        assertEquals(0, cache.weight());
+    }
+
+    @Test
+    @DisplayName("Data dari transaksi read-write tidak disimpan")
+    void testNoPutInsideReadWriteTransaction() {
+        UUID userId = UUID.randomUUID();
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        cache.putPage(userId, null, 2, false, page(2), cache.generation());
+        cache.putVersion(userId, new BarangVersion(2, null), cache.generation());
+        assertNull(cache.getPage(userId, null, 2, false));
+        assertNull(cache.getVersion(userId));
+
+        // Transaksi read-only boleh mengisi cache
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        cache.putVersion(userId, new BarangVersion(2, null), cache.generation());
+        assertEquals(new BarangVersion(2, null), cache.getVersion(userId));
+    }
+}
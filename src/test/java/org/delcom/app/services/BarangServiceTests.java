@@ -1,25 +1,51 @@
 package org.delcom.app.services;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
+import org.delcom.app.dto.BarangCursor;
+import org.delcom.app.dto.BarangPage;
+import org.delcom.app.dto.BarangStats;
+import org.delcom.app.dto.BarangSummary;
+import org.delcom.app.dto.BarangVersion;
 import org.delcom.app.entities.Barang;
+import org.delcom.app.entities.BarangStatus;
+import org.delcom.app.entities.User;
 import org.delcom.app.repositories.BarangRepository;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
-import org.mockito.InjectMocks;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
 import org.springframework.web.multipart.MultipartFile;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,9 +57,35 @@ public class BarangServiceTests {
     @Mock
     private FileStorageService fileStorageService;
 
-    @InjectMocks
+    @Mock
+    private FileDeletionQueue fileDeletionQueue;
+
+    @Mock
+    private BarangListCache barangListCache;
+
+    @Mock
+    private KategoriDictionary kategoriDictionary;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private BarangService barangService;
 
+    @BeforeEach
+    void setUp() {
+        barangService = new BarangService(barangRepository, fileStorageService, fileDeletionQueue, barangListCache,
+                kategoriDictionary, transactionManager, 2, 3);
+    }
+
+    // Barang dari database selalu punya pemilik
+    private static Barang barangMilikUser() {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        Barang barang = new Barang();
+        barang.setUser(user);
+        return barang;
+    }
+
     // ==========================================
     // 1. TEST CREATE BARANG
     // ==========================================
@@ -41,34 +93,58 @@ public class BarangServiceTests {
     @Test
     @DisplayName("Create: Sukses dengan File")
     void testCreateBarang_WithFile() throws IOException {
-        Barang barang = new Barang();
-        barang.setId(UUID.randomUUID());
+        Barang barang = barangMilikUser();
+        barang.setKategori("Sepatu");
         MultipartFile file = mock(MultipartFile.class);
         
+        when(kategoriDictionary.idOf("Sepatu")).thenReturn(5);
         when(file.isEmpty()).thenReturn(false);
         when(barangRepository.save(any(Barang.class))).thenReturn(barang);
-        when(fileStorageService.storeFile(file, barang.getId())).thenReturn("foto.jpg");
+        when(fileStorageService.stageFile(file)).thenReturn("foto.jpg");
 
         barangService.createBarang(barang, file);
 
-        verify(fileStorageService).storeFile(file, barang.getId());
+        // Satu kali insert dengan foto dan kategori_id sudah terisi, file final setelah commit
+        assertEquals("foto.jpg", barang.getFoto());
+        assertEquals(5, barang.getKategoriId());
+        verify(barangRepository).save(barang);
+        InOrder inOrder = inOrder(fileStorageService, barangRepository);
+        inOrder.verify(fileStorageService).stageFile(file);
+        inOrder.verify(fileStorageService).promoteOnCommit("foto.jpg");
+        inOrder.verify(barangRepository).save(barang);
+        verify(barangListCache).invalidateUser(barang.getUser().getId());
     }
 
     @Test
     @DisplayName("Create: File Null (Skip Upload)")
     void testCreateBarang_FileNull() throws IOException {
-        Barang barang = new Barang();
+        Barang barang = barangMilikUser();
         when(barangRepository.save(any(Barang.class))).thenReturn(barang);
         
         barangService.createBarang(barang, null);
         
-        verify(fileStorageService, never()).storeFile(any(), any());
+        verify(fileStorageService, never()).stageFile(any());
+    }
+
+    @Test
+    @DisplayName("Create: id dan foto dari request diabaikan -> selalu insert baru")
+    void testCreateBarang_IgnoresPostedIdAndFoto() throws IOException {
+        Barang barang = barangMilikUser();
+        barang.setId(UUID.randomUUID()); // id barang milik user lain
+        barang.setFoto("milik-orang-lain.jpg");
+        when(barangRepository.save(barang)).thenReturn(barang);
+
+        barangService.createBarang(barang, null);
+
+        assertNull(barang.getId());
+        assertNull(barang.getFoto());
+        verify(barangRepository).save(barang);
     }
 
     @Test
     @DisplayName("Create: File Empty (Skip Upload)")
     void testCreateBarang_FileEmpty() throws IOException {
-        Barang barang = new Barang();
+        Barang barang = barangMilikUser();
         MultipartFile file = mock(MultipartFile.class);
         when(file.isEmpty()).thenReturn(true); // File ada tapi kosong
 
@@ -76,7 +152,7 @@ public class BarangServiceTests {
 
         barangService.createBarang(barang, file);
         
-        verify(fileStorageService, never()).storeFile(any(), any());
+        verify(fileStorageService, never()).stageFile(any());
     }
 
     // ==========================================
@@ -84,12 +160,14 @@ public class BarangServiceTests {
     // ==========================================
 
     @Test
-    @DisplayName("Update: ID Tidak Ditemukan -> Return Null")
+    @DisplayName("Update: ID Tidak Ditemukan / Milik User Lain -> Return Null")
     void testUpdateBarang_NotFound() throws IOException {
+        UUID userId = UUID.randomUUID();
         UUID id = UUID.randomUUID();
-        when(barangRepository.findById(id)).thenReturn(Optional.empty());
+        when(barangRepository.findByIdAndUserId(id, userId)).thenReturn(Optional.empty());
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
 
-        Barang result = barangService.updateBarang(id, new Barang(), null);
+        Barang result = barangService.updateBarang(userId, id, new Barang(), null);
         
         assertNull(result); // Pastikan return null
     }
@@ -98,73 +176,129 @@ public class BarangServiceTests {
     @DisplayName("Update: File Null (Tidak Ganti Foto)")
     void testUpdateBarang_FileNull() throws IOException {
         UUID id = UUID.randomUUID();
-        Barang existing = new Barang(); 
+        Barang existing = barangMilikUser(); 
         existing.setId(id);
         
-        when(barangRepository.findById(id)).thenReturn(Optional.of(existing));
+        when(barangRepository.findByIdAndUserId(id, existing.getUser().getId())).thenReturn(Optional.of(existing));
         when(barangRepository.save(any(Barang.class))).thenReturn(existing);
 
-        barangService.updateBarang(id, new Barang(), null);
+        barangService.updateBarang(existing.getUser().getId(), id, new Barang(), null);
 
-        verify(fileStorageService, never()).storeFile(any(), any());
+        verify(fileStorageService, never()).stageFile(any());
     }
 
     @Test
     @DisplayName("Update: File Empty (Tidak Ganti Foto)")
     void testUpdateBarang_FileEmpty() throws IOException {
         UUID id = UUID.randomUUID();
-        Barang existing = new Barang(); existing.setId(id);
+        Barang existing = barangMilikUser(); existing.setId(id);
         MultipartFile file = mock(MultipartFile.class);
         when(file.isEmpty()).thenReturn(true);
 
-        when(barangRepository.findById(id)).thenReturn(Optional.of(existing));
+        when(barangRepository.findByIdAndUserId(id, existing.getUser().getId())).thenReturn(Optional.of(existing));
         when(barangRepository.save(any(Barang.class))).thenReturn(existing);
 
-        barangService.updateBarang(id, new Barang(), file);
+        barangService.updateBarang(existing.getUser().getId(), id, new Barang(), file);
 
-        verify(fileStorageService, never()).storeFile(any(), any());
+        verify(fileStorageService, never()).stageFile(any());
     }
 
     @Test
     @DisplayName("Update: Ganti Foto, TAPI Foto Lama Null (Cover Baris 71)")
     void testUpdateBarang_NewFile_OldPhotoNull() throws IOException {
         UUID id = UUID.randomUUID();
-        Barang existing = new Barang(); 
+        Barang existing = barangMilikUser(); 
         existing.setId(id);
         existing.setFoto(null); // Foto lama tidak ada
 
         MultipartFile newFile = mock(MultipartFile.class);
         when(newFile.isEmpty()).thenReturn(false);
 
-        when(barangRepository.findById(id)).thenReturn(Optional.of(existing));
+        when(barangRepository.findByIdAndUserId(id, existing.getUser().getId())).thenReturn(Optional.of(existing));
         when(barangRepository.save(any(Barang.class))).thenReturn(existing);
-        when(fileStorageService.storeFile(newFile, id)).thenReturn("baru.jpg");
+        when(fileStorageService.stageFile(newFile)).thenReturn("baru.jpg");
 
-        barangService.updateBarang(id, new Barang(), newFile);
+        barangService.updateBarang(existing.getUser().getId(), id, new Barang(), newFile);
 
-        verify(fileStorageService, never()).deleteFile(any()); // Jangan hapus apa2
-        verify(fileStorageService).storeFile(newFile, id);     // Tetap upload baru
+        verify(fileDeletionQueue, never()).enqueue(any()); // Jangan hapus apa2
+        verify(fileStorageService).promoteOnCommit("baru.jpg"); // Tetap upload baru
+        assertEquals("baru.jpg", existing.getFoto());
     }
 
     @Test
     @DisplayName("Update: Ganti Foto Normal (Hapus Lama, Simpan Baru)")
     void testUpdateBarang_NewFile_WithOldPhoto() throws IOException {
         UUID id = UUID.randomUUID();
-        Barang existing = new Barang(); 
+        Barang existing = barangMilikUser(); 
         existing.setId(id);
         existing.setFoto("lama.jpg");
 
         MultipartFile newFile = mock(MultipartFile.class);
         when(newFile.isEmpty()).thenReturn(false);
 
-        when(barangRepository.findById(id)).thenReturn(Optional.of(existing));
+        when(barangRepository.findByIdAndUserId(id, existing.getUser().getId())).thenReturn(Optional.of(existing));
         when(barangRepository.save(any(Barang.class))).thenReturn(existing);
-        when(fileStorageService.storeFile(newFile, id)).thenReturn("baru.jpg");
+        when(fileStorageService.stageFile(newFile)).thenReturn("baru.jpg");
+
+        Barang details = new Barang();
+        details.setKategori("Jaket");
+        when(kategoriDictionary.idOf("Jaket")).thenReturn(4);
+
+        barangService.updateBarang(existing.getUser().getId(), id, details, newFile);
+
+        // File lama masuk antrian hapus di transaksi yang sama
+        verify(fileDeletionQueue).enqueue("lama.jpg");
+        verify(fileStorageService, never()).deleteFile(any());
+        verify(fileStorageService).promoteOnCommit("baru.jpg");
+        assertEquals("baru.jpg", existing.getFoto());
+        assertEquals("Jaket", existing.getKategori());
+        assertEquals(4, existing.getKategoriId());
+        verify(barangListCache).invalidateUser(existing.getUser().getId());
+        verify(barangRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Update: ID Tidak Ditemukan dengan file baru -> transaksi di-rollback, file lama tidak dihapus")
+    void testUpdateBarang_NotFound_WithFile() throws IOException {
+        UUID userId = UUID.randomUUID();
+        UUID id = UUID.randomUUID();
+        MultipartFile newFile = mock(MultipartFile.class);
+        when(newFile.isEmpty()).thenReturn(false);
+        when(fileStorageService.stageFile(newFile)).thenReturn("baru.jpg");
+        when(barangRepository.findByIdAndUserId(id, userId)).thenReturn(Optional.empty());
+        TransactionStatus status = new SimpleTransactionStatus();
+        when(transactionManager.getTransaction(any())).thenReturn(status);
 
-        barangService.updateBarang(id, new Barang(), newFile);
+        assertNull(barangService.updateBarang(userId, id, new Barang(), newFile));
 
-        verify(fileStorageService).deleteFile("lama.jpg");
-        verify(fileStorageService).storeFile(newFile, id);
+        assertTrue(status.isRollbackOnly());
+        verifyNoInteractions(fileDeletionQueue);
+    }
+
+    @Test
+    @DisplayName("Create: insert gagal -> file staging dibuang")
+    void testCreateBarang_SaveFails() throws IOException {
+        Barang barang = barangMilikUser();
+        MultipartFile file = mock(MultipartFile.class);
+        when(file.isEmpty()).thenReturn(false);
+        when(fileStorageService.stageFile(file)).thenReturn("foto.jpg");
+        when(barangRepository.save(barang)).thenThrow(new DataIntegrityViolationException("constraint"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> barangService.createBarang(barang, file));
+
+        verify(fileStorageService).discardStaged("foto.jpg");
+        verifyNoInteractions(barangListCache);
+    }
+
+    @Test
+    @DisplayName("Create: insert gagal tanpa file")
+    void testCreateBarang_SaveFails_NoFile() {
+        Barang barang = barangMilikUser();
+        when(barangRepository.save(barang)).thenThrow(new DataIntegrityViolationException("constraint"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> barangService.createBarang(barang, null));
+
+        verify(fileStorageService, never()).discardStaged(any());
     }
 
     // ==========================================
@@ -172,26 +306,77 @@ public class BarangServiceTests {
     // ==========================================
 
     @Test
-    @DisplayName("Update Status: Sukses")
+    @DisplayName("Update Status: Sukses dengan satu UPDATE ... RETURNING milik user")
     void testUpdateStatus_Success() {
+        UUID userId = UUID.randomUUID();
         UUID id = UUID.randomUUID();
-        Barang b = new Barang();
-        when(barangRepository.findById(id)).thenReturn(Optional.of(b));
-        when(barangRepository.save(b)).thenReturn(b);
-
-        Barang result = barangService.updateStatus(id, "SOLD");
-        assertEquals("SOLD", result.getStatus());
+        Barang b = barangMilikUser();
+        b.setStatus(BarangStatus.SOLD);
+        when(barangRepository.updateStatusReturning(eq(userId), eq(id), eq(BarangStatus.SOLD.code()),
+                any(LocalDateTime.class))).thenReturn(Optional.of(b));
+
+        Barang result = barangService.updateStatus(userId, id, BarangStatus.SOLD);
+        assertEquals(BarangStatus.SOLD, result.getStatus());
+        verify(barangListCache).invalidateUser(userId);
+        verify(barangRepository, never()).findById(any());
+        verify(barangRepository, never()).save(any());
     }
 
     @Test
-    @DisplayName("Update Status: ID Tidak Ditemukan -> Return Null (Cover Line 91)")
+    @DisplayName("Update Status: tidak ada baris yang berubah (tidak ada / milik user lain) -> Return Null")
     void testUpdateStatus_NotFound() {
+        UUID userId = UUID.randomUUID();
         UUID id = UUID.randomUUID();
-        when(barangRepository.findById(id)).thenReturn(Optional.empty()); // Tidak ketemu
+        when(barangRepository.updateStatusReturning(eq(userId), eq(id), eq(BarangStatus.SOLD.code()),
+                any(LocalDateTime.class))).thenReturn(Optional.empty());
 
-        Barang result = barangService.updateStatus(id, "SOLD");
-        
-        assertNull(result); // Cover return null di paling bawah method
+        Barang result = barangService.updateStatus(userId, id, BarangStatus.SOLD);
+
+        assertNull(result);
+        verifyNoInteractions(barangListCache);
+    }
+
+    @Test
+    @DisplayName("Update Status Massal: satu UPDATE, id duplikat digabung, cache dihapus jika ada yang berubah")
+    void testUpdateStatusBulk_Success() {
+        UUID userId = UUID.randomUUID();
+        UUID id1 = UUID.randomUUID();
+        UUID id2 = UUID.randomUUID();
+        when(barangRepository.updateStatusReturningIds(eq(userId), eq(Set.of(id1, id2)), eq(BarangStatus.SOLD.code()),
+                any(LocalDateTime.class))).thenReturn(List.of(id1));
+
+        List<UUID> result = barangService.updateStatusBulk(userId, List.of(id1, id2, id1), BarangStatus.SOLD);
+
+        assertEquals(List.of(id1), result);
+        verify(barangListCache).invalidateUser(userId);
+    }
+
+    @Test
+    @DisplayName("Update Status Massal: tidak ada yang berubah -> cache tetap")
+    void testUpdateStatusBulk_NothingChanged() {
+        UUID userId = UUID.randomUUID();
+        UUID id = UUID.randomUUID();
+        when(barangRepository.updateStatusReturningIds(eq(userId), eq(Set.of(id)), eq(BarangStatus.SOLD.code()),
+                any(LocalDateTime.class))).thenReturn(List.of());
+
+        assertTrue(barangService.updateStatusBulk(userId, List.of(id), BarangStatus.SOLD).isEmpty());
+        verify(barangListCache, never()).invalidateUser(any());
+    }
+
+    @Test
+    @DisplayName("Update Status Massal: daftar kosong atau terlalu banyak id")
+    void testUpdateStatusBulk_Invalid() {
+        UUID userId = UUID.randomUUID();
+        assertTrue(barangService.updateStatusBulk(userId, List.of(), BarangStatus.SOLD).isEmpty());
+
+        List<UUID> tooMany = new ArrayList<>();
+        for (int i = 0; i <= BarangService.MAX_BULK_STATUS_IDS; i++) {
+            tooMany.add(UUID.randomUUID());
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> barangService.updateStatusBulk(userId, tooMany, BarangStatus.SOLD));
+
+        verifyNoInteractions(barangRepository, barangListCache);
     }
 
     // ==========================================
@@ -199,58 +384,252 @@ public class BarangServiceTests {
     // ==========================================
 
     @Test
-    @DisplayName("Delete: ID Tidak Ditemukan (Cover Line 98)")
+    @DisplayName("Delete: ID Tidak Ditemukan / Milik User Lain (Cover Line 98)")
     void testDeleteBarang_NotFound() {
+        UUID userId = UUID.randomUUID();
         UUID id = UUID.randomUUID();
-        when(barangRepository.findById(id)).thenReturn(Optional.empty());
+        when(barangRepository.deleteReturning(userId, id)).thenReturn(Optional.empty());
 
-        barangService.deleteBarang(id);
+        assertFalse(barangService.deleteBarang(userId, id));
 
-        // Pastikan tidak ada delete yang dipanggil
-        verify(barangRepository, never()).delete(any());
+        verifyNoInteractions(barangListCache, fileDeletionQueue);
     }
 
     @Test
     @DisplayName("Delete: Barang Ada, TAPI Foto Null (Cover Line 100)")
     void testDeleteBarang_NoPhoto() {
+        UUID userId = UUID.randomUUID();
         UUID id = UUID.randomUUID();
-        Barang b = new Barang();
+        Barang b = barangMilikUser();
         b.setFoto(null); // Tidak punya foto
 
-        when(barangRepository.findById(id)).thenReturn(Optional.of(b));
+        when(barangRepository.deleteReturning(userId, id)).thenReturn(Optional.of(b));
 
-        barangService.deleteBarang(id);
+        assertTrue(barangService.deleteBarang(userId, id));
 
-        verify(fileStorageService, never()).deleteFile(any()); // Jangan panggil service delete file
-        verify(barangRepository).delete(b); // Tapi tetap hapus data DB
+        verify(fileDeletionQueue, never()).enqueue(any()); // Jangan antrikan hapus file
+        verify(barangListCache).invalidateUser(userId);
     }
 
     @Test
-    @DisplayName("Delete: Barang Ada & Foto Ada")
+    @DisplayName("Delete: Barang Ada & Foto Ada, satu DELETE tanpa load entity dulu")
     void testDeleteBarang_WithPhoto() {
+        UUID userId = UUID.randomUUID();
         UUID id = UUID.randomUUID();
-        Barang b = new Barang();
+        Barang b = barangMilikUser();
         b.setFoto("gambar.jpg");
 
-        when(barangRepository.findById(id)).thenReturn(Optional.of(b));
+        when(barangRepository.deleteReturning(userId, id)).thenReturn(Optional.of(b));
 
-        barangService.deleteBarang(id);
+        assertTrue(barangService.deleteBarang(userId, id));
 
-        verify(fileStorageService).deleteFile("gambar.jpg");
-        verify(barangRepository).delete(b);
+        // Dihapus worker setelah commit, bukan di dalam transaksi
+        verify(fileDeletionQueue).enqueue("gambar.jpg");
+        verify(fileStorageService, never()).deleteFile(any());
+        verify(barangRepository, never()).findById(any());
+        verify(barangRepository, never()).delete(any());
+        verify(barangListCache).invalidateUser(userId);
     }
 
     // ==========================================
     // 5. TEST GETTERS
     // ==========================================
     @Test
-    @DisplayName("Get All & Get By Id")
+    @DisplayName("Get By Id & Version")
     void testGetters() {
         UUID id = UUID.randomUUID();
-        when(barangRepository.findById(id)).thenReturn(Optional.of(new Barang()));
-        assertNotNull(barangService.getBarangById(id));
+        UUID userId = UUID.randomUUID();
+        when(barangRepository.findByIdAndUserId(id, userId)).thenReturn(Optional.of(new Barang()));
+        assertNotNull(barangService.getBarangById(userId, id));
+
+        BarangVersion version = new BarangVersion(7, LocalDateTime.of(2024, 1, 1, 10, 0));
+        when(barangListCache.generation()).thenReturn(4L);
+        when(barangRepository.findVersion(id)).thenReturn(version);
+        assertEquals(version, barangService.getVersion(id));
+        verify(barangListCache).putVersion(id, version, 4L);
+
+        // Cache miss: query dijalankan dalam transaksi read-only
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertTrue(definition.getValue().isReadOnly());
+    }
+
+    @Test
+    @DisplayName("Page & Version: diambil dari cache tanpa query dan tanpa transaksi")
+    void testCacheHit() {
+        UUID userId = UUID.randomUUID();
+        BarangPage cachedPage = new BarangPage(barangList(1), null);
+        when(barangListCache.getPage(userId, null, 2, false)).thenReturn(cachedPage);
+        BarangVersion version = new BarangVersion(9, null);
+        when(barangListCache.getVersion(userId)).thenReturn(version);
+
+        assertEquals(cachedPage, barangService.getBarangPage(userId, null, null, false));
+        assertEquals(version, barangService.getVersion(userId));
+
+        verify(barangRepository, never()).findFirstPage(any(), any());
+        verify(barangRepository, never()).findVersion(any());
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    @DisplayName("Stats: dibaca dari counter, rebuild menghitung ulang dari tabel barang")
+    void testStats() {
+        UUID userId = UUID.randomUUID();
+        when(barangRepository.findStats(userId)).thenReturn(List.of(
+                new BarangStats.Counter("Jaket", BarangStatus.READY.code(), 3),
+                new BarangStats.Counter("Jaket", BarangStatus.SOLD.code(), 1)));
+
+        BarangStats stats = barangService.getStats(userId);
+        assertEquals(4, stats.total());
+        assertEquals(3, stats.ready());
+
+        assertEquals(stats, barangService.rebuildStats(userId));
+        InOrder inOrder = inOrder(barangRepository);
+        inOrder.verify(barangRepository).deleteStats(userId);
+        inOrder.verify(barangRepository).insertStatsFromBarang(userId);
+    }
+
+    // ==========================================
+    // 6. TEST PAGING (KEYSET)
+    // ==========================================
+    private static List<BarangSummary> barangList(int count) {
+        List<BarangSummary> list = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            list.add(new BarangSummary(UUID.randomUUID(), "Barang " + i, "Jaket", null,
+                    LocalDateTime.of(2024, 1, 10 - i, 10, 0), null, BarangStatus.READY));
+        }
+        return list;
+    }
+
+    @Test
+    @DisplayName("Page: halaman pertama dengan halaman berikutnya")
+    void testFirstPageWithNext() {
+        UUID userId = UUID.randomUUID();
+        List<BarangSummary> rows = barangList(3);
+        when(barangRepository.findFirstPage(userId, Limit.of(3))).thenReturn(rows);
+
+        when(barangListCache.generation()).thenReturn(5L);
+
+        BarangPage page = barangService.getBarangPage(userId, null, null, false);
+
+        assertEquals(rows.subList(0, 2), page.items());
+        verify(barangListCache).putPage(userId, null, 2, false, page, 5L);
+        assertEquals(BarangCursor.of(rows.get(1)), BarangCursor.decode(page.nextCursor()));
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertTrue(definition.getValue().isReadOnly());
+    }
+
+    @Test
+    @DisplayName("Page: halaman terakhir tanpa nextCursor")
+    void testLastPage() {
+        UUID userId = UUID.randomUUID();
+        List<BarangSummary> rows = barangList(2);
+        when(barangRepository.findFirstPage(userId, Limit.of(3))).thenReturn(rows);
+
+        BarangPage page = barangService.getBarangPage(userId, null, null, false);
+
+        assertEquals(rows, page.items());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    @DisplayName("Page: cursor dengan dan tanpa tanggal masuk")
+    void testPageAfterCursor() {
+        UUID userId = UUID.randomUUID();
+        UUID lastId = UUID.randomUUID();
+        LocalDateTime tanggal = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+        when(barangRepository.findPageAfter(userId, tanggal, lastId, Limit.of(2))).thenReturn(List.of());
+        BarangPage dated = barangService.getBarangPage(userId, new BarangCursor(tanggal, lastId), 1, false);
+        assertEquals(List.of(), dated.items());
+
+        when(barangRepository.findPageAfterUndated(userId, lastId, Limit.of(2))).thenReturn(List.of());
+        BarangPage undated = barangService.getBarangPage(userId, new BarangCursor(null, lastId), 1, false);
+        assertNull(undated.nextCursor());
+    }
+
+    @Test
+    @DisplayName("Page: hanya barang READY lewat query READY, di-cache terpisah")
+    void testReadyPage() {
+        UUID userId = UUID.randomUUID();
+        UUID lastId = UUID.randomUUID();
+        LocalDateTime tanggal = LocalDateTime.of(2024, 1, 1, 10, 0);
+        List<BarangSummary> rows = barangList(1);
+        when(barangRepository.findReadyFirstPage(userId, Limit.of(3))).thenReturn(rows);
+        when(barangListCache.generation()).thenReturn(6L);
+
+        BarangPage page = barangService.getBarangPage(userId, null, null, true);
+        assertEquals(rows, page.items());
+        verify(barangListCache).putPage(userId, null, 2, true, page, 6L);
+
+        when(barangRepository.findReadyPageAfter(userId, tanggal, lastId, Limit.of(2))).thenReturn(List.of());
+        assertEquals(List.of(), barangService.getBarangPage(userId, new BarangCursor(tanggal, lastId), 1, true).items());
+
+        when(barangRepository.findReadyPageAfterUndated(userId, lastId, Limit.of(2))).thenReturn(List.of());
+        assertEquals(List.of(), barangService.getBarangPage(userId, new BarangCursor(null, lastId), 1, true).items());
+
+        verify(barangRepository, never()).findFirstPage(any(), any());
+    }
+
+    @Test
+    @DisplayName("Page: ukuran halaman dibatasi antara 1 dan max")
+    void testPageSizeClamped() {
+        UUID userId = UUID.randomUUID();
+        when(barangRepository.findFirstPage(any(UUID.class), any(Limit.class))).thenReturn(List.of());
+
+        barangService.getBarangPage(userId, null, 0, false);
+        verify(barangRepository).findFirstPage(userId, Limit.of(2));
+
+        barangService.getBarangPage(userId, null, 1000, false);
+        verify(barangRepository).findFirstPage(userId, Limit.of(4));
+    }
+
+    @Test
+    @DisplayName("Search: kata kunci menjadi tsquery, hanya huruf dan angka")
+    void testToPrefixQuery() {
+        assertEquals("nike & air & 90", BarangService.toTsQuery("  Nike AIR-90 "));
+        assertEquals("jaket & l", BarangService.toTsQuery("jaket & !l:*"));
+        assertEquals("a & b & c & d & e & f & g & h",
+                BarangService.toTsQuery("a b c d e f g h i j"));
+        assertNull(BarangService.toTsQuery(null));
+        assertNull(BarangService.toTsQuery(" !&| "));
+    }
+
+    @Test
+    @DisplayName("Search: tanpa kata yang bisa dicari atau tanpa hasil")
+    void testSearchBarang_Empty() {
+        UUID userId = UUID.randomUUID();
+
+        // Tidak ada kata -> tidak query ke database
+        {
+            assertEquals(List.of(), barangService.searchBarang(userId, "***", null, null, null));
+            verify(barangRepository, never()).searchIds(any(), any(), any(), any(), anyInt());
+        }
+
+        // Tidak ada id yang cocok -> tidak mengambil summary
+        {
+            when(barangRepository.searchIds(userId, "nike", null, null, 2)).thenReturn(List.of());
+            assertEquals(List.of(), barangService.searchBarang(userId, "nike", null, " ", null));
+            verify(barangRepository, never()).findSummariesByIdIn(any());
+        }
+    }
+
+    @Test
+    @DisplayName("Search: hasil mengikuti urutan relevansi dan filter diteruskan")
+    void testSearchBarang_Ranked() {
+        UUID userId = UUID.randomUUID();
+        List<BarangSummary> rows = barangList(3);
+        UUID deletedId = UUID.randomUUID();
+        List<UUID> ids = List.of(rows.get(2).id(), deletedId, rows.get(0).id(), rows.get(1).id());
+
+        when(barangRepository.searchIds(userId, "jaket", BarangStatus.READY.code(), "Jaket", 3)).thenReturn(ids);
+        // Database mengembalikan urutan acak, barang deletedId sudah terhapus
+        when(barangRepository.findSummariesByIdIn(ids)).thenReturn(List.of(rows.get(1), rows.get(0), rows.get(2)));
+
+        List<BarangSummary> results = barangService.searchBarang(userId, "jaket", BarangStatus.READY, "Jaket", 1000);
 
-        barangService.getAllBarang(id);
-        verify(barangRepository).findAllByUserIdOrderByTanggalMasukDesc(id);
+        assertEquals(List.of(rows.get(2), rows.get(0), rows.get(1)), results);
     }
-}
\ No newline at end of file
+}
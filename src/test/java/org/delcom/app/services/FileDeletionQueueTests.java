@@ -0,0 +1,106 @@
+package org.delcom.app.services;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.delcom.app.entities.FileDeletion;
+import org.delcom.app.repositories.FileDeletionRepository;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class FileDeletionQueueTests {
+
+    @Mock
+    private FileDeletionRepository fileDeletionRepository;
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private FileDeletionQueue fileDeletionQueue;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Batch 2 barang, maksimal 3 percobaan, retry pertama setelah 1 menit
+        fileDeletionQueue = new FileDeletionQueue(fileDeletionRepository, fileStorageService, 2, 3,
+                Duration.ofMinutes(1), meterRegistry);
+    }
+
+    private static FileDeletion claimed(long id, String filename, int attempts) {
+        FileDeletion deletion = new FileDeletion(filename);
+        deletion.setId(id);
+        deletion.setAttempts(attempts);
+        return deletion;
+    }
+
+    @Test
+    @DisplayName("Enqueue menyimpan baris antrian (ikut transaksi pemanggil)")
+    void testEnqueue() {
+        fileDeletionQueue.enqueue("foto.jpg");
+
+        verify(fileDeletionRepository).save(argThat(deletion -> deletion.getFilename().equals("foto.jpg")
+                && deletion.getAttempts() == 0 && deletion.getNextAttemptAt().equals(deletion.getCreatedAt())));
+    }
+
+    @Test
+    @DisplayName("Drain menghapus file per batch sampai antrian kosong")
+    void testDrainInBatches() throws IOException {
+        when(fileDeletionRepository.claimDue(any(LocalDateTime.class), eq(60L), eq(2)))
+                .thenReturn(List.of(claimed(1, "a.jpg", 1), claimed(2, "b.jpg", 1)))
+                .thenReturn(List.of(claimed(3, "c.jpg", 1)));
+
+        assertEquals(3, fileDeletionQueue.drain());
+
+        verify(fileStorageService).deleteFileOrThrow("a.jpg");
+        verify(fileStorageService).deleteFileOrThrow("c.jpg");
+        verify(fileDeletionRepository).deleteByIds(List.of(1L, 2L));
+        verify(fileDeletionRepository).deleteByIds(List.of(3L));
+        assertEquals(3.0, meterRegistry.get("file.deletion.deleted").counter().count());
+    }
+
+    @Test
+    @DisplayName("File yang gagal dihapus tetap di antrian sampai batas percobaan, lalu dibuang")
+    void testDrainRetries() throws IOException {
+        when(fileDeletionRepository.claimDue(any(LocalDateTime.class), anyLong(), anyInt()))
+                .thenReturn(List.of(claimed(1, "gagal.jpg", 1), claimed(2, "menyerah.jpg", 3)))
+                .thenReturn(List.of());
+        doThrow(new IOException("Disk Error Simulation")).when(fileStorageService).deleteFileOrThrow(any());
+
+        assertEquals(2, fileDeletionQueue.drain());
+
+        // Hanya yang sudah 3 kali gagal yang dibuang; yang lain di-claim lagi
+        // oleh run berikutnya (next_attempt_at sudah dimundurkan saat claim)
+        verify(fileDeletionRepository).deleteByIds(List.of(2L));
+        assertEquals(2.0, meterRegistry.get("file.deletion.failed").counter().count());
+    }
+
+    @Test
+    @DisplayName("Drain tanpa antrian")
+    void testDrainNothing() {
+        when(fileDeletionRepository.claimDue(any(LocalDateTime.class), anyLong(), anyInt())).thenReturn(List.of());
+
+        assertEquals(0, fileDeletionQueue.drain());
+
+        verify(fileDeletionRepository, never()).deleteByIds(any());
+    }
+}
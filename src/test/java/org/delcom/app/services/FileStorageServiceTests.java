@@ -11,12 +11,14 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.UUID;
+import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
 class FileStorageServiceTests {
@@ -47,10 +49,10 @@ class FileStorageServiceTests {
         when(mockFile.getInputStream()).thenReturn(new ByteArrayInputStream("content".getBytes()));
 
         // Action
-        service.storeFile(mockFile, UUID.randomUUID());
+        service.stageFile(mockFile);
 
-        // Assert: Pastikan folder benar-benar dibuat
-        assertTrue(Files.exists(nonExistentDir));
+        // Assert: Pastikan folder (beserta folder staging) benar-benar dibuat
+        assertTrue(Files.exists(nonExistentDir.resolve(FileStorageService.STAGING_DIR)));
     }
 
     @Test
@@ -60,7 +62,7 @@ class FileStorageServiceTests {
         when(mockFile.getOriginalFilename()).thenReturn("gambar.png");
         when(mockFile.getInputStream()).thenReturn(new ByteArrayInputStream("abc".getBytes()));
 
-        String result = service.storeFile(mockFile, UUID.randomUUID());
+        String result = service.stageFile(mockFile);
         assertTrue(result.endsWith(".png"));
     }
 
@@ -71,7 +73,7 @@ class FileStorageServiceTests {
         when(mockFile.getOriginalFilename()).thenReturn("file_tanpa_titik"); // Tidak ada "."
         when(mockFile.getInputStream()).thenReturn(new ByteArrayInputStream("abc".getBytes()));
 
-        String result = service.storeFile(mockFile, UUID.randomUUID());
+        String result = service.stageFile(mockFile);
         // Harus tidak punya ekstensi, cuma "barang" + UUID
         assertFalse(result.contains(".")); 
     }
@@ -83,10 +85,84 @@ class FileStorageServiceTests {
         when(mockFile.getOriginalFilename()).thenReturn(null); // Null
         when(mockFile.getInputStream()).thenReturn(new ByteArrayInputStream("abc".getBytes()));
 
-        String result = service.storeFile(mockFile, UUID.randomUUID());
+        String result = service.stageFile(mockFile);
         assertNotNull(result);
     }
 
+    @Test
+    @DisplayName("Nama file selalu baru, file staging belum terlihat di folder upload")
+    void testStageFile_UniqueAndStaged() throws IOException {
+        MultipartFile mockFile = mock(MultipartFile.class);
+        when(mockFile.getOriginalFilename()).thenReturn("gambar.png");
+        when(mockFile.getInputStream()).thenAnswer(invocation -> new ByteArrayInputStream("abc".getBytes()));
+
+        String first = service.stageFile(mockFile);
+        String second = service.stageFile(mockFile);
+
+        assertNotEquals(first, second);
+        assertTrue(Files.exists(tempDir.resolve(FileStorageService.STAGING_DIR).resolve(first)));
+        assertFalse(Files.exists(tempDir.resolve(first)));
+    }
+
+    // --- GROUP 1b: TEST COMMIT / ROLLBACK FILE STAGING ---
+
+    private String stage() throws IOException {
+        MultipartFile mockFile = mock(MultipartFile.class);
+        when(mockFile.getOriginalFilename()).thenReturn("gambar.png");
+        when(mockFile.getInputStream()).thenReturn(new ByteArrayInputStream("abc".getBytes()));
+        return service.stageFile(mockFile);
+    }
+
+    @Test
+    @DisplayName("Di luar transaksi file staging langsung dipindahkan ke folder upload")
+    void testPromote_WithoutTransaction() throws IOException {
+        String filename = stage();
+
+        service.promoteOnCommit(filename);
+
+        assertEquals("abc", Files.readString(tempDir.resolve(filename)));
+        assertFalse(Files.exists(tempDir.resolve(FileStorageService.STAGING_DIR).resolve(filename)));
+    }
+
+    @Test
+    @DisplayName("Dalam transaksi: dipindahkan setelah commit, dihapus setelah rollback")
+    void testPromote_AfterCompletion() throws IOException {
+        String committed = stage();
+        String rolledBack = stage();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.promoteOnCommit(committed);
+            service.promoteOnCommit(rolledBack);
+            // Belum commit: file belum terlihat
+            assertFalse(Files.exists(tempDir.resolve(committed)));
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.get(0).afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            synchronizations.get(1).afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(Files.exists(tempDir.resolve(committed)));
+        assertFalse(Files.exists(tempDir.resolve(rolledBack)));
+        assertFalse(Files.exists(tempDir.resolve(FileStorageService.STAGING_DIR).resolve(rolledBack)));
+    }
+
+    @Test
+    @DisplayName("Gagal memindahkan / menghapus file staging hanya dicatat di log")
+    void testPromoteAndDiscard_IOException() throws IOException {
+        // File staging tidak ada: move gagal
+        service.promote("tidak-ada.png");
+        assertFalse(Files.exists(tempDir.resolve("tidak-ada.png")));
+
+        FileStorageService spyService = spy(service);
+        doThrow(new IOException("Disk Error Simulation")).when(spyService).deleteFileInternal(any(Path.class));
+        String filename = stage();
+        spyService.discardStaged(filename);
+        assertTrue(Files.exists(tempDir.resolve(FileStorageService.STAGING_DIR).resolve(filename)));
+    }
+
     // --- GROUP 2: TEST MENGHAPUS FILE (DELETE) ---
 
     @Test
@@ -99,6 +175,19 @@ class FileStorageServiceTests {
         assertTrue(result);
     }
 
+    @Test
+    @DisplayName("Delete untuk antrian: file tidak ada dianggap berhasil, IOException diteruskan")
+    void testDeleteFileOrThrow() throws IOException {
+        Files.createFile(tempDir.resolve("hapus_aku.txt"));
+        service.deleteFileOrThrow("hapus_aku.txt");
+        assertFalse(Files.exists(tempDir.resolve("hapus_aku.txt")));
+        service.deleteFileOrThrow("hapus_aku.txt");
+
+        FileStorageService spyService = spy(service);
+        doThrow(new IOException("Disk Error Simulation")).when(spyService).deleteFileInternal(any(Path.class));
+        assertThrows(IOException.class, () -> spyService.deleteFileOrThrow("file_apapun.txt"));
+    }
+
     @Test
     @DisplayName("Delete parameter invalid (Fixes Yellow Line 49)")
     void testDeleteFile_InvalidInput() {
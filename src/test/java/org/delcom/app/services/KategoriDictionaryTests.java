@@ -0,0 +1,66 @@
+package org.delcom.app.services;
+
+import org.delcom.app.repositories.KategoriRepository;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class KategoriDictionaryTests {
+
+    @Mock
+    private KategoriRepository kategoriRepository;
+
+    private KategoriDictionary kategoriDictionary;
+
+    @BeforeEach
+    void setUp() {
+        // Maksimal 1 nama kategori di cache
+        kategoriDictionary = new KategoriDictionary(kategoriRepository, 1);
+    }
+
+    @Test
+    @DisplayName("Id kategori dibaca dari database sekali, berikutnya dari cache")
+    void testIdOf_Cached() {
+        when(kategoriRepository.upsertId("Sepatu")).thenReturn(3);
+
+        assertEquals(3, kategoriDictionary.idOf("Sepatu"));
+        assertEquals(3, kategoriDictionary.idOf("Sepatu"));
+
+        verify(kategoriRepository, times(1)).upsertId("Sepatu");
+    }
+
+    @Test
+    @DisplayName("Cache penuh: kategori baru tetap benar, selalu dari database")
+    void testIdOf_CacheFull() {
+        when(kategoriRepository.upsertId("Sepatu")).thenReturn(3);
+        when(kategoriRepository.upsertId("Jaket")).thenReturn(4);
+
+        assertEquals(3, kategoriDictionary.idOf("Sepatu"));
+        assertEquals(4, kategoriDictionary.idOf("Jaket"));
+        assertEquals(4, kategoriDictionary.idOf("Jaket"));
+        assertEquals(3, kategoriDictionary.idOf("Sepatu"));
+
+        verify(kategoriRepository, times(2)).upsertId("Jaket");
+        verify(kategoriRepository, times(1)).upsertId("Sepatu");
+    }
+
+    @Test
+    @DisplayName("Kategori kosong ditolak tanpa ke database")
+    void testIdOf_Blank() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> kategoriDictionary.idOf(null));
+        assertEquals("Kategori tidak boleh kosong", e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> kategoriDictionary.idOf("  "));
+
+        verifyNoInteractions(kategoriRepository);
+    }
+}
@@ -0,0 +1,102 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class LoginThrottleTests {
+
+    private long now;
+    private LoginThrottle throttle;
+
+    @BeforeEach
+    void setUp() {
+        now = 0;
+        // 2 percobaan per email per menit, 3 per IP per menit, 2 stripe, 4 key
+        throttle = new LoginThrottle(2, Duration.ofMinutes(1), 3, Duration.ofMinutes(1), 2, 4) {
+            @Override
+            protected long currentTimeNanos() {
+                return now;
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Percobaan per email dibatasi dan terisi kembali")
+    void testEmailLimit() {
+        assertEquals(0, throttle.tryAcquire("user@example.com", "10.0.0.1"));
+        // Email dinormalisasi
+        assertEquals(0, throttle.tryAcquire(" USER@example.com", "10.0.0.2"));
+        // Token berikutnya tersedia dalam 30 detik (2 token per menit)
+        assertEquals(30, throttle.tryAcquire("user@example.com", "10.0.0.3"));
+
+        now = Duration.ofSeconds(30).toNanos();
+        assertEquals(0, throttle.tryAcquire("user@example.com", "10.0.0.3"));
+    }
+
+    @Test
+    @DisplayName("Percobaan per IP dibatasi untuk email berbeda")
+    void testIpLimit() {
+        assertEquals(0, throttle.tryAcquire("a@example.com", "10.0.0.1"));
+        assertEquals(0, throttle.tryAcquire("b@example.com", "10.0.0.1"));
+        assertEquals(0, throttle.tryAcquire("c@example.com", "10.0.0.1"));
+        assertEquals(20, throttle.tryAcquire("d@example.com", "10.0.0.1"));
+
+        // Sisa waktu dibulatkan ke atas
+        now = Duration.ofMillis(500).toNanos();
+        assertEquals(20, throttle.tryAcquire("d@example.com", "10.0.0.1"));
+    }
+
+    @Test
+    @DisplayName("Bucket idle dibuang dan jumlah key dibatasi")
+    void testEviction() {
+        for (int i = 0; i < 10; i++) {
+            throttle.tryAcquire("user" + i + "@example.com", "10.0.0." + i);
+            now += 1;
+        }
+        // Maksimal 4 key per jenis bucket (2 stripe x 2)
+        assertTrue(throttle.size() <= 8);
+
+        now += Duration.ofMinutes(1).toNanos();
+        throttle.evictIdle();
+        assertEquals(0, throttle.size());
+    }
+
+    @Test
+    @DisplayName("Stripe penuh: bucket yang belum penuh kembali tidak dibuang, key baru ditolak")
+    void testEvictionKeepsExhaustedBuckets() {
+        // 1 stripe, maksimal 2 key per jenis bucket
+        LoginThrottle small = new LoginThrottle(2, Duration.ofMinutes(1), 100, Duration.ofMinutes(1), 1, 2) {
+            @Override
+            protected long currentTimeNanos() {
+                return now;
+            }
+        };
+        small.tryAcquire("a@example.com", "10.0.0.1");
+        small.tryAcquire("a@example.com", "10.0.0.1");
+        small.tryAcquire("b@example.com", "10.0.0.1");
+
+        // Bucket paling lama (a) masih kosong: key baru ditolak, a tetap dibatasi
+        assertTrue(small.tryAcquire("c@example.com", "10.0.0.1") >= 60);
+        assertEquals(30, small.tryAcquire("a@example.com", "10.0.0.1"));
+
+        // b sudah penuh kembali dan paling lama tidak dipakai: b dibuang untuk c
+        now = Duration.ofSeconds(31).toNanos();
+        assertEquals(0, small.tryAcquire("c@example.com", "10.0.0.1"));
+        assertEquals(0, small.tryAcquire("a@example.com", "10.0.0.1"));
+        assertEquals(3, small.size());
+    }
+
+    @Test
+    @DisplayName("Waktu default memakai System.nanoTime")
+    void testDefaultClock() {
+        LoginThrottle defaultThrottle = new LoginThrottle(1, Duration.ofHours(1), 1, Duration.ofHours(1), 1, 10);
+        assertEquals(0, defaultThrottle.tryAcquire("user@example.com", "10.0.0.1"));
+        assertEquals(2, defaultThrottle.size());
+    }
+}
@@ -0,0 +1,113 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+public class PasswordServiceTests {
+
+    private PasswordService passwordService;
+
+    @AfterEach
+    void tearDown() {
+        Thread.interrupted();
+        if (passwordService != null) {
+            passwordService.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Encode, matches dan upgradeEncoding")
+    void testEncodeAndMatches() {
+        passwordService = new PasswordService(new BCryptPasswordEncoder(5), 0, 4, Duration.ofSeconds(1));
+
+        String hash = passwordService.encode("password123");
+        assertTrue(passwordService.matches("password123", hash));
+        assertFalse(passwordService.matches("wrongpassword", hash));
+
+        assertFalse(passwordService.upgradeEncoding(hash));
+        assertTrue(passwordService.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password123")));
+    }
+
+    @Test
+    @DisplayName("Antrean penuh ditolak dengan BusyException")
+    void testBusy() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder passwordEncoder = Mockito.mock(PasswordEncoder.class);
+        Mockito.when(passwordEncoder.encode("slow")).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return "hash";
+        });
+        passwordService = new PasswordService(passwordEncoder, 1, 1, Duration.ofSeconds(3));
+
+        // Satu task berjalan, satu task mengantre
+        Thread first = new Thread(() -> passwordService.encode("slow"));
+        first.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Thread second = new Thread(() -> passwordService.encode("slow"));
+        second.start();
+        while (second.getState() != Thread.State.WAITING) {
+            Thread.sleep(5);
+        }
+
+        PasswordService.BusyException exception = assertThrows(PasswordService.BusyException.class,
+                () -> passwordService.encode("slow"));
+        assertEquals(Duration.ofSeconds(3), exception.getRetryAfter());
+
+        release.countDown();
+        first.join();
+        second.join();
+    }
+
+    @Test
+    @DisplayName("Error dan interupsi saat hashing")
+    void testFailureAndInterrupt() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder passwordEncoder = Mockito.mock(PasswordEncoder.class);
+        Mockito.when(passwordEncoder.encode("bad")).thenThrow(new IllegalArgumentException("bad"));
+        Mockito.when(passwordEncoder.encode("slow")).thenAnswer(invocation -> {
+            release.await();
+            return "hash";
+        });
+        passwordService = new PasswordService(passwordEncoder, 1, 1, Duration.ofSeconds(1));
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class,
+                () -> passwordService.encode("bad"));
+        assertTrue(failure.getCause() instanceof IllegalArgumentException);
+
+        Thread.currentThread().interrupt();
+        assertThrows(IllegalStateException.class, () -> passwordService.encode("slow"));
+        assertTrue(Thread.interrupted());
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Kalibrasi strength BCrypt")
+    void testCalibrateStrength() {
+        // 1 ms di strength 10, target 10 ms -> 13 (8 ms)
+        assertEquals(13, PasswordService.calibrateStrength(Duration.ofMillis(10), 10, 14,
+                strength -> TimeUnit.MILLISECONDS.toNanos(1)));
+        // Dibatasi maxStrength
+        assertEquals(12, PasswordService.calibrateStrength(Duration.ofSeconds(10), 10, 12,
+                strength -> TimeUnit.MILLISECONDS.toNanos(1)));
+        // Mesin lambat tetap memakai minStrength
+        assertEquals(10, PasswordService.calibrateStrength(Duration.ofMillis(10), 10, 14,
+                strength -> TimeUnit.MILLISECONDS.toNanos(50)));
+
+        assertTrue(PasswordService.measureHashNanos(4) > 0);
+    }
+}
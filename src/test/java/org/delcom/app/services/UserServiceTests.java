@@ -19,7 +19,9 @@ public class UserServiceTests {
         UserRepository userRepository = Mockito.mock(UserRepository.class);
 
         // Membuat instance UserService dengan repository palsu
-        UserService userService = new UserService(userRepository);
+        AuthTokenCache authTokenCache = Mockito.mock(AuthTokenCache.class);
+        AccessTokenService accessTokenService = Mockito.mock(AccessTokenService.class);
+        UserService userService = new UserService(userRepository, authTokenCache, accessTokenService);
         assertTrue(userService != null);
 
         // Menguji createUser
@@ -35,7 +37,7 @@ public class UserServiceTests {
 
         // Menguji getUserByEmail dengan email yang ada
         {
-            Mockito.when(userRepository.findFirstByEmail(user.getEmail()))
+            Mockito.when(userRepository.findByEmail(user.getEmail()))
                     .thenReturn(java.util.Optional.of(user));
 
             User result = userService.getUserByEmail(user.getEmail());
@@ -45,7 +47,7 @@ public class UserServiceTests {
 
         // Menguji getUserByEmail dengan email yang tidak ada
         {
-            Mockito.when(userRepository.findFirstByEmail("notfound@example.com"))
+            Mockito.when(userRepository.findByEmail("notfound@example.com"))
                     .thenReturn(java.util.Optional.empty());
 
             User result = userService.getUserByEmail("notfound@example.com");
@@ -81,6 +83,8 @@ public class UserServiceTests {
             assertTrue(result != null);
             assertEquals("Updated Name", result.getName());
             assertEquals("updated@example.com", result.getEmail());
+            Mockito.verify(authTokenCache, Mockito.times(1)).invalidateUser(user.getId());
+            Mockito.verify(accessTokenService, Mockito.times(1)).revokeUser(user.getId());
         }
 
         // Menguji updateUser dengan ID yang tidak ada
@@ -100,6 +104,7 @@ public class UserServiceTests {
             User result = userService.updatePassword(user.getId(), "newpassword123");
             assertTrue(result != null);
             assertEquals("newpassword123", result.getPassword());
+            Mockito.verify(authTokenCache, Mockito.times(2)).invalidateUser(user.getId());
         }
 
         // Menguji updatePassword dengan ID yang tidak ada
@@ -109,5 +114,18 @@ public class UserServiceTests {
             User result = userService.updatePassword(java.util.UUID.randomUUID(), "newpassword123");
             assertTrue(result == null);
         }
+
+        // Menguji rehashPassword
+        {
+            java.util.UUID userId = java.util.UUID.randomUUID();
+            Mockito.when(userRepository.updatePasswordIfUnchanged(userId, "oldhash", "newhash")).thenReturn(1);
+            assertTrue(userService.rehashPassword(userId, "oldhash", "newhash"));
+            Mockito.verify(authTokenCache, Mockito.times(1)).invalidateUser(userId);
+
+            // Password sudah diganti oleh request lain
+            Mockito.when(userRepository.updatePasswordIfUnchanged(userId, "stalehash", "newhash")).thenReturn(0);
+            assertTrue(!userService.rehashPassword(userId, "stalehash", "newhash"));
+            Mockito.verify(authTokenCache, Mockito.times(1)).invalidateUser(userId);
+        }
     }
 }
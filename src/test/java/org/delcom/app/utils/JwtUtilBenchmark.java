@@ -0,0 +1,63 @@
+package org.delcom.app.utils;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+/**
+ * Membandingkan alur lama AuthInterceptor (validateToken lalu extractUserId,
+ * masing-masing membuat parser baru) dengan JwtUtil.verify.
+ *
+ * Jalankan: lihat bagian "Menjalankan Benchmark" di README.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        token = JwtUtil.generateToken(UUID.randomUUID());
+    }
+
+    @Benchmark
+    public UUID twoCallPath() {
+        // Sama seperti implementasi lama: parser dibuat dan signature
+        // diverifikasi dua kali
+        Jwts.parser().verifyWith(JwtUtil.getKey()).build().parseSignedClaims(token);
+        Claims claims = Jwts.parser().verifyWith(JwtUtil.getKey()).build()
+                .parseSignedClaims(token).getPayload();
+        return UUID.fromString(claims.getSubject());
+    }
+
+    @Benchmark
+    public JwtUtil.VerifiedToken singlePassVerify() {
+        return JwtUtil.verify(token);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(JwtUtilBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
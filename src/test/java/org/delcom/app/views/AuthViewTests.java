@@ -0,0 +1,71 @@
+package org.delcom.app.views;
+
+import java.time.Duration;
+
+import org.delcom.app.entities.User;
+import org.delcom.app.services.PasswordService;
+import org.delcom.app.services.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class AuthViewTests {
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @MockitoBean
+        private PasswordService passwordService;
+
+        @MockitoBean
+        private UserService userService;
+
+        @Test
+        void login_passwordServiceBusy_returns503WithRetryAfter() throws Exception {
+                when(userService.getUserByEmail("sibuk@example.com"))
+                                .thenReturn(new User("Sibuk", "sibuk@example.com", "hash"));
+                when(passwordService.matches("rahasia", "hash"))
+                                .thenThrow(new PasswordService.BusyException(Duration.ofMillis(2500)));
+
+                mockMvc.perform(post("/auth/login/post")
+                                .with(csrf())
+                                .param("email", "sibuk@example.com")
+                                .param("password", "rahasia"))
+                                .andExpect(status().isServiceUnavailable())
+                                .andExpect(header().string("Retry-After", "2"))
+                                .andExpect(view().name("pages/auth/login"))
+                                .andExpect(content().string(containsString("Server sedang sibuk, silakan coba lagi")));
+        }
+
+        @Test
+        void register_passwordServiceBusy_returns503WithRetryAfter() throws Exception {
+                when(passwordService.encode("rahasia"))
+                                .thenThrow(new PasswordService.BusyException(Duration.ofMillis(200)));
+
+                mockMvc.perform(post("/auth/register/post")
+                                .with(csrf())
+                                .param("name", "Sibuk")
+                                .param("email", "baru@example.com")
+                                .param("password", "rahasia"))
+                                .andExpect(status().isServiceUnavailable())
+                                .andExpect(header().string("Retry-After", "1"))
+                                .andExpect(view().name("pages/auth/register"))
+                                .andExpect(content().string(containsString("Server sedang sibuk, silakan coba lagi")));
+
+                verify(userService, never()).createUser(anyString(), anyString(), anyString());
+        }
+}